@@ -0,0 +1,78 @@
+package atlas;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how atlas packing time and memory grow with glyph count, for each packing heuristic.
+ * Glyph sizes are drawn from a fixed seed, so every run packs the same rectangles.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AtlasPackingBenchmark {
+
+    // FIELDS
+    /**
+     * Number of glyphs to pack.
+     */
+    @Param({"256", "2048", "16384"})
+    public int glyphCount;
+
+    /**
+     * Packing algorithm to use.
+     */
+    @Param({"SKYLINE_BOTTOM_LEFT", "MAX_RECTS_BEST_SHORT_SIDE"})
+    public PackingHeuristic heuristic;
+
+    /**
+     * Width and height of each glyph (roughly those of a 32 to 64 pixel font).
+     */
+    private int[] widths, heights;
+
+
+    // METHODS
+    /**
+     * Picks the glyph sizes.
+     */
+    @Setup
+    public void setup() {
+
+        Random random = new Random(42);
+        widths = new int[glyphCount];
+        heights = new int[glyphCount];
+
+        for (int i = 0; i < glyphCount; i++) {
+
+            widths[i] = 8 + random.nextInt(56);
+            heights[i] = 16 + random.nextInt(48);
+        }
+    }
+
+
+    /**
+     * Packs every glyph onto a single power-of-two page.
+     *
+     * @return layout
+     */
+    @Benchmark
+    public AtlasLayout packPowerOfTwo() {
+
+        return AtlasLayout.packPowerOfTwo(widths, heights, heuristic, 16384);
+    }
+}
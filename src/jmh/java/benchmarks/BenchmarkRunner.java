@@ -0,0 +1,54 @@
+package benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar.
+ * Accepts the usual JMH command-line options, but defaults to writing results as JSON to target/jmh-result.json and
+ * to running the GC profiler (so allocation per operation is always recorded), so that nightly runs produce results
+ * that can be compared directly.
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar [JMH options] [benchmark regex...]}
+ */
+public class BenchmarkRunner {
+
+    /**
+     * File that results are written to unless another is passed with -rff.
+     */
+    private static final String defaultResultFile = "target/jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+
+            Main.main(args);                                                                                            // Nothing to run, so let JMH print what was asked for.
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (!commandLine.getResultFormat().hasValue()) {
+
+            options.resultFormat(ResultFormatType.JSON);
+        }
+
+        if (!commandLine.getResult().hasValue()) {
+
+            options.result(defaultResultFile);
+        }
+
+        if (commandLine.getProfilers().isEmpty()) {
+
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,61 @@
+package fonts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a whole font atlas (measuring, packing, rasterizing, and converting every glyph of a font), as
+ * CFont.generateBitmap does when a font is not in the bake cache, but without uploading anything.
+ * Each atlas takes long enough to build that every invocation is timed on its own; allocation per build (see
+ * gc.alloc.rate.norm) includes the texels themselves.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AtlasBuildBenchmark {
+
+    // FIELDS
+    /**
+     * Font to build atlas of (fonts differ in glyph count).
+     */
+    @Param({"/fonts/Arimo-mO92.ttf", "/fonts/TrulyMadlyDpad-a72o.ttf"})
+    public String filePath;
+
+    /**
+     * Font size to build atlas at.
+     */
+    @Param({"32", "64", "128"})
+    public int fontSize;
+
+    /**
+     * What the atlas stores for each glyph.
+     */
+    @Param({"COVERAGE", "SDF"})
+    public AtlasMode mode;
+
+
+    // METHODS
+    /**
+     * Builds the atlas.
+     *
+     * @return baked font
+     */
+    @Benchmark
+    public BakedFont bake() {
+
+        return CFont.bake(filePath, fontSize, mode);
+    }
+}
@@ -0,0 +1,31 @@
+package fonts;
+
+/**
+ * Loads fonts for benchmarks without an OpenGL context.
+ * Fonts are fully laid out (glyph metrics and lookup table), but their texture is never uploaded, so they can be used
+ * to generate vertices but not to draw.
+ */
+public final class BenchmarkFonts {
+
+    /**
+     * Prevents instantiation.
+     */
+    private BenchmarkFonts() {}
+
+
+    /**
+     * Loads a font without uploading its texture.
+     * The font is taken from the bake cache directory if it has been baked there, and is baked there otherwise.
+     *
+     * @param filePath file path of font from resources directory
+     * @param fontSize font scale (controls font resolution)
+     * @param mode what the generated font texture stores for each character
+     * @return font with no texture
+     */
+    public static CFont load(String filePath, int fontSize, AtlasMode mode) {
+
+        CFont font = new CFont(filePath, fontSize, mode, false);
+        font.prepare();
+        return font;
+    }
+}
@@ -0,0 +1,112 @@
+package fonts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures codepoint to glyph lookups in GlyphTable, per range of the table.
+ * Lookups should allocate nothing (see gc.alloc.rate.norm), hits and misses alike.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GlyphLookupBenchmark {
+
+    // FIELDS
+    /**
+     * Number of codepoints looked up per invocation.
+     */
+    private static final int lookups = 1024;
+
+    /**
+     * Range that looked up codepoints are drawn from.
+     */
+    @Param({"LATIN_1", "BMP", "SUPPLEMENTARY"})
+    public String range;
+
+    /**
+     * Table holding every Latin-1 codepoint, every CJK ideograph, and a block of emoji.
+     */
+    private final GlyphTable table = new GlyphTable();
+
+    /**
+     * Codepoints to look up, half of which (outside Latin-1) are missing from the table.
+     */
+    private final int[] codepoints = new int[lookups];
+
+
+    // METHODS
+    /**
+     * Fills the table and picks the codepoints to look up.
+     */
+    @Setup
+    public void setup() {
+
+        int glyph = 1;
+
+        for (int codepoint = 0x20; codepoint <= 0xFF; codepoint++) {
+
+            table.put(codepoint, glyph++);
+        }
+
+        for (int codepoint = 0x4E00; codepoint <= 0x9FFF; codepoint++) {
+
+            table.put(codepoint, glyph++);
+        }
+
+        for (int codepoint = 0x1F300; codepoint <= 0x1F5FF; codepoint++) {
+
+            table.put(codepoint, glyph++);
+        }
+        Random random = new Random(42);                                                                                 // Fixed seed, so runs are comparable.
+
+        for (int i = 0; i < lookups; i++) {
+
+            switch (range) {
+                case "LATIN_1":
+                    codepoints[i] = 0x20 + random.nextInt(0xE0);
+                    break;
+                case "BMP":
+                    codepoints[i] = 0x4E00 + random.nextInt(0xA000);                                                    // Past the ideographs, so some lookups miss.
+                    break;
+                default:
+                    codepoints[i] = 0x1F300 + random.nextInt(0x600);
+            }
+        }
+    }
+
+
+    /**
+     * Looks up every codepoint.
+     *
+     * @return sum of glyph indices (so lookups cannot be eliminated)
+     */
+    @Benchmark
+    @OperationsPerInvocation(lookups)
+    public int lookup() {
+
+        int sum = 0;
+
+        for (int codepoint : codepoints) {
+
+            sum += table.get(codepoint);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,192 @@
+package rendering;
+
+import fonts.AtlasMode;
+import fonts.BenchmarkFonts;
+import fonts.CFont;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures glyphs per second (and, with the GC profiler, bytes allocated per glyph) of vertex generation, with no
+ * OpenGL context: batches write into a RecordingVertexStream and are discarded instead of flushed.
+ * Every addString variant draws the same text, so their scores compare directly; in steady state none of them should
+ * allocate (gc.alloc.rate.norm of 0 B/op).
+ * Segment benchmarks run one producer per thread, each with its own segment, to show how staging scales.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VertexGenerationBenchmark {
+
+    // FIELDS
+    /**
+     * Text drawn by each operation (64 characters, of which every one but the spaces produces a quad).
+     */
+    private static final String text = "The quick brown fox jumps over the lazy dog, 0123456789 times!?#";
+
+    /**
+     * Number of characters in text.
+     */
+    private static final int textLength = 64;
+
+    /**
+     * Layout of character data in the vertex buffer.
+     */
+    @Param({"QUAD", "PACKED_QUAD", "INSTANCED", "MULTI_FONT"})
+    public VertexFormat vertexFormat;
+
+    /**
+     * Font to generate vertices in (laid out, but never uploaded).
+     */
+    private CFont font;
+
+    /**
+     * Batch that vertices are generated into.
+     */
+    private FontBatch batch;
+
+    /**
+     * Text, as a reused StringBuilder and as a character array.
+     */
+    private final StringBuilder builder = new StringBuilder();
+    private char[] chars;
+
+    /**
+     * Number that addNumber draws, changed every operation.
+     */
+    private long number = 0;
+
+
+    // METHODS
+    /**
+     * Loads the font and creates the batch.
+     */
+    @Setup
+    public void setup() {
+
+        font = BenchmarkFonts.load("/fonts/Arimo-mO92.ttf", 64, AtlasMode.COVERAGE);
+        batch = new FontBatch(FontBatch.defaultCapacity, vertexFormat, new RecordingVertexStream());
+        batch.setFont(font);
+        builder.append(text);
+        chars = text.toCharArray();
+    }
+
+
+    /**
+     * Draws text from a String.
+     */
+    @Benchmark
+    @OperationsPerInvocation(textLength)
+    public void addString() {
+
+        batch.addString(font, text, 0, 100, 0.25f, 0x333333, 1f);
+        batch.discard();
+    }
+
+
+    /**
+     * Draws text from a StringBuilder, which skips the layout cache and must not be copied into a String.
+     */
+    @Benchmark
+    @OperationsPerInvocation(textLength)
+    public void addStringBuilder() {
+
+        batch.addString(font, builder, 0, 100, 0.25f, 0x333333, 1f);
+        batch.discard();
+    }
+
+
+    /**
+     * Draws text from a character array.
+     */
+    @Benchmark
+    @OperationsPerInvocation(textLength)
+    public void addCharArray() {
+
+        batch.addString(font, chars, 0, textLength, 0, 100, 0.25f, 0x333333, 1f);
+        batch.discard();
+    }
+
+
+    /**
+     * Draws a number that changes every operation, as a score or timer would.
+     * Scored per number drawn rather than per glyph, since numbers vary in length.
+     */
+    @Benchmark
+    public void addNumber() {
+
+        batch.addNumber(font, number++, 0, 100, 0.25f, 0x333333, 1f);
+        batch.discard();
+    }
+
+
+    /**
+     * Stages text in a segment on a single producer thread.
+     *
+     * @param producer segment of calling thread
+     */
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(textLength)
+    public void segmentOneThread(Producer producer) {
+
+        producer.segment.addString(font, text, 0, 100, 0.25f, 0x333333, 1f);
+        producer.segment.clear();
+    }
+
+
+    /**
+     * Stages text in a segment on every available processor at once.
+     * Compare the total score against segmentOneThread to see how producers scale.
+     *
+     * @param producer segment of calling thread
+     */
+    @Benchmark
+    @Threads(Threads.MAX)
+    @OperationsPerInvocation(textLength)
+    public void segmentAllThreads(Producer producer) {
+
+        producer.segment.addString(font, text, 0, 100, 0.25f, 0x333333, 1f);
+        producer.segment.clear();
+    }
+
+
+    /**
+     * Segment owned by a single benchmark thread, as one would be by a producer thread.
+     */
+    @State(Scope.Thread)
+    public static class Producer {
+
+        /**
+         * Segment that calling thread stages text in.
+         */
+        private GlyphSegment segment;
+
+        /**
+         * Creates the segment in the format being measured.
+         *
+         * @param benchmark shared benchmark state
+         */
+        @Setup
+        public void setup(VertexGenerationBenchmark benchmark) {
+
+            segment = new GlyphSegment(benchmark.vertexFormat, textLength);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package sdf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of generating the SDF of a single glyph against output font size and spread.
+ * The upscaled glyph bitmap is rasterized once up front (as FreeType would render it for SdfGenerator), so only the
+ * distance field and downsampling are timed.
+ * The brute-force engine is slow enough at large spreads that it is left out by default; pass
+ * {@code -p engineName=BRUTE_FORCE} (or {@code -p engineName=EUCLIDEAN,BRUTE_FORCE}) to measure it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistanceFieldBenchmark {
+
+    // FIELDS
+    /**
+     * Resolution that glyphs are upscaled to before computing distance fields (matches SdfGenerator).
+     */
+    private static final int upscaleResolution = 1024;
+
+    /**
+     * Padding around the glyph in the output SDF (matches SdfGenerator).
+     */
+    private static final int padding = 15;
+
+    /**
+     * Size of SDF to generate.
+     */
+    @Param({"16", "32", "64"})
+    public int fontSize;
+
+    /**
+     * Spread factor in upscaled pixels.
+     */
+    @Param({"64", "256", "512"})
+    public int spread;
+
+    /**
+     * Name of engine used to compute the distance field (EUCLIDEAN or BRUTE_FORCE).
+     */
+    @Param({"EUCLIDEAN"})
+    public String engineName;
+
+    /**
+     * Engine used to compute the distance field.
+     */
+    private DistanceFieldEngine engine;
+
+    /**
+     * Upscaled glyph bitmap (one byte per pixel, row-major).
+     */
+    private byte[] bitmap;
+
+    /**
+     * Upscaled glyph bitmap dimensions.
+     */
+    private int width, height;
+
+
+    // METHODS
+    /**
+     * Creates the engine and rasterizes the upscaled glyph.
+     *
+     * @throws Exception if the font cannot be loaded
+     */
+    @Setup
+    public void setup() throws Exception {
+
+        engine = engineName.equals("BRUTE_FORCE") ? new BruteForceDistanceField() : new EuclideanDistanceField();
+
+        try (InputStream is = getClass().getResourceAsStream("/fonts/Arimo-mO92.ttf")) {
+
+            Font font = Font.createFont(Font.TRUETYPE_FONT, is).deriveFont((float)upscaleResolution);
+            FontRenderContext frc = new FontRenderContext(null, true, true);
+            GlyphVector vector = font.createGlyphVector(frc, "g");                                                      // Has a descender, so crosses the baseline.
+            Rectangle bounds = vector.getPixelBounds(frc, 0, 0);
+            width = bounds.width;
+            height = bounds.height;
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D g2d = image.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.drawGlyphVector(vector, -bounds.x, -bounds.y);
+            g2d.dispose();
+            bitmap = ((DataBufferByte)image.getRaster().getDataBuffer()).getData();
+        }
+    }
+
+
+    /**
+     * Generates the SDF of the glyph.
+     *
+     * @return SDF
+     */
+    @Benchmark
+    public GlyphSdf generate() {
+
+        return SdfGenerator.fromBitmap('g', bitmap, width, height, (float)upscaleResolution / fontSize, padding, spread,
+                engine, 0);
+    }
+}
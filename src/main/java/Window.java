@@ -1,7 +1,15 @@
 import fonts.CFont;
+import fonts.FontLoader;
 import org.lwjgl.opengl.GL;
+import rendering.BlendMode;
 import rendering.FontBatch;
+import rendering.GlState;
 import rendering.Shader;
+import rendering.TextCommandBuffer;
+import rendering.TextCommandList;
+import rendering.TextMesh;
+
+import java.util.concurrent.CompletableFuture;
 
 import static org.lwjgl.glfw.GLFW.*;
 import static org.lwjgl.opengl.GL11.glClearColor;
@@ -33,9 +41,13 @@ public class Window {
      */
     public Window() {
         init();
-        font1 = new CFont("/fonts/Arimo-mO92.ttf", 128);
-//        font2 = new CFont("/fonts/ArimoBold-dVDx.ttf", 128);
-        font2 = new CFont("/fonts/TrulyMadlyDpad-a72o.ttf", 128);
+        FontLoader loader = new FontLoader();                                                                           // Fonts are prepared in parallel; only uploads run here.
+        CompletableFuture<CFont> loading1 = loader.load("/fonts/Arimo-mO92.ttf", 128);
+//        CompletableFuture<CFont> loading2 = loader.load("/fonts/ArimoBold-dVDx.ttf", 128);
+        CompletableFuture<CFont> loading2 = loader.load("/fonts/TrulyMadlyDpad-a72o.ttf", 128);
+        font1 = loader.finish(loading1);
+        font2 = loader.finish(loading2);
+        loader.shutdown();
     }
 
 
@@ -74,32 +86,69 @@ public class Window {
         Shader fontShader = new Shader("/shaders/fontShader.glsl");
         fontShader.compileAndLink();
 
-        FontBatch batch1 = new FontBatch();
-        batch1.setShader(fontShader);
-        batch1.setFont(font1);
-        batch1.init();
+        FontBatch batch = new FontBatch();                                                                              // Meshes carry their own font, so one batch draws both.
+        batch.setShader(fontShader);
+        batch.setFont(font1);
+        batch.init();
+
+        TextMesh text1 = new TextMesh(font1);                                                                           // Static text is laid out and uploaded once, not every frame.
+        text1.setText("Hello, World! g p y");
+        text1.setScale(0.5f);
+        text1.setColor(0xAA01BB, 1f);
+
+        TextMesh text2 = new TextMesh(font2);
+        text2.setText("Hello, yorld! g p");
+        text2.setPosition(0, 60);
+        text2.setScale(0.5f);
+        text2.setColor(0xAAAAA, 1f);
 
-        FontBatch batch2 = new FontBatch();
-        batch2.setShader(fontShader);
-        batch2.setFont(font2);
-        batch2.init();
+        GlState.setBlendMode(BlendMode.ALPHA);
 
-        glEnable(GL_BLEND);
-        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        TextCommandBuffer commands = new TextCommandBuffer(16);                                                         // Dynamic text is recorded on its own thread while frames are drawn here.
+        Thread simulation = new Thread(() -> simulate(commands), "simulation");
+        simulation.setDaemon(true);
+        simulation.start();
 
         while (!glfwWindowShouldClose(window)) {
 
             glClear(GL_COLOR_BUFFER_BIT);
             glClearColor(1, 1, 1, 1);
 
-            batch1.addString("Hello, World! g p y", 0, 0, 0.5f, 0xAA01BB);
-            batch1.flush();                                                                                             // Must flush at the end of the frame to actually render entire batch.
-
-            batch2.addString("Hello, yorld! g p", 0, 60, 0.5f, 0xAAAAA);
-            batch2.flush();
+            batch.draw(text1);
+            batch.draw(text2);
+            commands.acquire().drawTo(batch);                                                                           // Newest frame recorded by the simulation thread.
+            batch.flush();                                                                                              // Must flush at the end of the frame to actually render entire batch.
 
             glfwSwapBuffers(window);
             glfwPollEvents();
         }
+        simulation.interrupt();
+    }
+
+
+    /**
+     * Runs the simulation loop, recording the dynamic text of each tick and publishing it to be drawn.
+     *
+     * @param commands command buffer to record into
+     */
+    private void simulate(TextCommandBuffer commands) {
+
+        long tick = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+
+            TextCommandList frame = commands.getRecording();
+            frame.addString(font1, "Tick " + tick++, 0, 120, 0.25f, 0x333333, 1f);
+            commands.publish();
+
+            try {
+
+                Thread.sleep(16);                                                                                       // Roughly one tick per displayed frame.
+
+            } catch (InterruptedException e) {
+
+                return;
+            }
+        }
     }
 }
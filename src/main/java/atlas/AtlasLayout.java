@@ -0,0 +1,272 @@
+package atlas;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class represents the packed positions of a set of rectangles across one or more atlas pages.
+ * Rectangles are inserted tallest first, which suits both packing heuristics.
+ */
+public class AtlasLayout {
+
+    // FIELDS
+    /**
+     * Width of each page.
+     */
+    private final int pageWidth;
+
+    /**
+     * Height of each page.
+     */
+    private final int pageHeight;
+
+    /**
+     * Number of pages used.
+     */
+    private final int pageCount;
+
+    /**
+     * Packed position of each rectangle (X), in the same order as the input sizes.
+     */
+    private final int[] x;
+
+    /**
+     * Packed position of each rectangle (Y), in the same order as the input sizes.
+     */
+    private final int[] y;
+
+    /**
+     * Page of each rectangle, in the same order as the input sizes.
+     */
+    private final int[] page;
+
+    /**
+     * Total area of all packed rectangles.
+     */
+    private final long usedArea;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs an AtlasLayout instance.
+     *
+     * @param pageWidth width of each page
+     * @param pageHeight height of each page
+     * @param pageCount number of pages used
+     * @param x packed position of each rectangle (X)
+     * @param y packed position of each rectangle (Y)
+     * @param page page of each rectangle
+     * @param usedArea total area of all packed rectangles
+     */
+    private AtlasLayout(int pageWidth, int pageHeight, int pageCount, int[] x, int[] y, int[] page, long usedArea) {
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        this.pageCount = pageCount;
+        this.x = x;
+        this.y = y;
+        this.page = page;
+        this.usedArea = usedArea;
+    }
+
+
+    // METHODS
+    /**
+     * Packs every rectangle onto a single page with power-of-two dimensions, using the smallest such page found.
+     * Rectangles with a width or height of zero take up no space and are placed at the origin.
+     *
+     * @param widths rectangle widths
+     * @param heights rectangle heights
+     * @param heuristic packing algorithm to use
+     * @param maxSize maximum page width and height
+     * @return layout
+     */
+    public static AtlasLayout packPowerOfTwo(int[] widths, int[] heights, PackingHeuristic heuristic, int maxSize) {
+
+        long totalArea = 0;
+        int maxWidth = 1;
+        int maxHeight = 1;
+
+        for (int i = 0; i < widths.length; i++) {
+            totalArea += (long)widths[i] * heights[i];
+            maxWidth = Math.max(maxWidth, widths[i]);
+            maxHeight = Math.max(maxHeight, heights[i]);
+        }
+        int pageWidth = 1;
+        int pageHeight = 1;
+
+        while (((long)pageWidth * pageHeight < totalArea) || (pageWidth < maxWidth) || (pageHeight < maxHeight)) {      // Grow to smallest page that could possibly fit.
+
+            if (pageWidth <= pageHeight) {
+                pageWidth *= 2;
+            } else {
+                pageHeight *= 2;
+            }
+        }
+        Integer[] order = insertionOrder(widths, heights);
+
+        while ((pageWidth <= maxSize) && (pageHeight <= maxSize)) {
+
+            AtlasLayout layout = tryPack(widths, heights, order, heuristic.create(pageWidth, pageHeight));
+
+            if (layout != null) {
+
+                return layout;
+            }
+
+            if (pageWidth <= pageHeight) {                                                                              // Grow width first so pages stay wider than tall.
+                pageWidth *= 2;
+            } else {
+                pageHeight *= 2;
+            }
+        }
+        throw new IllegalArgumentException("Rectangles do not fit on a single page of at most "
+                + maxSize + " x " + maxSize);
+    }
+
+
+    /**
+     * Packs every rectangle onto as many fixed-size pages as needed.
+     * Each rectangle goes onto the first page with room for it.
+     * Rectangles with a width or height of zero take up no space and are placed at the origin of the first page.
+     *
+     * @param widths rectangle widths
+     * @param heights rectangle heights
+     * @param heuristic packing algorithm to use
+     * @param pageWidth width of each page
+     * @param pageHeight height of each page
+     * @return layout
+     */
+    public static AtlasLayout packFixed(int[] widths, int[] heights, PackingHeuristic heuristic,
+                                        int pageWidth, int pageHeight) {
+
+        int[] x = new int[widths.length];
+        int[] y = new int[widths.length];
+        int[] page = new int[widths.length];
+        List<RectanglePacker> pages = new ArrayList<>();
+        long usedArea = 0;
+
+        for (int i : insertionOrder(widths, heights)) {
+
+            if ((widths[i] == 0) || (heights[i] == 0)) {
+                continue;
+            }
+
+            if ((widths[i] > pageWidth) || (heights[i] > pageHeight)) {
+                throw new IllegalArgumentException("Rectangle of " + widths[i] + " x " + heights[i]
+                        + " does not fit on a page of " + pageWidth + " x " + pageHeight);
+            }
+            Rectangle placed = null;
+            int p = 0;
+
+            for (; (placed == null) && (p < pages.size()); p++) {
+                placed = pages.get(p).insert(widths[i], heights[i]);
+            }
+
+            if (placed == null) {
+                pages.add(heuristic.create(pageWidth, pageHeight));
+                placed = pages.get(pages.size() - 1).insert(widths[i], heights[i]);
+                p = pages.size();
+            }
+            x[i] = placed.x;
+            y[i] = placed.y;
+            page[i] = p - 1;
+            usedArea += (long)widths[i] * heights[i];
+        }
+        return new AtlasLayout(pageWidth, pageHeight, Math.max(1, pages.size()), x, y, page, usedArea);
+    }
+
+
+    /**
+     * Attempts to pack every rectangle onto the single page of the passed packer.
+     *
+     * @param widths rectangle widths
+     * @param heights rectangle heights
+     * @param order order in which to insert rectangles
+     * @param packer empty packer for target page
+     * @return layout, or null if not every rectangle fits
+     */
+    private static AtlasLayout tryPack(int[] widths, int[] heights, Integer[] order, RectanglePacker packer) {
+
+        int[] x = new int[widths.length];
+        int[] y = new int[widths.length];
+
+        for (int i : order) {
+
+            if ((widths[i] == 0) || (heights[i] == 0)) {
+                continue;
+            }
+            Rectangle placed = packer.insert(widths[i], heights[i]);
+
+            if (placed == null) {
+                return null;
+            }
+            x[i] = placed.x;
+            y[i] = placed.y;
+        }
+        return new AtlasLayout(packer.getPageWidth(), packer.getPageHeight(), 1, x, y,
+                new int[widths.length], packer.getUsedArea());
+    }
+
+
+    /**
+     * Sorts rectangle indices tallest first, then widest first.
+     *
+     * @param widths rectangle widths
+     * @param heights rectangle heights
+     * @return sorted indices
+     */
+    private static Integer[] insertionOrder(int[] widths, int[] heights) {
+
+        Integer[] order = new Integer[widths.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> heights[i]).reversed()
+                .thenComparing(Comparator.<Integer>comparingInt(i -> widths[i]).reversed()));
+        return order;
+    }
+
+
+    /**
+     * Retrieves the fraction of all pages covered by packed rectangles.
+     *
+     * @return packing efficiency from zero to one
+     */
+    public float getEfficiency() {
+
+        return (float)usedArea / ((float)pageWidth * (float)pageHeight * (float)pageCount);
+    }
+
+
+    // GETTERS
+    public int getPageWidth() {
+        return pageWidth;
+    }
+
+    public int getPageHeight() {
+        return pageHeight;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public int getX(int index) {
+        return x[index];
+    }
+
+    public int getY(int index) {
+        return y[index];
+    }
+
+    public int getPage(int index) {
+        return page[index];
+    }
+
+    public long getUsedArea() {
+        return usedArea;
+    }
+}
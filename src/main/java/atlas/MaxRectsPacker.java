@@ -0,0 +1,177 @@
+package atlas;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class packs rectangles by tracking every maximal free rectangle left on a page.
+ * Each rectangle is placed in the free rectangle that leaves the shortest leftover side (best short side fit), with
+ * ties going to the shortest long side.
+ */
+public class MaxRectsPacker implements RectanglePacker {
+
+    // FIELDS
+    /**
+     * Page width.
+     */
+    private final int pageWidth;
+
+    /**
+     * Page height.
+     */
+    private final int pageHeight;
+
+    /**
+     * Maximal free rectangles; these may overlap each other.
+     */
+    private final List<Rectangle> freeRects = new ArrayList<>();
+
+    /**
+     * Total area of all reserved rectangles.
+     */
+    private long usedArea;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a MaxRectsPacker instance.
+     *
+     * @param pageWidth page width
+     * @param pageHeight page height
+     */
+    public MaxRectsPacker(int pageWidth, int pageHeight) {
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        reset();
+    }
+
+
+    // METHODS
+    @Override
+    public Rectangle insert(int width, int height) {
+
+        Rectangle best = null;
+        int bestShortSide = Integer.MAX_VALUE;
+        int bestLongSide = Integer.MAX_VALUE;
+
+        for (Rectangle free : freeRects) {
+
+            if ((width <= free.width) && (height <= free.height)) {
+
+                int leftoverX = free.width - width;
+                int leftoverY = free.height - height;
+                int shortSide = Math.min(leftoverX, leftoverY);
+                int longSide = Math.max(leftoverX, leftoverY);
+
+                if ((shortSide < bestShortSide) || ((shortSide == bestShortSide) && (longSide < bestLongSide))) {
+
+                    best = free;
+                    bestShortSide = shortSide;
+                    bestLongSide = longSide;
+                }
+            }
+        }
+
+        if (best == null) {
+
+            return null;
+        }
+        Rectangle placed = new Rectangle(best.x, best.y, width, height);
+        splitFreeRects(placed);
+        pruneFreeRects();
+        usedArea += (long)width * height;
+        return placed;
+    }
+
+
+    @Override
+    public void reset() {
+
+        freeRects.clear();
+        freeRects.add(new Rectangle(0, 0, pageWidth, pageHeight));
+        usedArea = 0;
+    }
+
+
+    /**
+     * Replaces every free rectangle that overlaps the placed rectangle with the (up to four) maximal rectangles that
+     * remain around it.
+     *
+     * @param placed placed rectangle
+     */
+    private void splitFreeRects(Rectangle placed) {
+
+        List<Rectangle> created = new ArrayList<>();
+
+        for (int i = freeRects.size() - 1; i >= 0; i--) {
+
+            Rectangle free = freeRects.get(i);
+
+            if (!free.intersects(placed)) {
+
+                continue;
+            }
+            freeRects.remove(i);
+
+            if (placed.x > free.x) {                                                                                    // Space left of placed rectangle.
+                created.add(new Rectangle(free.x, free.y, placed.x - free.x, free.height));
+            }
+            if (placed.x + placed.width < free.x + free.width) {                                                        // Space right of placed rectangle.
+                created.add(new Rectangle(placed.x + placed.width, free.y,
+                        free.x + free.width - (placed.x + placed.width), free.height));
+            }
+            if (placed.y > free.y) {                                                                                    // Space above placed rectangle.
+                created.add(new Rectangle(free.x, free.y, free.width, placed.y - free.y));
+            }
+            if (placed.y + placed.height < free.y + free.height) {                                                      // Space below placed rectangle.
+                created.add(new Rectangle(free.x, placed.y + placed.height,
+                        free.width, free.y + free.height - (placed.y + placed.height)));
+            }
+        }
+        freeRects.addAll(created);
+    }
+
+
+    /**
+     * Removes every free rectangle that is fully contained in another free rectangle.
+     */
+    private void pruneFreeRects() {
+
+        for (int i = 0; i < freeRects.size(); i++) {
+
+            for (int j = i + 1; j < freeRects.size(); j++) {
+
+                if (freeRects.get(j).contains(freeRects.get(i))) {
+
+                    freeRects.remove(i);
+                    i--;
+                    break;
+                }
+
+                if (freeRects.get(i).contains(freeRects.get(j))) {
+
+                    freeRects.remove(j);
+                    j--;
+                }
+            }
+        }
+    }
+
+
+    // GETTERS
+    @Override
+    public int getPageWidth() {
+        return pageWidth;
+    }
+
+    @Override
+    public int getPageHeight() {
+        return pageHeight;
+    }
+
+    @Override
+    public long getUsedArea() {
+        return usedArea;
+    }
+}
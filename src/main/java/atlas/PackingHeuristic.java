@@ -0,0 +1,38 @@
+package atlas;
+
+/**
+ * This enum represents the available rectangle packing algorithms.
+ */
+public enum PackingHeuristic {
+
+    /**
+     * Skyline packing that places each rectangle where its bottom edge ends up highest on the page.
+     * Fast and tight for rectangles of similar height, such as characters of a single font.
+     */
+    SKYLINE_BOTTOM_LEFT,
+
+    /**
+     * MaxRects packing that places each rectangle in the free area that leaves the shortest leftover side.
+     * Slower than skyline packing, but wastes less space when rectangle sizes vary widely.
+     */
+    MAX_RECTS_BEST_SHORT_SIDE;
+
+
+    // METHODS
+    /**
+     * Creates an empty packer for a page of the passed size using this heuristic.
+     *
+     * @param pageWidth page width
+     * @param pageHeight page height
+     * @return packer
+     */
+    public RectanglePacker create(int pageWidth, int pageHeight) {
+
+        switch (this) {
+            case MAX_RECTS_BEST_SHORT_SIDE:
+                return new MaxRectsPacker(pageWidth, pageHeight);
+            default:
+                return new SkylinePacker(pageWidth, pageHeight);
+        }
+    }
+}
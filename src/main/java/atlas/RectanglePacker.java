@@ -0,0 +1,60 @@
+package atlas;
+
+import java.awt.Rectangle;
+
+/**
+ * This interface represents an algorithm for packing rectangles onto a single fixed-size page.
+ * Rectangles are never rotated, since texture coordinates of packed characters assume an upright layout.
+ */
+public interface RectanglePacker {
+
+    /**
+     * Finds room for a rectangle of the passed size and reserves it.
+     *
+     * @param width rectangle width
+     * @param height rectangle height
+     * @return reserved area, or null if the rectangle does not fit on this page
+     */
+    Rectangle insert(int width, int height);
+
+
+    /**
+     * Releases every reserved area, leaving this page empty.
+     */
+    void reset();
+
+
+    /**
+     * Retrieves the page width.
+     *
+     * @return page width
+     */
+    int getPageWidth();
+
+
+    /**
+     * Retrieves the page height.
+     *
+     * @return page height
+     */
+    int getPageHeight();
+
+
+    /**
+     * Retrieves the total area of all reserved rectangles.
+     *
+     * @return used area
+     */
+    long getUsedArea();
+
+
+    /**
+     * Retrieves the fraction of this page covered by reserved rectangles.
+     *
+     * @return packing efficiency from zero to one
+     */
+    default float getEfficiency() {
+
+        return (float)getUsedArea() / ((float)getPageWidth() * (float)getPageHeight());
+    }
+}
@@ -0,0 +1,210 @@
+package atlas;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class packs rectangles by tracking the skyline (top edge of filled space) of a page.
+ * Each rectangle is placed on the skyline segment where its bottom edge ends up highest, with ties going to the
+ * narrowest segment.
+ * Note that positive Y is down, so the skyline grows downward from the top of the page.
+ */
+public class SkylinePacker implements RectanglePacker {
+
+    // FIELDS
+    /**
+     * Page width.
+     */
+    private final int pageWidth;
+
+    /**
+     * Page height.
+     */
+    private final int pageHeight;
+
+    /**
+     * Skyline segments, ordered left to right and covering the full page width.
+     */
+    private final List<Segment> skyline = new ArrayList<>();
+
+    /**
+     * Total area of all reserved rectangles.
+     */
+    private long usedArea;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a SkylinePacker instance.
+     *
+     * @param pageWidth page width
+     * @param pageHeight page height
+     */
+    public SkylinePacker(int pageWidth, int pageHeight) {
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        reset();
+    }
+
+
+    // METHODS
+    @Override
+    public Rectangle insert(int width, int height) {
+
+        int bestIndex = -1;
+        int bestBottom = Integer.MAX_VALUE;
+        int bestSegmentWidth = Integer.MAX_VALUE;
+        int bestY = 0;
+
+        for (int i = 0; i < skyline.size(); i++) {
+
+            int y = fit(i, width, height);
+
+            if (y >= 0) {
+
+                int bottom = y + height;
+                int segmentWidth = skyline.get(i).width;
+
+                if ((bottom < bestBottom) || ((bottom == bestBottom) && (segmentWidth < bestSegmentWidth))) {
+
+                    bestIndex = i;
+                    bestBottom = bottom;
+                    bestSegmentWidth = segmentWidth;
+                    bestY = y;
+                }
+            }
+        }
+
+        if (bestIndex < 0) {
+
+            return null;
+        }
+        Rectangle placed = new Rectangle(skyline.get(bestIndex).x, bestY, width, height);
+        addLevel(bestIndex, placed);
+        usedArea += (long)width * height;
+        return placed;
+    }
+
+
+    @Override
+    public void reset() {
+
+        skyline.clear();
+        skyline.add(new Segment(0, 0, pageWidth));
+        usedArea = 0;
+    }
+
+
+    /**
+     * Determines where a rectangle would rest if its left edge were placed at the start of the target segment.
+     *
+     * @param index target segment
+     * @param width rectangle width
+     * @param height rectangle height
+     * @return top edge of rectangle, or -1 if it would not fit on the page
+     */
+    private int fit(int index, int width, int height) {
+
+        int x = skyline.get(index).x;
+
+        if (x + width > pageWidth) {
+
+            return -1;
+        }
+        int widthLeft = width;
+        int y = 0;
+
+        for (int i = index; widthLeft > 0; i++) {                                                                       // Rectangle rests on the lowest point of every segment it spans.
+
+            Segment segment = skyline.get(i);
+            y = Math.max(y, segment.y);
+
+            if (y + height > pageHeight) {
+
+                return -1;
+            }
+            widthLeft -= segment.width;
+        }
+        return y;
+    }
+
+
+    /**
+     * Raises the skyline to account for a newly placed rectangle.
+     *
+     * @param index segment that the rectangle was placed at
+     * @param placed placed rectangle
+     */
+    private void addLevel(int index, Rectangle placed) {
+
+        skyline.add(index, new Segment(placed.x, placed.y + placed.height, placed.width));
+
+        for (int i = index + 1; i < skyline.size(); i++) {                                                              // Trim segments now covered by the new one.
+
+            Segment previous = skyline.get(i - 1);
+            Segment current = skyline.get(i);
+            int overlap = previous.x + previous.width - current.x;
+
+            if (overlap <= 0) {
+
+                break;
+            }
+            current.x += overlap;
+            current.width -= overlap;
+
+            if (current.width <= 0) {
+
+                skyline.remove(i);
+                i--;
+            } else {
+
+                break;
+            }
+        }
+
+        for (int i = 0; i < skyline.size() - 1; i++) {                                                                  // Merge neighboring segments of equal height.
+
+            if (skyline.get(i).y == skyline.get(i + 1).y) {
+
+                skyline.get(i).width += skyline.get(i + 1).width;
+                skyline.remove(i + 1);
+                i--;
+            }
+        }
+    }
+
+
+    // GETTERS
+    @Override
+    public int getPageWidth() {
+        return pageWidth;
+    }
+
+    @Override
+    public int getPageHeight() {
+        return pageHeight;
+    }
+
+    @Override
+    public long getUsedArea() {
+        return usedArea;
+    }
+
+
+    /**
+     * This class represents a single horizontal segment of the skyline.
+     */
+    private static class Segment {
+
+        private int x;
+        private final int y;
+        private int width;
+
+        private Segment(int x, int y, int width) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package fonts;
+
+/**
+ * This enum represents what a font texture stores for each of its characters.
+ */
+public enum AtlasMode {
+
+    /**
+     * Anti-aliased alpha coverage drawn at the native font size.
+     * Characters look best when rendered at (or close to) a scale of one.
+     */
+    COVERAGE,
+
+    /**
+     * Signed distance to the nearest character edge, where 0.5 lies on the edge.
+     * Characters stay sharp at any scale since the shader thresholds the distance instead of sampling coverage.
+     */
+    SDF,
+
+    /**
+     * Multi-channel signed distance generated from vector outlines, stored in the red, green, and blue channels.
+     * Sharp corners are preserved at much lower resolutions than SDF; requires a shader that takes the median of the
+     * three channels (e.g., msdfFontShader.glsl).
+     */
+    MSDF;
+
+
+    // METHODS
+    /**
+     * Retrieves the number of bytes each texel of an atlas in this mode takes up.
+     *
+     * @return bytes per texel
+     */
+    public int getBytesPerTexel() {
+
+        return (this == MSDF) ? 4 : 1;
+    }
+}
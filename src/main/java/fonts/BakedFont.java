@@ -0,0 +1,416 @@
+package fonts;
+
+import atlas.PackingHeuristic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * This class represents a fully generated font (atlas texels and glyph metrics) that can be written to and read from
+ * disk, so that a font only has to be generated once.
+ * Files are keyed by a hash of the font file, font size, atlas mode, and every parameter that generation depends on.
+ * <p>
+ * File layout (little-endian):
+ * <pre>
+ * header     magic "CFNT", version, key (32 bytes), mode, font size, atlas width, atlas height, line height,
+ *            descent, packing efficiency (float), glyph count, texel offset, texel length, name length (short),
+ *            name (UTF-8)
+ * glyphs     glyph count records of eight ints: codepoint, advance, origin X, origin Y, bounds X, bounds Y,
+ *            bounds width, bounds height
+ * texels     atlas texels exactly as uploaded to the GPU, starting at the texel offset (aligned to 64 bytes);
+ *            packed MSDF texels are little-endian ints, matching every supported platform
+ * </pre>
+ * The texel region is memory-mapped on read and handed to the GPU as-is.
+ */
+public class BakedFont {
+
+    // FIELDS
+    /**
+     * File extension of baked fonts.
+     */
+    public static final String extension = ".cfnt";
+
+    /**
+     * First four bytes of every baked font ("CFNT" when read as little-endian).
+     */
+    private static final int magic = 0x544E4643;
+
+    /**
+     * Version of file layout; bumping this invalidates every previously baked font.
+     */
+    private static final int version = 1;
+
+    /**
+     * Number of ints in each glyph record.
+     */
+    private static final int glyphRecordInts = 8;
+
+    /**
+     * Alignment of texel region within file.
+     */
+    private static final int texelAlignment = 64;
+
+    /**
+     * Hash of font file, font size, and atlas mode.
+     */
+    private final String key;
+
+    /**
+     * Font name.
+     */
+    private final String name;
+
+    /**
+     * Font scale.
+     */
+    private final int fontSize;
+
+    /**
+     * What the atlas stores for each character.
+     */
+    private final AtlasMode mode;
+
+    /**
+     * Atlas dimensions.
+     */
+    private final int width, height;
+
+    /**
+     * Character height and descent (same for all characters).
+     */
+    private final int lineHeight, descent;
+
+    /**
+     * Fraction of atlas covered by characters.
+     */
+    private final float packingEfficiency;
+
+    /**
+     * Glyph records (see class documentation), one after the other.
+     */
+    private final int[] glyphs;
+
+    /**
+     * Atlas texels, from position zero to limit.
+     */
+    private final ByteBuffer texels;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a BakedFont instance.
+     *
+     * @param key hash of font file, font size, and atlas mode
+     * @param name font name
+     * @param fontSize font scale
+     * @param mode what the atlas stores for each character
+     * @param width atlas width
+     * @param height atlas height
+     * @param lineHeight character height
+     * @param descent character descent
+     * @param packingEfficiency fraction of atlas covered by characters
+     * @param glyphs glyph records (see class documentation), one after the other
+     * @param texels atlas texels, from position zero to limit (must be a direct buffer)
+     */
+    public BakedFont(String key, String name, int fontSize, AtlasMode mode, int width, int height,
+                     int lineHeight, int descent, float packingEfficiency, int[] glyphs, ByteBuffer texels) {
+        if (glyphs.length % glyphRecordInts != 0) {
+            throw new IllegalArgumentException("Glyph records must be " + glyphRecordInts + " ints each");
+        }
+        this.key = key;
+        this.name = name;
+        this.fontSize = fontSize;
+        this.mode = mode;
+        this.width = width;
+        this.height = height;
+        this.lineHeight = lineHeight;
+        this.descent = descent;
+        this.packingEfficiency = packingEfficiency;
+        this.glyphs = glyphs;
+        this.texels = texels;
+    }
+
+
+    // METHODS
+    /**
+     * Computes the key that a font is baked under.
+     * Every parameter that changes the generated texels or metrics is part of the key, so changing one in CFont never
+     * loads a stale baked font.
+     *
+     * @param fontData contents of font file
+     * @param fontSize font scale
+     * @param mode what the atlas stores for each character
+     * @param heightAdjustment amount subtracted from the reported line height
+     * @param coveragePadding padding around each character in COVERAGE mode
+     * @param sdfPadding padding around each character in SDF and MSDF modes
+     * @param sdfUpscale factor that characters are rasterized at before computing distance fields
+     * @param glyphSpacing empty space between neighbouring characters in the atlas
+     * @param packingHeuristic algorithm that characters are packed into the atlas with
+     * @return key (64 hexadecimal digits)
+     */
+    public static String key(byte[] fontData, int fontSize, AtlasMode mode, int heightAdjustment, int coveragePadding,
+                             int sdfPadding, int sdfUpscale, int glyphSpacing, PackingHeuristic packingHeuristic) {
+
+        try {
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(fontData);
+            digest.update(ByteBuffer.allocate(36).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(version).putInt(fontSize).putInt(mode.ordinal()).putInt(heightAdjustment)
+                    .putInt(coveragePadding).putInt(sdfPadding).putInt(sdfUpscale).putInt(glyphSpacing)
+                    .putInt(packingHeuristic.ordinal()).array());
+            return toHex(digest.digest());
+
+        } catch (NoSuchAlgorithmException e) {
+
+            throw new RuntimeException("SHA-256 is not available", e);                                                  // Every Java platform is required to support SHA-256.
+        }
+    }
+
+
+    /**
+     * Reads a baked font by memory-mapping the target file.
+     * The returned texels are a view of the mapped file; nothing is copied.
+     *
+     * @param file target file
+     * @param expectedKey key that the file must have been baked under
+     * @return baked font
+     * @throws IOException if the file cannot be read, is not a baked font of the current version, was baked under a
+     * different key, or is truncated or corrupt
+     */
+    public static BakedFont read(Path file, String expectedKey) throws IOException {
+
+        MappedByteBuffer mapped;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());                                     // Mapping stays valid after channel is closed.
+        }
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+        try {
+
+            if ((mapped.getInt() != magic) || (mapped.getInt() != version)) {
+
+                throw new IOException("Not a baked font of version " + version + ": " + file);
+            }
+            byte[] rawKey = new byte[32];
+            mapped.get(rawKey);
+            String key = toHex(rawKey);
+
+            if (!key.equals(expectedKey)) {
+
+                throw new IOException("Baked font " + file + " has key " + key + " instead of " + expectedKey);
+            }
+            AtlasMode mode = AtlasMode.values()[mapped.getInt()];
+            int fontSize = mapped.getInt();
+            int width = mapped.getInt();
+            int height = mapped.getInt();
+            int lineHeight = mapped.getInt();
+            int descent = mapped.getInt();
+            float packingEfficiency = mapped.getFloat();
+            int glyphCount = mapped.getInt();
+            int texelOffset = mapped.getInt();
+            int texelLength = mapped.getInt();
+            byte[] rawName = new byte[mapped.getShort() & 0xFFFF];
+            mapped.get(rawName);
+            int[] glyphs = new int[glyphCount * glyphRecordInts];
+            mapped.asIntBuffer().get(glyphs);
+            long glyphsEnd = mapped.position() + (long)glyphs.length * Integer.BYTES;
+            long expectedLength = (long)width * height * mode.getBytesPerTexel();
+
+            if ((width <= 0) || (height <= 0) || (texelLength != expectedLength)) {
+
+                throw new IOException("Baked font " + file + " has " + texelLength + " texel bytes for a " + width
+                        + " x " + height + " " + mode + " atlas");
+            }
+
+            if ((texelOffset < glyphsEnd) || ((long)texelOffset + texelLength > mapped.capacity())) {
+
+                throw new IOException("Baked font " + file + " has texels at " + texelOffset + " to "
+                        + ((long)texelOffset + texelLength) + " outside its " + mapped.capacity() + " bytes");          // Truncated file; GPU would read past mapping.
+            }
+            ByteBuffer texels = mapped.slice(texelOffset, texelLength).order(ByteOrder.LITTLE_ENDIAN);
+            return new BakedFont(key, new String(rawName, StandardCharsets.UTF_8), fontSize, mode, width, height,
+                    lineHeight, descent, packingEfficiency, glyphs, texels);
+
+        } catch (RuntimeException e) {
+
+            throw new IOException("Corrupt baked font: " + file, e);                                                    // E.g., truncated file or unknown mode.
+        }
+    }
+
+
+    /**
+     * Writes this baked font into the target directory, named after its key.
+     * The file is written under a temporary name first and then moved into place, so a partially written file is
+     * never read.
+     *
+     * @param directory target directory (created if needed)
+     * @return written file
+     * @throws IOException if the file cannot be written
+     */
+    public Path write(Path directory) throws IOException {
+
+        Files.createDirectories(directory);
+        byte[] rawName = name.getBytes(StandardCharsets.UTF_8);
+        int headerLength = Integer.BYTES * 2 + 32 + Integer.BYTES * 10 + Short.BYTES + rawName.length;
+        int glyphsLength = glyphs.length * Integer.BYTES;
+        int texelOffset = ((headerLength + glyphsLength + texelAlignment - 1) / texelAlignment) * texelAlignment;
+        int texelLength = texels.limit();
+
+        ByteBuffer header = ByteBuffer.allocate(texelOffset).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(magic).putInt(version).put(fromHex(key));
+        header.putInt(mode.ordinal()).putInt(fontSize).putInt(width).putInt(height);
+        header.putInt(lineHeight).putInt(descent).putFloat(packingEfficiency);
+        header.putInt(glyphs.length / glyphRecordInts).putInt(texelOffset).putInt(texelLength);
+        header.putShort((short)rawName.length).put(rawName);
+        header.asIntBuffer().put(glyphs);
+        header.clear();                                                                                                 // Write whole buffer, including padding.
+
+        Path file = directory.resolve(key + extension);
+        Path temporary = Files.createTempFile(directory, key, ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+
+            ByteBuffer body = texels.duplicate();
+            body.clear();
+            ByteBuffer[] contents = {header, body};
+
+            while (header.hasRemaining() || body.hasRemaining()) {
+
+                channel.write(contents);
+            }
+        } catch (IOException e) {
+
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+
+    /**
+     * Converts bytes to lowercase hexadecimal digits.
+     *
+     * @param bytes target bytes
+     * @return hexadecimal digits
+     */
+    private static String toHex(byte[] bytes) {
+
+        StringBuilder hex = new StringBuilder();
+
+        for (byte b : bytes) {
+
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+
+    /**
+     * Converts hexadecimal digits to bytes.
+     *
+     * @param hex target hexadecimal digits
+     * @return bytes
+     */
+    private static byte[] fromHex(String hex) {
+
+        byte[] bytes = new byte[hex.length() / 2];
+
+        for (int i = 0; i < bytes.length; i++) {
+
+            bytes[i] = (byte)Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+
+
+    // GETTERS
+    public String getKey() {
+        return key;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getFontSize() {
+        return fontSize;
+    }
+
+    public AtlasMode getMode() {
+        return mode;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getLineHeight() {
+        return lineHeight;
+    }
+
+    public int getDescent() {
+        return descent;
+    }
+
+    public float getPackingEfficiency() {
+        return packingEfficiency;
+    }
+
+    public int getGlyphCount() {
+        return glyphs.length / glyphRecordInts;
+    }
+
+    public int getCodepoint(int index) {
+        return glyphs[index * glyphRecordInts];
+    }
+
+    public int getAdvance(int index) {
+        return glyphs[index * glyphRecordInts + 1];
+    }
+
+    public int getOriginX(int index) {
+        return glyphs[index * glyphRecordInts + 2];
+    }
+
+    public int getOriginY(int index) {
+        return glyphs[index * glyphRecordInts + 3];
+    }
+
+    public int getBoundsX(int index) {
+        return glyphs[index * glyphRecordInts + 4];
+    }
+
+    public int getBoundsY(int index) {
+        return glyphs[index * glyphRecordInts + 5];
+    }
+
+    public int getBoundsWidth(int index) {
+        return glyphs[index * glyphRecordInts + 6];
+    }
+
+    public int getBoundsHeight(int index) {
+        return glyphs[index * glyphRecordInts + 7];
+    }
+
+    public ByteBuffer getTexels() {
+        return texels;
+    }
+}
@@ -1,17 +1,39 @@
 package fonts;
 
+import atlas.AtlasLayout;
+import atlas.PackingHeuristic;
 import org.lwjgl.BufferUtils;
+import rendering.GlState;
+import sdf.EuclideanDistanceField;
+import sdf.GlyphSdf;
+import sdf.MsdfGenerator;
+import sdf.SdfGenerator;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
+import java.awt.font.FontRenderContext;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.util.HashMap;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL12.GL_BGRA;
+import static org.lwjgl.opengl.GL12.GL_UNSIGNED_INT_8_8_8_8_REV;
+import static org.lwjgl.opengl.GL30.GL_R8;
+import static org.lwjgl.opengl.GL33.GL_TEXTURE_SWIZZLE_RGBA;
 
 /**
  * This class represents a loaded font.
@@ -29,6 +51,11 @@ public class CFont {
      */
     private final int fontSize;
 
+    /**
+     * What the generated font texture stores for each character.
+     */
+    private final AtlasMode mode;
+
     /**
      * Font name.
      */
@@ -45,9 +72,14 @@ public class CFont {
     private int height;
 
     /**
-     * Map to store information on all characters contained in this font.
+     * Table to find the glyph index of all characters contained in this font.
      */
-    private HashMap<Integer, CharInfo> charMap = new HashMap<>();
+    private final GlyphTable charMap = new GlyphTable();
+
+    /**
+     * Information on all characters contained in this font, indexed by glyph.
+     */
+    private GlyphMetrics metrics;
 
     /**
      * Texture ID of rendered parent texture containing this font.
@@ -58,94 +90,316 @@ public class CFont {
      * Height adjustment for all loaded characters.
      * This amount is trimmed off the top of the characters.
      * It can be used to avoid excess whitespace on top of characters.
+     * Scaled from 50 pixels at a font size of 128.
+     */
+    private final int heightAdjustment;
+
+    /**
+     * Transparent padding around each character's bounds on the generated parent font image (coverage mode only).
+     * This catches anti-aliased edges that spill slightly outside the measured bounds.
+     */
+    private final int coveragePadding = 1;
+
+    /**
+     * Empty space between neighboring characters on the generated parent font image.
+     * This prevents bleed-over from neighboring characters when sampling a target character.
+     */
+    private final int glyphSpacing = 1;
+
+    /**
+     * Algorithm used to pack characters onto the generated parent font image.
+     */
+    private final PackingHeuristic packingHeuristic = PackingHeuristic.SKYLINE_BOTTOM_LEFT;
+
+    /**
+     * Maximum width and height of the generated parent font image.
      */
-    private final int heightAdjustment = 50;
+    private final int maxAtlasSize = 16384;
 
     /**
-     * Spacing adjustment for space between all characters drawn onto the generated parent font image.
-     * This amount is added to the spacing between each character in this image.
-     * Increased spacing helps to prevent bleed-over from neighboring characters when rendering a target character.
+     * Fraction of the generated parent font image covered by characters.
      */
-    private final int spacingAdjustment = 50;
+    private float packingEfficiency;
+
+    /**
+     * Padding around each character's SDF on the generated parent font image (SDF and MSDF modes only).
+     * This is also the distance (in pixels) at which the SDF saturates.
+     */
+    private final int sdfPadding;
+
+    /**
+     * Factor by which characters are upscaled before their SDFs are computed (SDF mode only).
+     */
+    private final int sdfUpscale = 8;
+
+    /**
+     * Loaded font at native size.
+     */
+    private Font awtFont;
+
+    /**
+     * Metrics of loaded font.
+     */
+    private FontMetrics fontMetrics;
+
+    /**
+     * Engine used to compute distance fields (SDF mode only).
+     */
+    private final EuclideanDistanceField sdfEngine = new EuclideanDistanceField();
+
+    /**
+     * Render context used to measure and outline characters.
+     */
+    private final FontRenderContext frc = new FontRenderContext(null, true, true);
+
+    /**
+     * Cache that characters are rasterized into on demand.
+     * This is null if every character was generated up front.
+     */
+    private GlyphCache glyphCache;
+
+    /**
+     * Directory that generated fonts are baked into and loaded from, or null to generate fonts on every load.
+     * Defaults to the `fonts.cacheDir` system property, falling back to `font-cache` in the working directory.
+     */
+    private static Path bakeCacheDirectory = Paths.get(System.getProperty("fonts.cacheDir", "font-cache"));
 
 
     // CONSTRUCTOR
     /**
-     * Constructs a CFont instance.
+     * Constructs a CFont instance that stores alpha coverage.
      *
      * @param filePath file path of font from resources directory
      * @param fontSize font scale (controls font resolution)
      */
     public CFont(String filePath, int fontSize) {
+        this(filePath, fontSize, AtlasMode.COVERAGE);
+    }
+
+
+    /**
+     * Constructs a CFont instance.
+     * In SDF mode, a small font size (e.g., 32 to 48) is enough to render sharp text at any scale.
+     *
+     * @param filePath file path of font from resources directory
+     * @param fontSize font scale (controls font resolution)
+     * @param mode what the generated font texture stores for each character
+     */
+    public CFont(String filePath, int fontSize, AtlasMode mode) {
+        this(filePath, fontSize, mode, true);
+    }
+
+
+    /**
+     * Constructs a CFont instance, optionally without generating anything.
+     *
+     * @param filePath file path of font from resources directory
+     * @param fontSize font scale (controls font resolution)
+     * @param mode what the generated font texture stores for each character
+     * @param generate whether to generate a bitmap for this font and upload it to the GPU
+     */
+    CFont(String filePath, int fontSize, AtlasMode mode, boolean generate) {
+        this.filePath = filePath;
+        this.fontSize = fontSize;
+        this.mode = mode;
+        this.heightAdjustment = Math.round(fontSize * (50 / 128f));
+        this.sdfPadding = (mode != AtlasMode.COVERAGE) ? Math.max(2, fontSize / 8) : 0;
+        if (generate) {
+            generateBitmap();
+        }
+    }
+
+
+    /**
+     * Constructs a CFont instance that rasterizes characters on demand.
+     * Nothing is rasterized up front; each character is rasterized the first time it is retrieved and stored on one
+     * of up to `maxPages` texture pages, after which the least recently used characters are evicted.
+     * This suits fonts with large coverage (e.g., CJK or emoji) where only a fraction of characters is ever used.
+     *
+     * @param filePath file path of font from resources directory
+     * @param fontSize font scale (controls font resolution)
+     * @param mode what the generated font texture stores for each character
+     * @param pageSize width and height of each texture page
+     * @param maxPages maximum number of texture pages
+     */
+    public CFont(String filePath, int fontSize, AtlasMode mode, int pageSize, int maxPages) {
         this.filePath = filePath;
         this.fontSize = fontSize;
-        generateBitmap();
+        this.mode = mode;
+        this.heightAdjustment = Math.round(fontSize * (50 / 128f));
+        this.sdfPadding = (mode != AtlasMode.COVERAGE) ? Math.max(2, fontSize / 8) : 0;
+        loadFont(readFontFile());
+        metrics = new GlyphMetrics(fontMetrics.getHeight() - heightAdjustment, fontMetrics.getDescent(), 1);
+        int padding = (mode == AtlasMode.COVERAGE) ? coveragePadding : sdfPadding;
+        Rectangle maxBounds = awtFont.getMaxCharBounds(frc).getBounds();
+        int slotWidth = Math.min(pageSize, maxBounds.width + padding * 2 + glyphSpacing);
+        int slotHeight = Math.min(pageSize, maxBounds.height + padding * 2 + glyphSpacing);
+        width = pageSize;
+        height = pageSize;
+        glyphCache = new GlyphCache(this, pageSize, slotWidth, slotHeight, maxPages);
     }
 
 
     // METHODS
     /**
      * Generates a bitmap for this font and uploads the result to the GPU.
+     * If this font has already been baked into the bake cache directory, it is loaded from there instead; otherwise,
+     * it is baked there after being generated.
      */
     public void generateBitmap() {
 
-        // Create new font from loaded file.
-        Font font = registerFont();
-        font = new Font(font.getName(), Font.PLAIN, fontSize);
-        name = font.getName();
+        upload(prepare());
+    }
 
-        // Create fake image to get font information.
-        BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2d = image.createGraphics();
-        g2d.setFont(font);
-        FontMetrics fontMetrics = g2d.getFontMetrics();
-
-        // Initialize fake image dimensions.
-        int estimatedWidth = (int)Math.sqrt(font.getNumGlyphs()) * font.getSize()
-                + ((int)Math.sqrt(font.getNumGlyphs()) * spacingAdjustment);
-        width = 0;
-        height = fontMetrics.getHeight();
-        int x = 0;
-        int y = fontMetrics.getHeight();
-
-        // Loop through all glyphs and calculate what actual image dimensions must be.
-        for (int i = 0; i < font.getNumGlyphs(); i++) {
-            if (font.canDisplay(i)) {
-                CharInfo charInfo = new CharInfo(x, y,
-                        fontMetrics.charWidth(i), fontMetrics.getHeight() - heightAdjustment, fontMetrics.getDescent());
-                charMap.put(i, charInfo);
-                width = Math.max(x + fontMetrics.charWidth(i), width);                                                  // Take whichever width is bigger.
-                x += charInfo.getWidth() + spacingAdjustment;
-                if (x > estimatedWidth) {
-                    x = 0;
-                    y += fontMetrics.getHeight();
-                    height += fontMetrics.getHeight();
+
+    /**
+     * Does everything generateBitmap does short of uploading to the GPU: loads this font from the bake cache
+     * directory (or generates and bakes it there) and stores its glyph metrics.
+     * No OpenGL context is needed, so this can run on any thread; the returned font must then be passed to upload on
+     * the thread that owns the OpenGL context.
+     *
+     * @return baked font whose texels are still to be uploaded
+     */
+    BakedFont prepare() {
+
+        byte[] fontData = readFontFile();
+        String key = bakeKey(fontData);
+        Path cacheDirectory = bakeCacheDirectory;
+
+        if (cacheDirectory != null) {
+
+            Path file = cacheDirectory.resolve(key + BakedFont.extension);
+
+            if (Files.isRegularFile(file)) {
+
+                try {
+
+                    BakedFont baked = BakedFont.read(file, key);
+                    loadMetrics(baked);
+                    return baked;
+
+                } catch (IOException e) {
+
+                    System.out.println("Failed to load baked font; generating it again.");
+                    e.printStackTrace();
                 }
             }
         }
-        height += fontMetrics.getHeight();
+        BakedFont baked = bakeAtlas(fontData, key);
+        loadMetrics(baked);
 
-        // Dispose of graphics context of fake image since no longer needed.
-        g2d.dispose();
+        if (cacheDirectory != null) {
 
-        // Create real image.
-        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        g2d = image.createGraphics();
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setFont(font);
-        g2d.setColor(Color.WHITE);
+            try {
+                baked.write(cacheDirectory);
+            } catch (IOException e) {
+                System.out.println("Failed to save baked font.");
+                e.printStackTrace();
+            }
+        }
+        return baked;
+    }
+
+
+    /**
+     * Uploads the texels of a baked font prepared by prepare to the GPU.
+     * An OpenGL context must be current.
+     *
+     * @param baked baked font returned by prepare
+     */
+    void upload(BakedFont baked) {
+
+        textureId = createTexture(width, height, baked.getTexels());                                                    // Mapped file goes straight to the GPU.
+    }
+
+
+    /**
+     * Generates a font without uploading anything to the GPU, so it can be written to disk ahead of time.
+     *
+     * @param filePath file path of font from resources directory
+     * @param fontSize font scale (controls font resolution)
+     * @param mode what the generated font texture stores for each character
+     * @return baked font
+     */
+    public static BakedFont bake(String filePath, int fontSize, AtlasMode mode) {
+
+        CFont font = new CFont(filePath, fontSize, mode, false);
+        byte[] fontData = font.readFontFile();
+        return font.bakeAtlas(fontData, font.bakeKey(fontData));
+    }
+
+
+    /**
+     * Computes the key that this font is baked under, from its font file and generation parameters.
+     *
+     * @param fontData contents of font file
+     * @return key
+     */
+    private String bakeKey(byte[] fontData) {
+
+        return BakedFont.key(fontData, fontSize, mode, heightAdjustment, coveragePadding, sdfPadding, sdfUpscale,
+                glyphSpacing, packingHeuristic);
+    }
+
+
+    /**
+     * Generates the texels and glyph metrics of this font.
+     *
+     * @param fontData contents of font file
+     * @param key key to bake font under
+     * @return baked font
+     */
+    private BakedFont bakeAtlas(byte[] fontData, String key) {
 
-        // Draw glyphs onto real image.
+        // Create new font from loaded file.
+        loadFont(fontData);
+        Font font = awtFont;
+
+        // Measure tight bounds of every character.
+        List<Integer> codepoints = new ArrayList<>();
         for (int i = 0; i < font.getNumGlyphs(); i++) {
             if (font.canDisplay(i)) {
-                CharInfo info = charMap.get(i);
-                charMap.get(i).calculateTextureCoordinates(width, height);
-                g2d.drawString("" + (char)i, info.getSourceX(), info.getSourceY());
+                codepoints.add(i);
             }
         }
+        Rectangle[] bounds = new Rectangle[codepoints.size()];
+        int[] packWidths = new int[codepoints.size()];
+        int[] packHeights = new int[codepoints.size()];
+        for (int k = 0; k < codepoints.size(); k++) {
+            Rectangle b = measureBounds(codepoints.get(k));
+            if (!b.isEmpty()) {
+                packWidths[k] = b.width + glyphSpacing;
+                packHeights[k] = b.height + glyphSpacing;
+            }
+            bounds[k] = b;
+        }
 
-        // Dispose of graphics context of real image (buffered image still contains all data).
-        g2d.dispose();
+        // Pack characters and calculate what actual image dimensions must be.
+        AtlasLayout layout = AtlasLayout.packPowerOfTwo(packWidths, packHeights, packingHeuristic, maxAtlasSize);
+        int atlasWidth = layout.getPageWidth();
+        int atlasHeight = layout.getPageHeight();
+
+        // Create real image.
+        BufferedImage image = createAtlasImage(atlasWidth, atlasHeight);
+
+        // Record each character's data and draw it onto real image.
+        int[] glyphs = new int[codepoints.size() * 8];
+        for (int k = 0; k < codepoints.size(); k++) {
+            Rectangle b = bounds[k];
+            int codepoint = codepoints.get(k);
+            int originX = layout.getX(k) - b.x;
+            int originY = layout.getY(k) - b.y;
+            int record = k * 8;
+            glyphs[record] = codepoint;
+            glyphs[record + 1] = fontMetrics.charWidth(codepoint);
+            glyphs[record + 2] = originX;
+            glyphs[record + 3] = originY;
+            glyphs[record + 4] = b.x;
+            glyphs[record + 5] = b.y;
+            glyphs[record + 6] = b.width;
+            glyphs[record + 7] = b.height;
+            drawGlyph(codepoint, b, image, originX, originY);
+        }
 
         // Create image in file system.
 //        try {
@@ -156,69 +410,391 @@ public class CFont {
 //            e.printStackTrace();
 //        }
 
-        // Create texture from real image.
-        uploadTexture(image);
+        // Convert real image to texels.
+        ByteBuffer texels = BufferUtils.createByteBuffer(atlasWidth * atlasHeight * getBytesPerTexel())
+                .order(ByteOrder.LITTLE_ENDIAN);
+        writePixels(image, texels);
+        texels.flip();
+        return new BakedFont(key, name, fontSize, mode, atlasWidth, atlasHeight,
+                fontMetrics.getHeight() - heightAdjustment, fontMetrics.getDescent(), layout.getEfficiency(),
+                glyphs, texels);
     }
 
 
     /**
-     * Uploads the passed image to the GPU as a texture.
+     * Stores the glyph metrics of a baked font in this font.
+     * No AWT font is needed, so a font loaded from disk skips font registration and rasterization entirely.
      *
+     * @param baked baked font
+     */
+    private void loadMetrics(BakedFont baked) {
+
+        name = baked.getName();
+        width = baked.getWidth();
+        height = baked.getHeight();
+        packingEfficiency = baked.getPackingEfficiency();
+        metrics = new GlyphMetrics(baked.getLineHeight(), baked.getDescent(), baked.getGlyphCount() + 1);
+
+        for (int k = 0; k < baked.getGlyphCount(); k++) {
+
+            int glyph = metrics.add();
+            metrics.set(glyph, baked.getAdvance(k), baked.getBoundsX(k), baked.getBoundsY(k),
+                    baked.getBoundsWidth(k), baked.getBoundsHeight(k), 0,
+                    baked.getOriginX(k), baked.getOriginY(k), width, height);
+            charMap.put(baked.getCodepoint(k), glyph);
+        }
+    }
+
+
+    /**
+     * Loads this font at its native size along with its metrics.
+     *
+     * @param fontData contents of font file
+     */
+    private void loadFont(byte[] fontData) {
+
+        Font font = registerFont(fontData);
+        awtFont = new Font(font.getName(), Font.PLAIN, fontSize);
+        name = awtFont.getName();
+
+        // Create fake image to get font information.
+        BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setFont(awtFont);
+        fontMetrics = g2d.getFontMetrics();
+
+        // Dispose of graphics context of fake image since no longer needed.
+        g2d.dispose();
+    }
+
+
+    /**
+     * Measures the tight bounds of a character, including padding.
+     *
+     * @param codepoint target character
+     * @return bounds relative to origin on baseline, or an empty rectangle if the character has nothing to draw
+     */
+    private Rectangle measureBounds(int codepoint) {
+
+        Rectangle b = awtFont.createGlyphVector(frc, new String(Character.toChars(codepoint)))
+                .getGlyphPixelBounds(0, frc, 0, 0);
+
+        if (b.isEmpty()) {
+
+            return new Rectangle();                                                                                     // Nothing to draw (e.g., space); takes no room.
+        }
+        int padding = (mode == AtlasMode.COVERAGE) ? coveragePadding : sdfPadding;
+        b.grow(padding, padding);
+        return b;
+    }
+
+
+    /**
+     * Checks whether a character draws nothing (e.g., a space), and so needs no room on a page.
+     *
+     * @param codepoint target character
+     * @return whether character is blank
+     */
+    boolean isBlank(int codepoint) {
+
+        return measureBounds(codepoint).isEmpty();
+    }
+
+
+    /**
+     * Rasterizes a single character into a slot of a glyph cache page and stores its data under the passed glyph.
+     * The character is drawn into the passed slot image so that its bounds start at the image's top-left corner.
+     * Bounds that exceed the slot are clipped.
+     *
+     * @param codepoint target character
+     * @param glyph glyph index to store character data under
+     * @param slotImage image to draw character into
+     * @param slotX position of slot on page (X)
+     * @param slotY position of slot on page (Y)
+     * @param page page that slot is on
+     * @param pageSize width and height of page
+     */
+    void rasterizeGlyph(int codepoint, int glyph, BufferedImage slotImage, int slotX, int slotY, int page,
+                        int pageSize) {
+
+        Rectangle b = measureBounds(codepoint);
+        b.width = Math.min(b.width, slotImage.getWidth() - glyphSpacing);
+        b.height = Math.min(b.height, slotImage.getHeight() - glyphSpacing);
+        metrics.set(glyph, fontMetrics.charWidth(codepoint), b.x, b.y, b.width, b.height, page,
+                slotX - b.x, slotY - b.y, pageSize, pageSize);
+        drawGlyph(codepoint, b, slotImage, -b.x, -b.y);
+    }
+
+
+    /**
+     * Draws a single character onto the passed image according to this font's mode.
+     *
+     * @param codepoint target character
+     * @param bounds character bounds relative to character origin, including padding
      * @param image target image
+     * @param originX position of character origin on image (X)
+     * @param originY position of character origin (baseline) on image (Y)
      */
-    private void uploadTexture(BufferedImage image) {
-
-        // Place all pixels from image into an array.
-        int[] pixels = new int[image.getHeight() * image.getWidth()];
-        image.getRGB(0, 0, image.getWidth(), image.getHeight(), pixels, 0, image.getWidth());
-
-        // Create ByteBuffer.
-        ByteBuffer buffer = BufferUtils.createByteBuffer(image.getWidth() * image.getHeight() * 4);                     // Multiply by four since four bytes (rgba) are in one integer.
-        for (int y = 0; y < image.getHeight(); y++) {
-            for (int x = 0; x < image.getWidth(); x++) {
-                int pixel = pixels[y * image.getWidth() + x];
-                byte alphaComponent = (byte)((pixel >> 24) & 0xFF);
-                buffer.put(alphaComponent);
-                buffer.put(alphaComponent);
-                buffer.put(alphaComponent);
-                buffer.put(alphaComponent);
-            }
+    private void drawGlyph(int codepoint, Rectangle bounds, BufferedImage image, int originX, int originY) {
+
+        if (bounds.isEmpty()) {
+
+            return;
         }
-        buffer.flip();
+        String text = new String(Character.toChars(codepoint));
+        long startNanos = System.nanoTime();
+
+        // Region of image that this character covers (bounds include padding).
+        int regionX = originX + bounds.x;
+        int regionY = originY + bounds.y;
+        int regionWidth = bounds.width;
+        int regionHeight = bounds.height;
+        WritableRaster raster = image.getRaster();
+
+        switch (mode) {
+            case SDF:
+                // Render character in region at upscaled resolution.
+                BufferedImage big = new BufferedImage(regionWidth * sdfUpscale, regionHeight * sdfUpscale,
+                        BufferedImage.TYPE_BYTE_GRAY);
+                Graphics2D bigG2d = big.createGraphics();
+                bigG2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);   // Distance transform needs hard edges.
+                bigG2d.setFont(awtFont.deriveFont((float)(fontSize * sdfUpscale)));
+                bigG2d.setColor(Color.WHITE);
+                bigG2d.drawString(text, -bounds.x * sdfUpscale, -bounds.y * sdfUpscale);
+                bigG2d.dispose();
+                byte[] bigBitmap = ((DataBufferByte)big.getRaster().getDataBuffer()).getData();
+
+                // Compute SDF and place it in the region.
+                GlyphSdf sdf = SdfGenerator.fromBitmap(codepoint, bigBitmap, big.getWidth(), big.getHeight(),
+                        sdfUpscale, 0, sdfPadding * sdfUpscale, sdfEngine, startNanos);
+                for (int sy = 0; sy < sdf.getHeight(); sy++) {
+                    for (int sx = 0; sx < sdf.getWidth(); sx++) {
+                        raster.setSample(regionX + sx, regionY + sy, 0, sdf.getPixel(sx, sy));                  // Single band of grayscale image.
+                    }
+                }
+                break;
+            case MSDF:
+                // Compute MSDF from outline with origin placed where drawString would place it.
+                Shape outline = awtFont.createGlyphVector(frc, text).getOutline();
+                GlyphSdf msdf = MsdfGenerator.generate(codepoint, outline, regionWidth, regionHeight,
+                        -bounds.x, -bounds.y, sdfPadding, startNanos);
+                for (int sy = 0; sy < msdf.getHeight(); sy++) {
+                    for (int sx = 0; sx < msdf.getWidth(); sx++) {
+                        raster.setSample(regionX + sx, regionY + sy, 0, msdf.getPixel(sx, sy, 0));
+                        raster.setSample(regionX + sx, regionY + sy, 1, msdf.getPixel(sx, sy, 1));
+                        raster.setSample(regionX + sx, regionY + sy, 2, msdf.getPixel(sx, sy, 2));
+                    }
+                }
+                break;
+            default:
+                Graphics2D g2d = image.createGraphics();
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2d.setFont(awtFont);
+                g2d.setColor(Color.WHITE);
+                g2d.clipRect(regionX, regionY, regionWidth, regionHeight);                                              // Keep clipped characters out of neighboring regions.
+                g2d.drawString(text, originX, originY);
+                g2d.dispose();
+                break;
+        }
+    }
+
+
+    /**
+     * Creates an image that characters of this font can be drawn onto.
+     * MSDF mode needs three channels, so it uses packed ARGB integers; every other mode only needs a single channel,
+     * so it uses one byte per pixel.
+     * Either way, the image's data buffer is laid out exactly as texels are uploaded to the GPU.
+     *
+     * @param width image width
+     * @param height image height
+     * @return image
+     */
+    BufferedImage createAtlasImage(int width, int height) {
+
+        return new BufferedImage(width, height,
+                (mode == AtlasMode.MSDF) ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_BYTE_GRAY);
+    }
 
-        // Upload image to GPU.
-        textureId = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, textureId);
+
+    /**
+     * Retrieves the number of bytes each texel of this font's texture takes up.
+     *
+     * @return bytes per texel
+     */
+    int getBytesPerTexel() {
+
+        return mode.getBytesPerTexel();
+    }
+
+
+    /**
+     * Creates a texture on the GPU in this font's texel format.
+     * Single-channel textures are stored as R8 and swizzled so that sampling returns the stored value in every
+     * channel.
+     *
+     * @param width texture width
+     * @param height texture height
+     * @param pixels initial texels
+     * @return texture ID
+     */
+    int createTexture(int width, int height, ByteBuffer pixels) {
+
+        int id = glGenTextures();
+        int unit = GlState.getActiveTextureUnit();
+        int previous = GlState.getBoundTexture(unit);
+        GlState.bindTexture(unit, id);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
-        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, image.getWidth(), image.getHeight(),
-                0, GL_RGBA, GL_UNSIGNED_BYTE, buffer);
-        buffer.clear();                                                                                                 // Clear allocated memory for buffer.
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 1);                                                                          // Rows of single-byte texels are not padded.
+
+        if (mode == AtlasMode.MSDF) {
+
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, width, height, 0,
+                    GL_BGRA, GL_UNSIGNED_INT_8_8_8_8_REV, pixels);                                                      // Matches packed ARGB integers.
+        } else {
+
+            glTexParameteriv(GL_TEXTURE_2D, GL_TEXTURE_SWIZZLE_RGBA, new int[] {GL_RED, GL_RED, GL_RED, GL_RED});
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_R8, width, height, 0, GL_RED, GL_UNSIGNED_BYTE, pixels);
+        }
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+        restoreTexture(unit, previous);
+        return id;
+    }
+
+
+    /**
+     * Binds a texture back to a texture unit after this font has bound one of its own there to create or update it.
+     * Nothing is bound if GlState did not know what was bound before.
+     *
+     * @param unit texture unit (zero-based)
+     * @param previous texture ID bound before, or -1 if it was not known
+     */
+    private static void restoreTexture(int unit, int previous) {
+
+        if (previous != -1) {
+
+            GlState.bindTexture(unit, previous);
+        }
     }
 
 
     /**
-     * Retrieves a character from this font.
+     * Uploads the passed image into a region of an existing texture created by createTexture.
+     *
+     * @param id texture ID
+     * @param x position of region on texture (X)
+     * @param y position of region on texture (Y)
+     * @param image source image (created by createAtlasImage)
+     * @param buffer reusable buffer with room for every texel of the image
+     */
+    void uploadRegion(int id, int x, int y, BufferedImage image, ByteBuffer buffer) {
+
+        buffer.clear();
+        writePixels(image, buffer);
+        buffer.flip();
+        int unit = GlState.getActiveTextureUnit();
+        int previous = GlState.getBoundTexture(unit);
+        GlState.bindTexture(unit, id);
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+
+        if (mode == AtlasMode.MSDF) {
+
+            glTexSubImage2D(GL_TEXTURE_2D, 0, x, y, image.getWidth(), image.getHeight(),
+                    GL_BGRA, GL_UNSIGNED_INT_8_8_8_8_REV, buffer);
+        } else {
+
+            glTexSubImage2D(GL_TEXTURE_2D, 0, x, y, image.getWidth(), image.getHeight(),
+                    GL_RED, GL_UNSIGNED_BYTE, buffer);
+        }
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+        restoreTexture(unit, previous);
+    }
+
+
+    /**
+     * Copies the texels of the passed image into the passed buffer in a single bulk transfer.
+     *
+     * @param image source image (created by createAtlasImage)
+     * @param buffer target buffer (native byte order) with room for every texel of the image
+     */
+    private void writePixels(BufferedImage image, ByteBuffer buffer) {
+
+        DataBuffer data = image.getRaster().getDataBuffer();
+
+        if (data instanceof DataBufferInt) {
+
+            int[] texels = ((DataBufferInt)data).getData();
+            buffer.asIntBuffer().put(texels);                                                                           // View starts at buffer's position.
+            buffer.position(buffer.position() + texels.length * Integer.BYTES);
+        } else {
+
+            buffer.put(((DataBufferByte)data).getData());
+        }
+    }
+
+
+    /**
+     * Retrieves the glyph index of a character from this font.
+     * Data on the character can then be read from this font's metrics.
      *
      * @param codepoint character to retrieve (!, A, B, C, etc.)
-     * @return character
+     * @return glyph index, or the missing glyph if this font cannot display the character
+     */
+    public int getGlyph(int codepoint) {
+
+        return (glyphCache != null) ? glyphCache.getGlyph(codepoint) : charMap.get(codepoint);
+    }
+
+
+    /**
+     * Determines whether this font has a glyph for the target character.
+     *
+     * @param codepoint target character
+     * @return whether the character can be displayed
      */
-    public CharInfo getCharacter(int codepoint) {
+    public boolean canDisplay(int codepoint) {
 
-        return charMap.getOrDefault(codepoint, new CharInfo(0, 0, 0, 0, 0));
+        if (glyphCache == null) {
+
+            return charMap.get(codepoint) != GlyphMetrics.missingGlyph;                                                 // Fonts loaded from disk have no AWT font.
+        }
+        return awtFont.canDisplay(codepoint);
+    }
+
+
+    /**
+     * Reads the contents of this font's file.
+     *
+     * @return contents of font file
+     */
+    private byte[] readFontFile() {
+
+        try (InputStream is = getClass().getResourceAsStream(filePath)) {
+
+            if (is == null) {
+
+                throw new RuntimeException("Font file not found: " + filePath);
+            }
+            return is.readAllBytes();
+
+        } catch (IOException e) {
+
+            throw new RuntimeException("Failed to read font file " + filePath, e);
+        }
     }
 
 
     /**
      * Loads and registers this font to be used by Java.
      *
+     * @param fontData contents of font file
      * @return font
      */
-    private Font registerFont() {
+    private Font registerFont(byte[] fontData) {
 
-        try (InputStream is = getClass().getResourceAsStream(filePath)) {
+        try (InputStream is = new ByteArrayInputStream(fontData)) {
 
             GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
             Font font = Font.createFont(Font.TRUETYPE_FONT, is);
@@ -240,6 +816,36 @@ public class CFont {
     }
 
     public int getTextureId() {
-        return textureId;
+        return getTextureId(0);
+    }
+
+    public int getTextureId(int page) {
+        return (glyphCache != null) ? glyphCache.getTextureId(page) : textureId;
+    }
+
+    public GlyphMetrics getMetrics() {
+        return metrics;
+    }
+
+    public GlyphCache getGlyphCache() {
+        return glyphCache;
+    }
+
+    public AtlasMode getMode() {
+        return mode;
+    }
+
+    public float getPackingEfficiency() {
+        return packingEfficiency;
+    }
+
+    public static Path getBakeCacheDirectory() {
+        return bakeCacheDirectory;
+    }
+
+
+    // SETTERS
+    public static void setBakeCacheDirectory(Path bakeCacheDirectory) {
+        CFont.bakeCacheDirectory = bakeCacheDirectory;
     }
 }
@@ -0,0 +1,50 @@
+package fonts;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command-line tool that bakes fonts to disk ahead of time, so that no font has to be generated at launch.
+ * Baked fonts are named after their key, so the output directory can be shipped as (or copied into) the bake cache
+ * directory that CFont loads from.
+ * No OpenGL context is needed.
+ * <p>
+ * Usage: {@code FontBaker <font file path> <font size>[,<font size>...] <COVERAGE|SDF|MSDF> [output directory]}
+ */
+public class FontBaker {
+
+    public static void main(String[] args) {
+
+        if ((args.length < 3) || (args.length > 4)) {
+
+            System.out.println("Usage: FontBaker <font file path> <font size>[,<font size>...] <COVERAGE|SDF|MSDF>"
+                    + " [output directory]");
+            System.exit(1);
+        }
+        String filePath = args[0];
+        AtlasMode mode = AtlasMode.valueOf(args[2].toUpperCase());
+        Path directory = (args.length == 4) ? Paths.get(args[3]) : CFont.getBakeCacheDirectory();
+
+        for (String size : args[1].split(",")) {
+
+            int fontSize = Integer.parseInt(size.trim());
+            long startNanos = System.nanoTime();
+            BakedFont baked = CFont.bake(filePath, fontSize, mode);
+
+            try {
+
+                Path file = baked.write(directory);
+                System.out.printf("Baked %s (%d, %s): %d glyphs on %d x %d in %d ms -> %s%n",
+                        baked.getName(), fontSize, mode, baked.getGlyphCount(), baked.getWidth(), baked.getHeight(),
+                        (System.nanoTime() - startNanos) / 1_000_000, file);
+
+            } catch (IOException e) {
+
+                System.out.println("Failed to save baked font.");
+                e.printStackTrace();
+                System.exit(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package fonts;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class loads fonts in the background, so that loading several fonts takes about as long as the slowest one
+ * rather than all of them back to back.
+ * Everything that needs no OpenGL context (reading the font file, loading it from the bake cache directory or
+ * measuring, rasterizing, and baking it, and storing its glyph metrics) runs on a pool of worker threads.
+ * Only the final texture upload is queued for the thread that owns the OpenGL context, which runs queued uploads
+ * through processUploads (e.g., once per frame with a time budget) or finish (e.g., while blocking at startup).
+ * A returned future completes once its font has been uploaded and is ready to draw with.
+ * Fonts that rasterize characters on demand cannot be loaded this way, since their characters are uploaded as they
+ * are used.
+ */
+public class FontLoader {
+
+    // FIELDS
+    /**
+     * Number of loader instances created, so that worker threads of different loaders have distinct names.
+     */
+    private static final AtomicInteger loaderCount = new AtomicInteger();
+
+    /**
+     * Worker threads that fonts are prepared on.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * Texture uploads waiting for the thread that owns the OpenGL context, in the order their fonts were prepared.
+     */
+    private final LinkedBlockingQueue<Runnable> uploads = new LinkedBlockingQueue<>();
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a FontLoader instance with one worker thread per available processor.
+     */
+    public FontLoader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+
+    /**
+     * Constructs a FontLoader instance.
+     *
+     * @param threads number of worker threads to prepare fonts on
+     */
+    public FontLoader(int threads) {
+        int loader = loaderCount.incrementAndGet();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "font-loader-" + loader + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);                                                                                     // Never keeps the application alive.
+            return thread;
+        });
+    }
+
+
+    // METHODS
+    /**
+     * Starts loading a font that stores alpha coverage.
+     *
+     * @param filePath file path of font from resources directory
+     * @param fontSize font scale (controls font resolution)
+     * @return future completed with the font once it has been uploaded
+     */
+    public CompletableFuture<CFont> load(String filePath, int fontSize) {
+
+        return load(filePath, fontSize, AtlasMode.COVERAGE);
+    }
+
+
+    /**
+     * Starts loading a font.
+     * The returned future completes exceptionally if the font cannot be prepared or uploaded.
+     *
+     * @param filePath file path of font from resources directory
+     * @param fontSize font scale (controls font resolution)
+     * @param mode what the generated font texture stores for each character
+     * @return future completed with the font once it has been uploaded
+     */
+    public CompletableFuture<CFont> load(String filePath, int fontSize, AtlasMode mode) {
+
+        CompletableFuture<CFont> loaded = new CompletableFuture<>();
+        CFont font = new CFont(filePath, fontSize, mode, false);
+
+        CompletableFuture.supplyAsync(font::prepare, workers).whenComplete((baked, failure) -> {
+
+            if (failure != null) {
+
+                loaded.completeExceptionally(failure);
+                return;
+            }
+            uploads.add(() -> {
+
+                try {
+
+                    font.upload(baked);
+                    loaded.complete(font);
+
+                } catch (RuntimeException e) {
+
+                    loaded.completeExceptionally(e);
+                }
+            });
+        });
+        return loaded;
+    }
+
+
+    /**
+     * Runs queued texture uploads until none are left or the time budget is spent.
+     * At least one queued upload is always run, so a single large font still finishes under a small budget.
+     * This must be called from the thread that owns the OpenGL context.
+     *
+     * @param budgetNanos time budget in nanoseconds
+     * @return number of uploads run
+     */
+    public int processUploads(long budgetNanos) {
+
+        long startNanos = System.nanoTime();
+        int count = 0;
+        Runnable upload;
+
+        while ((upload = uploads.poll()) != null) {
+
+            upload.run();
+            count++;
+
+            if ((System.nanoTime() - startNanos) >= budgetNanos) {
+
+                break;
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Waits until a font has been loaded, running texture uploads (of any font) as they are queued in the meantime.
+     * This must be called from the thread that owns the OpenGL context.
+     *
+     * @param future future returned by load
+     * @return loaded font
+     */
+    public CFont finish(CompletableFuture<CFont> future) {
+
+        while (!future.isDone()) {
+
+            try {
+
+                Runnable upload = uploads.poll(1, TimeUnit.MILLISECONDS);                                               // Wakes up periodically in case the font failed.
+
+                if (upload != null) {
+
+                    upload.run();
+                }
+
+            } catch (InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while loading font", e);
+            }
+        }
+        return future.join();
+    }
+
+
+    /**
+     * Stops the worker threads once every font already started has been prepared.
+     * Uploads still queued must be run as usual for their futures to complete.
+     */
+    public void shutdown() {
+
+        workers.shutdown();
+    }
+
+
+    // GETTERS
+    public int getPendingUploads() {
+        return uploads.size();
+    }
+}
@@ -0,0 +1,459 @@
+package fonts;
+
+import org.lwjgl.BufferUtils;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.lwjgl.system.MemoryUtil.memCalloc;
+import static org.lwjgl.system.MemoryUtil.memFree;
+
+/**
+ * This class stores the characters of a font on demand across fixed-size texture pages.
+ * Each page is divided into equally sized slots large enough for any character of the font.
+ * The first time a character is requested, it is rasterized into a free slot and only that slot is uploaded to the
+ * GPU.
+ * Once every page is full, the least recently used character is evicted to make room.
+ * A character that a batch has added but not yet flushed is never evicted silently, since its slot would be drawn with
+ * the wrong texels: the batch is asked to flush first (see markPending), and if that does not free it, an
+ * IllegalStateException is thrown.
+ * Pending characters are tracked per cache rather than per batch, so a font that rasterizes on demand should only be
+ * drawn through one batch between flushes.
+ */
+public class GlyphCache {
+
+    // FIELDS
+    /**
+     * Font that characters are rasterized from.
+     */
+    private final CFont font;
+
+    /**
+     * Width and height of each page.
+     */
+    private final int pageSize;
+
+    /**
+     * Width of each slot.
+     */
+    private final int slotWidth;
+
+    /**
+     * Height of each slot.
+     */
+    private final int slotHeight;
+
+    /**
+     * Number of slots in each row of a page.
+     */
+    private final int slotsPerRow;
+
+    /**
+     * Number of slots on each page.
+     */
+    private final int slotsPerPage;
+
+    /**
+     * Maximum number of pages that will be created before characters are evicted.
+     */
+    private final int maxPages;
+
+    /**
+     * Texture IDs of created pages.
+     */
+    private final List<Integer> pageTextureIds = new ArrayList<>();
+
+    /**
+     * Glyph indices of cached characters, including characters with nothing to draw (e.g., space).
+     * The character in each slot is stored under a fixed glyph index (i.e., slot + 1).
+     * Characters with nothing to draw take up no slot, are given glyph indices after those of the slots, and are never
+     * evicted.
+     */
+    private final GlyphTable entries = new GlyphTable();
+
+    /**
+     * Metrics of font that character data is stored in.
+     */
+    private final GlyphMetrics metrics;
+
+    /**
+     * Codepoint of the character occupying each slot.
+     * Slots are numbered across pages (i.e., page * slotsPerPage + slot).
+     */
+    private final int[] slotCodepoints;
+
+    /**
+     * Next less recently used slot of each occupied slot, or -1 if it is the least recently used.
+     */
+    private final int[] olderSlots;
+
+    /**
+     * Next more recently used slot of each occupied slot, or -1 if it is the most recently used.
+     */
+    private final int[] newerSlots;
+
+    /**
+     * Most recently used occupied slot, or -1 if no slot is occupied.
+     */
+    private int newestSlot = -1;
+
+    /**
+     * Least recently used occupied slot, or -1 if no slot is occupied.
+     */
+    private int oldestSlot = -1;
+
+    /**
+     * Number of times the batch drawing from this cache has flushed (see markFlushed), starting from one.
+     */
+    private int flushCount = 1;
+
+    /**
+     * Flush count when each slot's character was last added to a batch, or zero if it never was.
+     * A slot whose value equals the flush count holds a character still waiting to be drawn.
+     */
+    private final int[] slotFlushes;
+
+    /**
+     * Flushes the batch that most recently added a character from this cache, or null if none has.
+     */
+    private Runnable flushHandler;
+
+    /**
+     * Number of occupied slots.
+     */
+    private int occupiedCount;
+
+    /**
+     * Stack of slots on created pages not occupied by any character.
+     */
+    private final int[] freeSlots;
+
+    /**
+     * Number of slots on free slot stack.
+     */
+    private int freeCount;
+
+    /**
+     * Image that each character is rasterized into before being uploaded to its slot.
+     */
+    private final BufferedImage slotImage;
+
+    /**
+     * Buffer used to upload a single slot.
+     */
+    private final ByteBuffer uploadBuffer;
+
+    /**
+     * Number of requests served from the cache.
+     */
+    private long hitCount;
+
+    /**
+     * Number of requests that required a character to be rasterized.
+     */
+    private long missCount;
+
+    /**
+     * Number of characters evicted to make room for others.
+     */
+    private long evictionCount;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a GlyphCache instance.
+     * No pages are created until the first character is requested.
+     *
+     * @param font font that characters are rasterized from
+     * @param pageSize width and height of each page
+     * @param slotWidth width of each slot
+     * @param slotHeight height of each slot
+     * @param maxPages maximum number of pages that will be created before characters are evicted
+     */
+    GlyphCache(CFont font, int pageSize, int slotWidth, int slotHeight, int maxPages) {
+        if ((pageSize <= 0) || (slotWidth <= 0) || (slotHeight <= 0) || (maxPages <= 0)) {
+            throw new IllegalArgumentException("Page size (" + pageSize + "), slot size (" + slotWidth + " x "
+                    + slotHeight + "), and maximum page count (" + maxPages + ") must all be positive");
+        }
+        if ((slotWidth > pageSize) || (slotHeight > pageSize)) {
+            throw new IllegalArgumentException("Slot of " + slotWidth + " x " + slotHeight
+                    + " does not fit on a page of " + pageSize + " x " + pageSize);
+        }
+        this.font = font;
+        this.pageSize = pageSize;
+        this.slotWidth = slotWidth;
+        this.slotHeight = slotHeight;
+        this.slotsPerRow = pageSize / slotWidth;
+        this.slotsPerPage = slotsPerRow * (pageSize / slotHeight);
+        this.maxPages = maxPages;
+        this.metrics = font.getMetrics();
+        this.slotCodepoints = new int[slotsPerPage * maxPages];
+        this.olderSlots = new int[slotsPerPage * maxPages];
+        this.newerSlots = new int[slotsPerPage * maxPages];
+        this.freeSlots = new int[slotsPerPage * maxPages];
+        this.slotFlushes = new int[slotsPerPage * maxPages];
+        this.slotImage = font.createAtlasImage(slotWidth, slotHeight);
+        this.uploadBuffer = BufferUtils.createByteBuffer(slotWidth * slotHeight * font.getBytesPerTexel());
+
+        for (int slot = 0; slot < slotsPerPage * maxPages; slot++) {
+
+            metrics.add();                                                                                              // Reserve glyph index of each slot.
+        }
+    }
+
+
+    // METHODS
+    /**
+     * Retrieves the glyph index of a character, rasterizing and uploading it first if it is not already cached.
+     * Retrieving a cached character allocates nothing.
+     *
+     * @param codepoint character to retrieve
+     * @return glyph index, or the missing glyph if the font cannot display the character
+     */
+    public int getGlyph(int codepoint) {
+
+        int glyph = entries.get(codepoint);
+
+        if (glyph != GlyphMetrics.missingGlyph) {
+
+            hitCount++;
+
+            if (glyph <= slotCodepoints.length) {
+
+                markNewest(glyph - 1);
+            }
+            return glyph;
+        }
+
+        if (!font.canDisplay(codepoint)) {
+
+            return GlyphMetrics.missingGlyph;
+        }
+        missCount++;
+
+        if (font.isBlank(codepoint)) {
+
+            glyph = metrics.add();                                                                                      // Nothing to draw, so takes no slot.
+            font.rasterizeGlyph(codepoint, glyph, slotImage, 0, 0, 0, pageSize);                                        // Draws nothing; only stores character data.
+            entries.put(codepoint, glyph);
+            return glyph;
+        }
+        int slot = acquireSlot();
+        int page = slot / slotsPerPage;
+        int slotX = ((slot % slotsPerPage) % slotsPerRow) * slotWidth;
+        int slotY = ((slot % slotsPerPage) / slotsPerRow) * slotHeight;
+
+        // Rasterize character into slot image.
+        DataBuffer slotData = slotImage.getRaster().getDataBuffer();
+        if (slotData instanceof DataBufferInt) {
+            Arrays.fill(((DataBufferInt)slotData).getData(), 0);
+        } else {
+            Arrays.fill(((DataBufferByte)slotData).getData(), (byte)0);
+        }
+        glyph = slot + 1;
+        font.rasterizeGlyph(codepoint, glyph, slotImage, slotX, slotY, page, pageSize);
+
+        // Upload only the slot that changed.
+        font.uploadRegion(pageTextureIds.get(page), slotX, slotY, slotImage, uploadBuffer);
+
+        entries.put(codepoint, glyph);
+        slotCodepoints[slot] = codepoint;
+        occupiedCount++;
+        newerSlots[slot] = -1;
+        olderSlots[slot] = newestSlot;
+        if (newestSlot != -1) {
+            newerSlots[newestSlot] = slot;
+        } else {
+            oldestSlot = slot;
+        }
+        newestSlot = slot;
+        return glyph;
+    }
+
+
+    /**
+     * Marks a glyph as just used, as retrieving its character would, without counting a hit.
+     * This keeps glyphs drawn from an already laid-out string from being evicted ahead of less recently used ones.
+     * Glyphs that take no slot, or whose slot now holds another character, are ignored.
+     *
+     * @param glyph target glyph index
+     */
+    void touch(int glyph) {
+
+        if ((glyph < 1) || (glyph > slotCodepoints.length) || (entries.get(slotCodepoints[glyph - 1]) != glyph)) {
+
+            return;
+        }
+        markNewest(glyph - 1);
+    }
+
+
+    /**
+     * Records that a batch has added a glyph and has not drawn it yet, so that its slot is not evicted until the batch
+     * flushes.
+     * Glyphs that take no slot are ignored.
+     *
+     * @param glyph target glyph index
+     * @param flushHandler flushes the batch that added the glyph (must call markFlushed once its characters are drawn)
+     */
+    public void markPending(int glyph, Runnable flushHandler) {
+
+        if ((glyph >= 1) && (glyph <= slotFlushes.length)) {
+
+            slotFlushes[glyph - 1] = flushCount;
+            this.flushHandler = flushHandler;
+        }
+    }
+
+
+    /**
+     * Records that every glyph marked pending so far has been drawn (or dropped), so their slots may be evicted.
+     */
+    public void markFlushed() {
+
+        flushCount++;
+    }
+
+
+    /**
+     * Moves an occupied slot to the most recently used end of the usage list.
+     *
+     * @param slot target slot
+     */
+    private void markNewest(int slot) {
+
+        if (slot == newestSlot) {
+
+            return;
+        }
+        unlink(slot);
+        newerSlots[slot] = -1;
+        olderSlots[slot] = newestSlot;
+        newerSlots[newestSlot] = slot;                                                                                  // Another slot is newest, so the list is not empty.
+        newestSlot = slot;
+    }
+
+
+    /**
+     * Removes an occupied slot from the usage list.
+     *
+     * @param slot target slot
+     */
+    private void unlink(int slot) {
+
+        int older = olderSlots[slot];
+        int newer = newerSlots[slot];
+        if (older != -1) {
+            newerSlots[older] = newer;
+        } else {
+            oldestSlot = newer;
+        }
+        if (newer != -1) {
+            olderSlots[newer] = older;
+        } else {
+            newestSlot = older;
+        }
+    }
+
+
+    /**
+     * Finds a free slot, creating a new page or evicting the least recently used character if needed.
+     *
+     * @return slot
+     */
+    private int acquireSlot() {
+
+        if ((freeCount == 0) && (pageTextureIds.size() < maxPages)) {
+
+            addPage();
+        }
+
+        if (freeCount == 0) {
+
+            if ((slotFlushes[oldestSlot] == flushCount) && (flushHandler != null)) {
+
+                flushHandler.run();                                                                                     // Draw pending characters before their texels are overwritten.
+            }
+
+            if (slotFlushes[oldestSlot] == flushCount) {
+
+                throw new IllegalStateException("Every cached character is waiting to be drawn; flush more often or "
+                        + "allow more pages");
+            }
+            int slot = oldestSlot;
+            unlink(slot);
+            entries.remove(slotCodepoints[slot]);
+            occupiedCount--;
+            evictionCount++;
+            return slot;
+        }
+        return freeSlots[--freeCount];
+    }
+
+
+    /**
+     * Creates an empty page on the GPU and adds all of its slots to the free slots.
+     */
+    private void addPage() {
+
+        ByteBuffer empty = memCalloc(pageSize * pageSize * font.getBytesPerTexel());                                    // Zeroed so unused space stays transparent.
+        int textureId = font.createTexture(pageSize, pageSize, empty);
+        memFree(empty);
+
+        int page = pageTextureIds.size();
+        pageTextureIds.add(textureId);
+
+        for (int slot = slotsPerPage - 1; slot >= 0; slot--) {                                                          // Push in reverse so slots fill in reading order.
+
+            freeSlots[freeCount++] = page * slotsPerPage + slot;
+        }
+    }
+
+
+    /**
+     * Retrieves the texture ID of the target page.
+     *
+     * @param page target page
+     * @return texture ID, or 0 if the page has not been created
+     */
+    public int getTextureId(int page) {
+
+        return (page < pageTextureIds.size()) ? pageTextureIds.get(page) : 0;
+    }
+
+
+    // GETTERS
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getPageCount() {
+        return pageTextureIds.size();
+    }
+
+    public int getCapacity() {
+        return slotsPerPage * maxPages;
+    }
+
+    public int getCachedCount() {
+        return occupiedCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+}
@@ -0,0 +1,251 @@
+package fonts;
+
+import java.util.Arrays;
+
+/**
+ * This class stores data for every character of a font (advance, bounds, texture coordinates, etc.).
+ * Characters are identified by glyph index, and each piece of data is kept in its own flat array indexed by glyph.
+ * This keeps vertex generation to a few linear array reads per character instead of a chain of object lookups.
+ * Glyph index zero is reserved for missing characters; it advances nothing and draws nothing.
+ */
+public class GlyphMetrics {
+
+    // FIELDS
+    /**
+     * Glyph index of missing characters.
+     */
+    public static final int missingGlyph = 0;
+
+    /**
+     * Character height.
+     * This is the same for all characters within a given font.
+     */
+    private final int height;
+
+    /**
+     * Character descent (i.e., amount character extends below baseline).
+     * This is the same for all characters within a given font.
+     */
+    private final int descent;
+
+    /**
+     * Number of glyph indices in use, including the missing glyph.
+     */
+    private int count = 1;
+
+    /**
+     * Number of times glyph data has been overwritten (i.e., set on a glyph index that was already set).
+     * Anything built from glyph data (e.g., a retained text mesh) is stale once this changes, since lazily generated
+     * fonts reuse glyph indices for different characters; setting a glyph for the first time changes nothing already
+     * built, so it leaves this alone.
+     */
+    private int version = 0;
+
+    /**
+     * Extents of every glyph set so far, relative to the character origin on the baseline: the leftmost left edge,
+     * topmost top edge, and bottommost bottom edge of any glyph's bounds.
+     * Anything drawn by this font lies within them, which lets whole strings be rejected without a glyph lookup.
+     * Fonts that rasterize characters on demand only have the glyphs rasterized so far here, so their extents say
+     * nothing about characters yet to be drawn and must not be used to reject strings.
+     */
+    private int minBoundsX = 0, minBoundsY = 0, maxBoundsBottom = 0;
+
+    /**
+     * Distance to advance to the next character.
+     */
+    private int[] advances;
+
+    /**
+     * Bounds of the area each character occupies on the parent font texture, relative to the character origin on the
+     * baseline, so a negative Y offset lies above the baseline.
+     * This area is what gets textured onto each rendered quad.
+     */
+    private int[] boundsX, boundsY, boundsWidths, boundsHeights;
+
+    /**
+     * Page of the parent font texture that each character is stored on.
+     */
+    private int[] pages;
+
+    /**
+     * Texture coordinates of each character's bounds on the parent font texture, normalized from zero to one.
+     * (u0, v0) is the top-left corner of the bounds and (u1, v1) is the bottom-right corner.
+     */
+    private float[] u0, v0, u1, v1;
+
+    /**
+     * Whether each glyph index has had its data set.
+     */
+    private boolean[] assigned;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a GlyphMetrics instance.
+     *
+     * @param height character height
+     * @param descent character descent
+     * @param capacity number of glyph indices (including the missing glyph) to allocate room for up front
+     */
+    public GlyphMetrics(int height, int descent, int capacity) {
+        this.height = height;
+        this.descent = descent;
+        capacity = Math.max(1, capacity);
+        advances = new int[capacity];
+        boundsX = new int[capacity];
+        boundsY = new int[capacity];
+        boundsWidths = new int[capacity];
+        boundsHeights = new int[capacity];
+        pages = new int[capacity];
+        u0 = new float[capacity];
+        v0 = new float[capacity];
+        u1 = new float[capacity];
+        v1 = new float[capacity];
+        assigned = new boolean[capacity];
+    }
+
+
+    // METHODS
+    /**
+     * Reserves a new glyph index with all data set to zero.
+     *
+     * @return glyph index
+     */
+    int add() {
+
+        if (count == advances.length) {
+
+            int capacity = advances.length * 2;
+            advances = Arrays.copyOf(advances, capacity);
+            boundsX = Arrays.copyOf(boundsX, capacity);
+            boundsY = Arrays.copyOf(boundsY, capacity);
+            boundsWidths = Arrays.copyOf(boundsWidths, capacity);
+            boundsHeights = Arrays.copyOf(boundsHeights, capacity);
+            pages = Arrays.copyOf(pages, capacity);
+            u0 = Arrays.copyOf(u0, capacity);
+            v0 = Arrays.copyOf(v0, capacity);
+            u1 = Arrays.copyOf(u1, capacity);
+            v1 = Arrays.copyOf(v1, capacity);
+            assigned = Arrays.copyOf(assigned, capacity);
+        }
+        return count++;
+    }
+
+
+    /**
+     * Sets the data of a glyph, calculating its texture coordinates on the parent font texture.
+     *
+     * @param glyph target glyph index
+     * @param advance distance to advance to the next character
+     * @param boundsX left edge of character bounds relative to character origin
+     * @param boundsY top edge of character bounds relative to character origin
+     * @param boundsWidth width of character bounds
+     * @param boundsHeight height of character bounds
+     * @param page page of parent font texture that character is stored on
+     * @param originX position of character origin on parent font texture page (X)
+     * @param originY position of character origin (baseline) on parent font texture page (Y)
+     * @param textureWidth width of parent font texture page
+     * @param textureHeight height of parent font texture page
+     */
+    void set(int glyph, int advance, int boundsX, int boundsY, int boundsWidth, int boundsHeight, int page,
+             int originX, int originY, int textureWidth, int textureHeight) {
+
+        if ((glyph <= missingGlyph) || (glyph >= count)) {
+
+            throw new IndexOutOfBoundsException("Glyph index " + glyph + " has not been reserved");
+        }
+        this.advances[glyph] = advance;
+        this.boundsX[glyph] = boundsX;
+        this.boundsY[glyph] = boundsY;
+        this.boundsWidths[glyph] = boundsWidth;
+        this.boundsHeights[glyph] = boundsHeight;
+        this.pages[glyph] = page;
+        this.u0[glyph] = (float)(originX + boundsX) / (float)textureWidth;                                              // Convert left edge of bounds to a 0-1 range.
+        this.v0[glyph] = (float)(originY + boundsY) / (float)textureHeight;                                             // Convert top edge of bounds to a 0-1 range.
+        this.u1[glyph] = (float)(originX + boundsX + boundsWidth) / (float)textureWidth;                                // Convert right edge of bounds to a 0-1 range.
+        this.v1[glyph] = (float)(originY + boundsY + boundsHeight) / (float)textureHeight;                              // Convert bottom edge of bounds to a 0-1 range.
+
+        if (assigned[glyph]) {
+
+            version++;                                                                                                  // Glyph index reused (e.g., after an eviction).
+        }
+        assigned[glyph] = true;
+
+        if ((boundsWidth > 0) && (boundsHeight > 0)) {
+
+            minBoundsX = Math.min(minBoundsX, boundsX);
+            minBoundsY = Math.min(minBoundsY, boundsY);
+            maxBoundsBottom = Math.max(maxBoundsBottom, boundsY + boundsHeight);
+        }
+    }
+
+
+    // GETTERS
+    public int getHeight() {
+        return height;
+    }
+
+    public int getDescent() {
+        return descent;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getMinBoundsX() {
+        return minBoundsX;
+    }
+
+    public int getMinBoundsY() {
+        return minBoundsY;
+    }
+
+    public int getMaxBoundsBottom() {
+        return maxBoundsBottom;
+    }
+
+    public int getAdvance(int glyph) {
+        return advances[glyph];
+    }
+
+    public int getBoundsX(int glyph) {
+        return boundsX[glyph];
+    }
+
+    public int getBoundsY(int glyph) {
+        return boundsY[glyph];
+    }
+
+    public int getBoundsWidth(int glyph) {
+        return boundsWidths[glyph];
+    }
+
+    public int getBoundsHeight(int glyph) {
+        return boundsHeights[glyph];
+    }
+
+    public int getPage(int glyph) {
+        return pages[glyph];
+    }
+
+    public float getU0(int glyph) {
+        return u0[glyph];
+    }
+
+    public float getV0(int glyph) {
+        return v0[glyph];
+    }
+
+    public float getU1(int glyph) {
+        return u1[glyph];
+    }
+
+    public float getV1(int glyph) {
+        return v1[glyph];
+    }
+}
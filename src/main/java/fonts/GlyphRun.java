@@ -0,0 +1,162 @@
+package fonts;
+
+/**
+ * This class holds a string that has already been laid out in a font at a given scale: the glyph index of each
+ * character and the corners of its quad relative to the top-left of the string.
+ * Drawing a run only needs each quad translated to the string's screen position, with no glyph lookups or advances.
+ * A run goes stale if the font's glyph metrics change (see isCurrent), which only happens for lazily generated fonts.
+ */
+public class GlyphRun {
+
+    // FIELDS
+    /**
+     * Number of characters in this run.
+     */
+    private final int count;
+
+    /**
+     * Glyph index of each character.
+     */
+    private final int[] glyphs;
+
+    /**
+     * Quad corners of each character relative to the top-left of the string (remember that positive Y is down).
+     * (x0, y0) is the top-left corner and (x1, y1) is the bottom-right corner.
+     */
+    private final float[] x0, y0, x1, y1;
+
+    /**
+     * Bounding box of every quad in this run, relative to the top-left of the string.
+     * Empty runs have a box of zero size at the origin.
+     */
+    private final float left, top, right, bottom;
+
+    /**
+     * Distance from the start of the string to the pen position after its last character.
+     */
+    private final float advance;
+
+    /**
+     * Glyph metrics version that this run was laid out with.
+     */
+    private final int version;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a GlyphRun instance by laying out a string.
+     *
+     * @param font font to lay out text in
+     * @param text text to lay out
+     * @param scale scale factor compared to native font size
+     */
+    public GlyphRun(CFont font, String text, float scale) {
+        GlyphMetrics metrics = font.getMetrics();
+        count = text.codePointCount(0, text.length());
+        glyphs = new int[count];
+        x0 = new float[count];
+        y0 = new float[count];
+        x1 = new float[count];
+        y1 = new float[count];
+        float pen = 0;
+        int i = 0;
+
+        for (int index = 0; index < text.length(); i++) {
+
+            int codepoint = text.codePointAt(index);
+            index += Character.charCount(codepoint);
+            int glyph = font.getGlyph(codepoint);
+            glyphs[i] = glyph;
+            x0[i] = pen + (scale * metrics.getBoundsX(glyph));
+            y0[i] = scale * (metrics.getHeight() + metrics.getBoundsY(glyph));                                          // Bounds are relative to baseline, which sits `height` below top.
+            x1[i] = x0[i] + (scale * metrics.getBoundsWidth(glyph));
+            y1[i] = y0[i] + (scale * metrics.getBoundsHeight(glyph));
+            pen += metrics.getAdvance(glyph) * scale;
+        }
+        advance = pen;
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+
+        for (int k = 0; k < count; k++) {
+
+            minX = Math.min(minX, x0[k]);
+            minY = Math.min(minY, y0[k]);
+            maxX = Math.max(maxX, x1[k]);
+            maxY = Math.max(maxY, y1[k]);
+        }
+        left = (count > 0) ? minX : 0;
+        top = (count > 0) ? minY : 0;
+        right = (count > 0) ? maxX : 0;
+        bottom = (count > 0) ? maxY : 0;
+        version = metrics.getVersion();                                                                                 // Read after layout, since layout may generate glyphs.
+    }
+
+
+    // METHODS
+    /**
+     * Determines whether this run still matches the glyph metrics of its font.
+     *
+     * @param metrics glyph metrics of the font this run was laid out in
+     * @return whether this run is current
+     */
+    public boolean isCurrent(GlyphMetrics metrics) {
+
+        return metrics.getVersion() == version;
+    }
+
+
+    /**
+     * Estimates the number of bytes of memory this run takes up.
+     *
+     * @return estimated bytes
+     */
+    public long estimateBytes() {
+
+        return 112 + (long)count * (Integer.BYTES + 4 * Float.BYTES);                                                   // Object headers and fields, plus five arrays.
+    }
+
+
+    // GETTERS
+    public int getCount() {
+        return count;
+    }
+
+    public int getGlyph(int index) {
+        return glyphs[index];
+    }
+
+    public float getX0(int index) {
+        return x0[index];
+    }
+
+    public float getY0(int index) {
+        return y0[index];
+    }
+
+    public float getX1(int index) {
+        return x1[index];
+    }
+
+    public float getY1(int index) {
+        return y1[index];
+    }
+
+    public float getLeft() {
+        return left;
+    }
+
+    public float getTop() {
+        return top;
+    }
+
+    public float getRight() {
+        return right;
+    }
+
+    public float getBottom() {
+        return bottom;
+    }
+
+    public float getAdvance() {
+        return advance;
+    }
+}
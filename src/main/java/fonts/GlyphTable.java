@@ -0,0 +1,222 @@
+package fonts;
+
+/**
+ * This class maps codepoints to glyph indices without boxing or allocating on lookup.
+ * Codepoints that have not been stored map to the missing glyph (zero).
+ * Codepoints in the BMP (Basic Multilingual Plane) are stored in dense blocks of 256 that are only created once a
+ * character in their range is added; the first block (ASCII and Latin-1) always exists.
+ * Supplementary codepoints (e.g., emoji) are stored in an open-addressing table with linear probing.
+ */
+public class GlyphTable {
+
+    // FIELDS
+    /**
+     * Number of codepoints covered by each dense block.
+     */
+    private static final int blockSize = 256;
+
+    /**
+     * First codepoint outside the BMP.
+     */
+    private static final int supplementaryStart = 0x10000;
+
+    /**
+     * Dense blocks covering the BMP; null entries are blocks with no codepoints stored yet.
+     */
+    private final int[][] blocks = new int[supplementaryStart / blockSize][];
+
+    /**
+     * First dense block (ASCII and Latin-1), kept separately for the most common lookups.
+     */
+    private final int[] latin1 = new int[blockSize];
+
+    /**
+     * Keys of supplementary table; zero marks an empty bucket (zero is never a supplementary codepoint).
+     */
+    private int[] keys = new int[16];
+
+    /**
+     * Values of supplementary table.
+     */
+    private int[] values = new int[16];
+
+    /**
+     * Number of codepoints stored in supplementary table.
+     */
+    private int supplementaryCount = 0;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a GlyphTable instance.
+     */
+    public GlyphTable() {
+        blocks[0] = latin1;
+    }
+
+
+    // METHODS
+    /**
+     * Retrieves the glyph index of a codepoint.
+     *
+     * @param codepoint target codepoint
+     * @return glyph index, or the missing glyph if none is stored
+     */
+    public int get(int codepoint) {
+
+        if ((codepoint & ~(blockSize - 1)) == 0) {                                                                      // ASCII or Latin-1; most common case.
+
+            return latin1[codepoint];
+        }
+
+        if ((codepoint >= 0) && (codepoint < supplementaryStart)) {
+
+            int[] block = blocks[codepoint / blockSize];
+            return (block != null) ? block[codepoint % blockSize] : GlyphMetrics.missingGlyph;
+        }
+
+        if ((codepoint < 0) || (codepoint > Character.MAX_CODE_POINT)) {
+
+            return GlyphMetrics.missingGlyph;
+        }
+        int mask = keys.length - 1;
+
+        for (int i = hash(codepoint) & mask; keys[i] != 0; i = (i + 1) & mask) {
+
+            if (keys[i] == codepoint) {
+
+                return values[i];
+            }
+        }
+        return GlyphMetrics.missingGlyph;
+    }
+
+
+    /**
+     * Stores the glyph index of a codepoint, replacing any glyph index already stored for it.
+     *
+     * @param codepoint target codepoint
+     * @param glyph glyph index
+     */
+    public void put(int codepoint, int glyph) {
+
+        if ((codepoint < 0) || (codepoint > Character.MAX_CODE_POINT)) {
+
+            throw new IllegalArgumentException("Invalid codepoint " + codepoint);
+        }
+
+        if (codepoint < supplementaryStart) {
+
+            int[] block = blocks[codepoint / blockSize];
+
+            if (block == null) {
+
+                block = new int[blockSize];
+                blocks[codepoint / blockSize] = block;
+            }
+            block[codepoint % blockSize] = glyph;
+            return;
+        }
+
+        if ((supplementaryCount + 1) * 2 > keys.length) {                                                               // Keep load factor at or below one half.
+
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = hash(codepoint) & mask;
+
+        while ((keys[i] != 0) && (keys[i] != codepoint)) {
+
+            i = (i + 1) & mask;
+        }
+
+        if (keys[i] == 0) {
+
+            supplementaryCount++;
+        }
+        keys[i] = codepoint;
+        values[i] = glyph;
+    }
+
+
+    /**
+     * Removes the glyph index of a codepoint.
+     *
+     * @param codepoint target codepoint
+     */
+    public void remove(int codepoint) {
+
+        if ((codepoint >= 0) && (codepoint < supplementaryStart)) {
+
+            int[] block = blocks[codepoint / blockSize];
+
+            if (block != null) {
+
+                block[codepoint % blockSize] = GlyphMetrics.missingGlyph;
+            }
+            return;
+        }
+        int mask = keys.length - 1;
+        int i = hash(codepoint) & mask;
+
+        while (keys[i] != codepoint) {
+
+            if (keys[i] == 0) {
+
+                return;                                                                                                 // Not stored.
+            }
+            i = (i + 1) & mask;
+        }
+        supplementaryCount--;
+
+        for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {                                               // Shift later entries of the probe run back into the gap.
+
+            int home = hash(keys[j]) & mask;
+
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = 0;
+        values[i] = GlyphMetrics.missingGlyph;
+    }
+
+
+    /**
+     * Rebuilds the supplementary table with the passed number of buckets.
+     *
+     * @param capacity new number of buckets (power of two)
+     */
+    private void resize(int capacity) {
+
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        supplementaryCount = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+
+            if (oldKeys[i] != 0) {
+
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+
+    /**
+     * Spreads the bits of a codepoint so that neighboring codepoints land in distant buckets.
+     *
+     * @param codepoint target codepoint
+     * @return hash
+     */
+    private static int hash(int codepoint) {
+
+        int h = codepoint * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
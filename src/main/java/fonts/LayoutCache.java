@@ -0,0 +1,227 @@
+package fonts;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class caches laid out strings (glyph runs) by font, text, and scale, so strings that repeat from frame to frame
+ * are only laid out once.
+ * Runs are evicted least recently used first once their estimated memory exceeds the cap.
+ * Stale runs (see GlyphRun.isCurrent) are laid out again on lookup, counting as a miss.
+ */
+public class LayoutCache {
+
+    // FIELDS
+    /**
+     * Estimated memory that cached runs may take up if no cap is specified (one megabyte).
+     */
+    public static final long defaultMaxBytes = 1 << 20;
+
+    /**
+     * Estimated memory of each cache entry on top of its run (key, entry, and text).
+     */
+    private static final int entryBytes = 96;
+
+    /**
+     * Estimated memory that cached runs may take up.
+     */
+    private final long maxBytes;
+
+    /**
+     * Estimated memory that cached runs currently take up.
+     */
+    private long bytes = 0;
+
+    /**
+     * Cached runs, from least to most recently used.
+     */
+    private final LinkedHashMap<Key, GlyphRun> runs = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Reusable key for lookups, so that hits allocate nothing.
+     */
+    private final Key probe = new Key();
+
+    /**
+     * Number of lookups that found a current run, lookups that did not, and runs evicted to stay under the cap.
+     */
+    private long hits, misses, evictions;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a LayoutCache instance with the default memory cap.
+     */
+    public LayoutCache() {
+        this(defaultMaxBytes);
+    }
+
+
+    /**
+     * Constructs a LayoutCache instance.
+     *
+     * @param maxBytes estimated memory that cached runs may take up
+     */
+    public LayoutCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Layout cache size must be positive");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+
+    // METHODS
+    /**
+     * Retrieves the run of a string, laying it out (and caching it) if it is not cached or is stale.
+     * For fonts that rasterize characters on demand, every glyph of a cached run is marked as used, just as laying the
+     * string out again would.
+     *
+     * @param font font to lay out text in
+     * @param text text to lay out
+     * @param scale scale factor compared to native font size
+     * @return glyph run
+     */
+    public GlyphRun get(CFont font, String text, float scale) {
+
+        probe.set(font, text, scale);
+        GlyphRun run = runs.get(probe);
+
+        if ((run != null) && run.isCurrent(font.getMetrics())) {
+
+            hits++;
+            GlyphCache glyphCache = font.getGlyphCache();
+
+            if (glyphCache != null) {
+
+                for (int i = 0; i < run.getCount(); i++) {                                                              // Glyphs are about to be drawn, so must count as used.
+
+                    glyphCache.touch(run.getGlyph(i));
+                }
+            }
+            return run;
+        }
+        misses++;
+
+        if (run != null) {
+
+            runs.remove(probe);
+            bytes -= size(text, run);
+        }
+        run = new GlyphRun(font, text, scale);
+        long runBytes = size(text, run);
+
+        if (runBytes > maxBytes) {
+
+            return run;                                                                                                 // Too large to ever cache.
+        }
+        Key key = new Key();
+        key.set(font, text, scale);
+        runs.put(key, run);
+        bytes += runBytes;
+        Iterator<Map.Entry<Key, GlyphRun>> eldest = runs.entrySet().iterator();
+
+        while (bytes > maxBytes) {
+
+            Map.Entry<Key, GlyphRun> entry = eldest.next();
+            bytes -= size(entry.getKey().text, entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+        return run;
+    }
+
+
+    /**
+     * Drops every cached run.
+     */
+    public void clear() {
+
+        runs.clear();
+        bytes = 0;
+    }
+
+
+    /**
+     * Sets the hit, miss, and eviction counters back to zero.
+     */
+    public void resetCounters() {
+
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+
+    /**
+     * Estimates the memory that a cache entry takes up.
+     *
+     * @param text text of entry
+     * @param run run of entry
+     * @return estimated bytes
+     */
+    private static long size(String text, GlyphRun run) {
+
+        return entryBytes + (long)text.length() * Character.BYTES + run.estimateBytes();
+    }
+
+
+    // GETTERS
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public int getSize() {
+        return runs.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+
+    /**
+     * This class identifies a cached run by font (by identity), text, and scale.
+     */
+    private static class Key {
+
+        private CFont font;
+        private String text;
+        private float scale;
+        private int hash;
+
+        private void set(CFont font, String text, float scale) {
+            this.font = font;
+            this.text = text;
+            this.scale = scale;
+            this.hash = (31 * (31 * System.identityHashCode(font) + text.hashCode())) + Float.floatToIntBits(scale);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key)o;
+            return (font == other.font) && (Float.floatToIntBits(scale) == Float.floatToIntBits(other.scale))
+                    && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
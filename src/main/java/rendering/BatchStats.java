@@ -0,0 +1,149 @@
+package rendering;
+
+/**
+ * This class counts what a batch sends to the GPU.
+ * Counters accumulate until reset, so they can be sampled per frame or over a longer run.
+ */
+public class BatchStats {
+
+    // FIELDS
+    /**
+     * Number of draw calls issued.
+     */
+    private long drawCalls;
+
+    /**
+     * Number of quads (i.e., characters) drawn.
+     */
+    private long quads;
+
+    /**
+     * Number of vertex bytes uploaded to the GPU.
+     */
+    private long bytesUploaded;
+
+    /**
+     * Number of quads (i.e., characters) rejected for lying outside the clip rectangle, and trimmed for lying partly
+     * outside it.
+     */
+    private long culledQuads, trimmedQuads;
+
+    /**
+     * Number of flushes for each reason, indexed by ordinal.
+     */
+    private final long[] flushes = new long[FlushReason.values().length];
+
+
+    // METHODS
+    /**
+     * Records a flush that drew the passed number of quads in a single draw call.
+     *
+     * @param reason why the batch was flushed
+     * @param quadCount number of quads drawn
+     * @param byteCount number of vertex bytes uploaded
+     */
+    void recordFlush(FlushReason reason, int quadCount, long byteCount) {
+
+        flushes[reason.ordinal()]++;
+        recordDraw(quadCount, byteCount);
+    }
+
+
+    /**
+     * Records a single draw call that was not caused by a flush (e.g., drawing a retained text mesh).
+     *
+     * @param quadCount number of quads drawn
+     * @param byteCount number of vertex bytes uploaded
+     */
+    void recordDraw(int quadCount, long byteCount) {
+
+        drawCalls++;
+        quads += quadCount;
+        bytesUploaded += byteCount;
+    }
+
+
+    /**
+     * Records quads rejected for lying outside the clip rectangle.
+     *
+     * @param quadCount number of quads rejected
+     */
+    void recordCulled(int quadCount) {
+
+        culledQuads += quadCount;
+    }
+
+
+    /**
+     * Records a quad trimmed for lying partly outside the clip rectangle.
+     */
+    void recordTrimmed() {
+
+        trimmedQuads++;
+    }
+
+
+    /**
+     * Sets every counter back to zero.
+     */
+    public void reset() {
+
+        drawCalls = 0;
+        quads = 0;
+        bytesUploaded = 0;
+        culledQuads = 0;
+        trimmedQuads = 0;
+
+        for (int i = 0; i < flushes.length; i++) {
+
+            flushes[i] = 0;
+        }
+    }
+
+
+    /**
+     * Retrieves the number of flushes for the target reason.
+     *
+     * @param reason target reason
+     * @return number of flushes
+     */
+    public long getFlushCount(FlushReason reason) {
+
+        return flushes[reason.ordinal()];
+    }
+
+
+    @Override
+    public String toString() {
+
+        return drawCalls + " draw calls, " + quads + " quads (" + culledQuads + " culled, " + trimmedQuads
+                + " trimmed), " + bytesUploaded + " bytes uploaded (flushes: "
+                + flushes[FlushReason.FULL.ordinal()] + " full, "
+                + flushes[FlushReason.TEXTURE_CHANGE.ordinal()] + " texture change, "
+                + flushes[FlushReason.EXPLICIT.ordinal()] + " explicit, "
+                + flushes[FlushReason.MESH_DRAW.ordinal()] + " mesh draw, "
+                + flushes[FlushReason.GLYPH_EVICTION.ordinal()] + " glyph eviction)";
+    }
+
+
+    // GETTERS
+    public long getDrawCalls() {
+        return drawCalls;
+    }
+
+    public long getQuads() {
+        return quads;
+    }
+
+    public long getCulledQuads() {
+        return culledQuads;
+    }
+
+    public long getTrimmedQuads() {
+        return trimmedQuads;
+    }
+
+    public long getBytesUploaded() {
+        return bytesUploaded;
+    }
+}
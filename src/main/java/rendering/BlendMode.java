@@ -0,0 +1,27 @@
+package rendering;
+
+/**
+ * This enum represents the ways that drawn text can be blended into the framebuffer.
+ */
+public enum BlendMode {
+
+    /**
+     * No blending; fragments replace what is already drawn.
+     */
+    NONE,
+
+    /**
+     * Standard alpha blending (GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA).
+     */
+    ALPHA,
+
+    /**
+     * Blending of colors already multiplied by their alpha (GL_ONE, GL_ONE_MINUS_SRC_ALPHA).
+     */
+    PREMULTIPLIED,
+
+    /**
+     * Additive blending (GL_SRC_ALPHA, GL_ONE), e.g., for glows.
+     */
+    ADDITIVE
+}
@@ -0,0 +1,32 @@
+package rendering;
+
+/**
+ * This enum contains the reasons a batch is flushed (i.e., rendered then cleared).
+ */
+public enum FlushReason {
+
+    /**
+     * Batch had no room left for another character.
+     */
+    FULL,
+
+    /**
+     * Next character is stored on a different texture than the characters already in the batch.
+     */
+    TEXTURE_CHANGE,
+
+    /**
+     * Flush was requested by the caller (e.g., at the end of a frame).
+     */
+    EXPLICIT,
+
+    /**
+     * A retained text mesh was drawn through the batch, so characters added before it had to be drawn first.
+     */
+    MESH_DRAW,
+
+    /**
+     * A glyph cache had to evict a character that was still waiting to be drawn by the batch.
+     */
+    GLYPH_EVICTION
+}
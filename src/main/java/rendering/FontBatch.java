@@ -1,14 +1,24 @@
 package rendering;
 
+import fonts.AtlasMode;
 import fonts.CFont;
-import fonts.CharInfo;
+import fonts.GlyphCache;
+import fonts.GlyphMetrics;
+import fonts.GlyphRun;
+import fonts.LayoutCache;
 import org.joml.Matrix4f;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
 import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
 import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static org.lwjgl.opengl.GL31.glDrawArraysInstanced;
+import static org.lwjgl.opengl.GL32.glDrawElementsBaseVertex;
+import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
 
 /**
  * This class holds a batch of CFont instances to be sent to the GPU and rendered in a single call.
@@ -17,34 +27,72 @@ public class FontBatch {
     
     // FIELDS
     /**
-     * Base vertex indices.
+     * Number of characters (quads) that a batch can store if no capacity is specified.
+     */
+    public static final int defaultCapacity = 16384;
+
+    /**
+     * Screen dimensions that the projection maps onto the viewport.
+     */
+    public static final int screenWidth = 800, screenHeight = 600;
+
+    /**
+     * Maximum number of clip rectangles that can be pushed at once.
+     */
+    private static final int maxClipDepth = 32;
+
+    /**
+     * Number of font textures that a multi-font batch can draw from in a single draw call.
+     * Eight fits within the sixteen texture units every OpenGL 3.3 implementation must offer to fragment shaders.
+     */
+    public static final int multiFontSlots = 8;
+
+    /**
+     * Texture unit of each texture slot, as uploaded to multi-font shaders.
      */
-    private int[] indices = {
-            0, 1, 3,
-            1, 2, 3
-    };
+    private static final int[] slotUnits = {0, 1, 2, 3, 4, 5, 6, 7};
 
     /**
-     * Number of vertices that can be stored in this batch.
-     * As an aside, 100 vertices equals 25 quads.
+     * Number of characters (quads) that can be stored in this batch before it must be flushed.
      */
-    private final int batchSize = 100;
+    private final int capacity;
 
     /**
-     * Total number of indices in the vertex array.
+     * Layout of character data in the vertex buffer.
      */
-    private final int vertexSize = 7;
+    private final VertexFormat vertexFormat;
 
     /**
-     * Vertex array.
+     * Number of bytes each character takes up in the vertex buffer.
      */
-    private float[] vertices = new float[batchSize * vertexSize];
+    private final int glyphBytes;
 
     /**
-     * Actual number of vertices stored in this batch.
+     * How vertices are streamed to the GPU.
+     */
+    private final StreamingStrategy streamingStrategy;
+
+    /**
+     * Stream that vertices are written into and uploaded through (created on init).
+     */
+    private VertexStream stream;
+
+    /**
+     * Buffer that vertices (or instance records) of the characters currently in this batch are written into.
+     * This is null until the first character after a flush is added.
+     */
+    private ByteBuffer vertices;
+
+    /**
+     * Actual number of characters (quads) stored in this batch.
      */
     private int size = 0;
 
+    /**
+     * Counters of what this batch has sent to the GPU.
+     */
+    private final BatchStats stats = new BatchStats();
+
     /**
      * Projection matrix for shader purposes.
      */
@@ -55,11 +103,6 @@ public class FontBatch {
      */
     private int vaoId;
 
-    /**
-     * Vertex buffer object ID.
-     */
-    private int vboId;
-
     /**
      * rendering.Shader attached to this batch.
      */
@@ -70,12 +113,132 @@ public class FontBatch {
      */
     private CFont font;
 
+    /**
+     * Stack of clip rectangles (screen coordinates, right and bottom edges exclusive), where each entry is already
+     * intersected with the one below it.
+     * Entry zero is the whole screen and is never popped.
+     */
+    private final float[] clipX0 = new float[maxClipDepth + 1], clipY0 = new float[maxClipDepth + 1];
+    private final float[] clipX1 = new float[maxClipDepth + 1], clipY1 = new float[maxClipDepth + 1];
+
+    /**
+     * Number of clip rectangles pushed (i.e., index of the current clip rectangle).
+     */
+    private int clipDepth = 0;
+
+    /**
+     * Cache that strings are laid out through, or null to lay out every string as it is added.
+     * Caches can be shared between batches.
+     */
+    private LayoutCache layoutCache;
+
+    /**
+     * Texture ID bound to each texture slot by the characters currently in this batch.
+     * Only the multi-font vertex format uses more than one slot.
+     */
+    private final int[] slotTextures;
+
+    /**
+     * Whether the font texture in each texture slot stores signed distances (1) or not (0), indexed by slot.
+     */
+    private final int[] slotSdf;
+
+    /**
+     * Font whose texture is bound to each texture slot, so that glyph caches can be told once their characters are
+     * drawn.
+     */
+    private final CFont[] slotFonts;
+
+    /**
+     * Number of texture slots in use by the characters currently in this batch.
+     */
+    private int slotCount = 0;
+
+    /**
+     * Segments that producer threads add characters to, in the order they were created (and are merged in).
+     */
+    private final List<GlyphSegment> segments = new ArrayList<>();
+
+    /**
+     * Flushes this batch so that a glyph cache can evict characters this batch has yet to draw (see
+     * GlyphCache.markPending); created once so that marking characters pending allocates nothing.
+     */
+    private final Runnable evictionFlush = () -> flush(FlushReason.GLYPH_EVICTION);
+
+    /**
+     * Reused buffer that addNumber writes digits into.
+     */
+    private final char[] digits = new char[20];
+
 
     // CONSTRUCTOR
+    /**
+     * Constructs a FontBatch instance with the default capacity.
+     */
+    public FontBatch() {
+        this(defaultCapacity);
+    }
+
+
+    /**
+     * Constructs a FontBatch instance that streams vertices with glBufferSubData.
+     *
+     * @param capacity number of characters that can be stored before this batch must be flushed
+     */
+    public FontBatch(int capacity) {
+        this(capacity, StreamingStrategy.SUB_DATA);
+    }
+
+
     /**
      * Constructs a FontBatch instance.
+     *
+     * @param capacity number of characters that can be stored before this batch must be flushed
+     * @param streamingStrategy how vertices are streamed to the GPU
      */
-    public FontBatch() {}
+    public FontBatch(int capacity, StreamingStrategy streamingStrategy) {
+        this(capacity, streamingStrategy, VertexFormat.QUAD);
+    }
+
+
+    /**
+     * Constructs a FontBatch instance.
+     *
+     * @param capacity number of characters that can be stored before this batch must be flushed
+     * @param streamingStrategy how vertices are streamed to the GPU
+     * @param vertexFormat layout of character data in the vertex buffer
+     */
+    public FontBatch(int capacity, StreamingStrategy streamingStrategy, VertexFormat vertexFormat) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Batch capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.streamingStrategy = streamingStrategy;
+        this.vertexFormat = vertexFormat;
+        this.glyphBytes = vertexFormat.getGlyphBytes();
+        int slots = (vertexFormat == VertexFormat.MULTI_FONT) ? multiFontSlots : 1;
+        this.slotTextures = new int[slots];
+        this.slotSdf = new int[slots];
+        this.slotFonts = new CFont[slots];
+        this.clipX1[0] = screenWidth;
+        this.clipY1[0] = screenHeight;
+    }
+
+
+    /**
+     * Constructs a FontBatch instance that writes vertices into an existing stream and is never initialized, so that
+     * vertex generation can be driven without an OpenGL context (e.g., in benchmarks).
+     * Such a batch must not be flushed or draw meshes; use discard to empty it instead.
+     *
+     * @param capacity number of characters that can be stored before this batch must be emptied
+     * @param vertexFormat layout of character data in the vertex buffer
+     * @param stream stream that vertices are written into (e.g., a RecordingVertexStream)
+     */
+    FontBatch(int capacity, VertexFormat vertexFormat, VertexStream stream) {
+        this(capacity, StreamingStrategy.SUB_DATA, vertexFormat);
+        this.stream = stream;
+        stream.init(capacity * glyphBytes);
+    }
 
 
     // METHODS
@@ -88,175 +251,765 @@ public class FontBatch {
 
         // Initialize projection matrix.
         projection.identity();                                                                                          // Sets the projection matrix to equal the identity matrix.
-        projection.ortho(0, 800, 600, 0, 1f, 100f);                                                                     // Treat screen as if it's 800 x 600 pixels tall with positive Y down.
+        projection.ortho(0, screenWidth, screenHeight, 0, 1f, 100f);                                                    // Treat screen as if it's 800 x 600 pixels tall with positive Y down.
 
         // Generate and bind a vertex array object.
         vaoId = glGenVertexArrays();
-        glBindVertexArray(vaoId);
+        GlState.bindVertexArray(vaoId);
+
+        if (vertexFormat == VertexFormat.INSTANCED) {
+
+            // Allocate space for a static unit quad, drawn as a triangle strip.
+            int cornerVboId = glGenBuffers();
+            glBindBuffer(GL_ARRAY_BUFFER, cornerVboId);
+            glBufferData(GL_ARRAY_BUFFER, new float[] {0, 0, 1, 0, 0, 1, 1, 1}, GL_STATIC_DRAW);
+            glVertexAttribPointer(0, 2, GL_FLOAT, false, 2 * Float.BYTES, 0);
+            glEnableVertexAttribArray(0);
+
+            // Allocate space for instance records; their attribute pointers are set on each flush.
+            stream = streamingStrategy.create();
+            stream.init(capacity * glyphBytes);
+            for (int attribute = 1; attribute <= 3; attribute++) {
+                glVertexAttribDivisor(attribute, 1);                                                                    // Advance once per character, not per corner.
+                glEnableVertexAttribArray(attribute);
+            }
+            return;
+        }
 
         // Allocate space for vertices.
-        vboId = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboId);
-        glBufferData(GL_ARRAY_BUFFER, vertexSize * batchSize * Float.BYTES, GL_DYNAMIC_DRAW);
+        stream = streamingStrategy.create();
+        stream.init(capacity * glyphBytes);
 
-        // Generate and bind element buffer object.
-        generateEbo();
+        // Bind shared element buffer object, sized for this batch.
+        QuadIndexBuffer.bind(capacity);
 
         // Enable buffer attribute pointers.
-        int stride = 7 * Float.BYTES;
-        glVertexAttribPointer(0, 2, GL_FLOAT, false, stride, 0);
-        glEnableVertexAttribArray(0);
-        glVertexAttribPointer(1, 3, GL_FLOAT, false, stride, 2 * Float.BYTES);
-        glEnableVertexAttribArray(1);
-        glVertexAttribPointer(2, 2, GL_FLOAT, false, stride, 5 * Float.BYTES);
-        glEnableVertexAttribArray(2);
+        vertexFormat.enableQuadAttributes();
     }
 
 
     /**
-     * Generates an element buffer object large enough to hold the number of vertices specified by the batch size.
+     * Adds a string of character to this batch.
+     *
+     * @param text text to render
+     * @param x screen coordinate (leftmost x)
+     * @param y screen coordinate (topmost y)
+     * @param scale scale factor compared to native font size
+     * @param rgb color in hexadecimal format
      */
-    public void generateEbo() {
+    public void addString(CharSequence text, int x, int y, float scale, int rgb) {
 
-        int elementSize = batchSize * 3;                                                                                // Multiply by three since there are three indices per triangle.
-        int[] elementBuffer = new int[elementSize];
+        addString(text, x, y, scale, rgb, 1f);
+    }
 
-        for (int i = 0; i < elementSize; i++) {
 
-            elementBuffer[i] = indices[(i % 6)] + ((i / 6) * 4);                                                        // Use pattern set by indices array.
-        }
-        int eboId = glGenBuffers();
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, eboId);                                                                   // Bind array.
-        glBufferData(GL_ELEMENT_ARRAY_BUFFER, elementBuffer, GL_STATIC_DRAW);                                           // Buffer array to GPU.
+    /**
+     * Adds a string of character to this batch with a given opacity.
+     * Opacity is ignored by the QUAD vertex format, which is always opaque.
+     *
+     * @param text text to render
+     * @param x screen coordinate (leftmost x)
+     * @param y screen coordinate (topmost y)
+     * @param scale scale factor compared to native font size
+     * @param rgb color in hexadecimal format
+     * @param alpha opacity from zero (transparent) to one (opaque)
+     */
+    public void addString(CharSequence text, int x, int y, float scale, int rgb, float alpha) {
+
+        addString(font, text, x, y, scale, rgb, alpha);
     }
 
 
     /**
-     * Adds a string of character to this batch.
+     * Adds a string of character in a specific font to this batch with a given opacity.
+     * Batches using the MULTI_FONT vertex format draw strings from up to eight font textures (fonts or font texture
+     * pages) in a single draw call, but cannot draw MSDF fonts; other batches are flushed whenever the font texture
+     * changes.
+     * Any character sequence is accepted, so text that changes every frame (e.g., scores or timers) can be built in a
+     * reused StringBuilder instead of creating a new String each frame; only Strings go through the layout cache.
      *
+     * @param font font to render text in
      * @param text text to render
      * @param x screen coordinate (leftmost x)
      * @param y screen coordinate (topmost y)
      * @param scale scale factor compared to native font size
      * @param rgb color in hexadecimal format
+     * @param alpha opacity from zero (transparent) to one (opaque)
+     */
+    public void addString(CFont font, CharSequence text, int x, int y, float scale, int rgb, float alpha) {
+
+        int argb = toArgb(rgb, alpha);
+
+        if ((layoutCache != null) && (text instanceof String)) {
+
+            addRun(font, layoutCache.get(font, (String)text, scale), x, y, argb);
+            return;
+        }
+        int length = text.length();
+
+        if (isStringCulled(font, y, scale, length)) {
+
+            return;
+        }
+        float pen = x;
+
+        for (int i = 0; i < length; ) {                                                                                 // Add each character from the string to the batch, one at a time.
+
+            if (isPastClip(font, pen, scale, length - i)) {
+
+                return;
+            }
+            int codepoint = Character.codePointAt(text, i);                                                             // Surrogate pairs are read as one character.
+            i += Character.charCount(codepoint);
+            pen = addCodepoint(font, pen, y, scale, codepoint, argb);
+        }
+    }
+
+
+    /**
+     * Adds a range of an array of characters in a specific font to this batch with a given opacity.
+     *
+     * @param font font to render text in
+     * @param chars array holding text to render
+     * @param offset index of first character to render
+     * @param length number of characters (UTF-16 code units) to render
+     * @param x screen coordinate (leftmost x)
+     * @param y screen coordinate (topmost y)
+     * @param scale scale factor compared to native font size
+     * @param rgb color in hexadecimal format
+     * @param alpha opacity from zero (transparent) to one (opaque)
+     */
+    public void addString(CFont font, char[] chars, int offset, int length, int x, int y, float scale, int rgb,
+                          float alpha) {
+
+        int argb = toArgb(rgb, alpha);
+
+        if (isStringCulled(font, y, scale, length)) {
+
+            return;
+        }
+        float pen = x;
+        int end = offset + length;
+
+        for (int i = offset; i < end; ) {
+
+            if (isPastClip(font, pen, scale, end - i)) {
+
+                return;
+            }
+            int codepoint = Character.codePointAt(chars, i, end);                                                       // Surrogate pairs are read as one character.
+            i += Character.charCount(codepoint);
+            pen = addCodepoint(font, pen, y, scale, codepoint, argb);
+        }
+    }
+
+
+    /**
+     * Adds a range of an array of codepoints in a specific font to this batch with a given opacity.
+     *
+     * @param font font to render text in
+     * @param codepoints array holding characters to render
+     * @param offset index of first character to render
+     * @param length number of characters to render
+     * @param x screen coordinate (leftmost x)
+     * @param y screen coordinate (topmost y)
+     * @param scale scale factor compared to native font size
+     * @param rgb color in hexadecimal format
+     * @param alpha opacity from zero (transparent) to one (opaque)
      */
-    public void addString(String text, int x, int y, float scale, int rgb) {
+    public void addString(CFont font, int[] codepoints, int offset, int length, int x, int y, float scale, int rgb,
+                          float alpha) {
 
-        for (int i = 0; i < text.length(); i++) {                                                                       // Add each character from the string to the batch, one at a time.
+        int argb = toArgb(rgb, alpha);
 
-            char c = text.charAt(i);
-            CharInfo charInfo = font.getCharacter(c);
+        if (isStringCulled(font, y, scale, length)) {
+
+            return;
+        }
+        float pen = x;
+        int end = offset + length;
 
-            if (charInfo.getWidth() == 0) {
+        for (int i = offset; i < end; i++) {
 
-                // TODO : Could generate error for unknown character.
+            if (isPastClip(font, pen, scale, end - i)) {
+
+                return;
             }
-            float xPos = x;
-            float yPos = y;
-            addCharacter(xPos, yPos, scale, charInfo, rgb);                                                             // Add character to batch.                                                    // Adds character to batch.
-            x += charInfo.getWidth() * scale;                                                                           // Prepare for next character in string.
+            pen = addCodepoint(font, pen, y, scale, codepoints[i], argb);
+        }
+    }
+
+
+    /**
+     * Adds an integer in a specific font to this batch with a given opacity.
+     * Digits are written into a reused buffer, so no String is created.
+     *
+     * @param font font to render number in
+     * @param value number to render
+     * @param x screen coordinate (leftmost x)
+     * @param y screen coordinate (topmost y)
+     * @param scale scale factor compared to native font size
+     * @param rgb color in hexadecimal format
+     * @param alpha opacity from zero (transparent) to one (opaque)
+     */
+    public void addNumber(CFont font, long value, int x, int y, float scale, int rgb, float alpha) {
+
+        int start = formatDigits(value, digits);
+        addString(font, digits, start, digits.length - start, x, y, scale, rgb, alpha);
+    }
+
+
+    /**
+     * Writes the decimal digits of an integer (with a leading minus sign if negative) at the end of a buffer.
+     *
+     * @param value number to write
+     * @param buffer target buffer (at least 20 characters long)
+     * @return index of first character written
+     */
+    static int formatDigits(long value, char[] buffer) {
+
+        int i = buffer.length;
+        long remaining = value;
+
+        do {
+
+            buffer[--i] = (char)('0' + Math.abs(remaining % 10));                                                       // Digits are negated rather than the value, so Long.MIN_VALUE works.
+            remaining /= 10;
+        } while (remaining != 0);
+
+        if (value < 0) {
+
+            buffer[--i] = '-';
+        }
+        return i;
+    }
+
+
+    /**
+     * Adds every character of a laid-out string to this batch.
+     *
+     * @param font font that string was laid out in
+     * @param run laid-out string
+     * @param x screen coordinate (leftmost x)
+     * @param y screen coordinate (topmost y)
+     * @param argb color (with alpha) in hexadecimal format
+     */
+    private void addRun(CFont font, GlyphRun run, int x, int y, int argb) {
+
+        float cx0 = clipX0[clipDepth], cy0 = clipY0[clipDepth], cx1 = clipX1[clipDepth], cy1 = clipY1[clipDepth];
+
+        if (((x + run.getRight()) <= cx0) || ((x + run.getLeft()) >= cx1)
+                || ((y + run.getBottom()) <= cy0) || ((y + run.getTop()) >= cy1)) {
+
+            stats.recordCulled(run.getCount());                                                                         // Whole string lies outside clip rectangle.
+            return;
+        }
+
+        for (int i = 0; i < run.getCount(); i++) {                                                                      // Only translate each quad, since the string is already laid out.
+
+            addQuad(font, run.getGlyph(i), x + run.getX0(i), y + run.getY0(i), x + run.getX1(i), y + run.getY1(i),
+                    argb);
+        }
+    }
+
+
+    /**
+     * Determines whether a string lies entirely above or below the clip rectangle, judging by the tallest characters
+     * of its font, and records its characters as culled if so.
+     * Strings in fonts that rasterize characters on demand are never rejected here, since their tallest characters
+     * are not known until rasterized; their characters are still culled one at a time.
+     *
+     * @param font font of string
+     * @param y screen coordinate (topmost y)
+     * @param scale scale factor compared to native font size
+     * @param length number of characters in string
+     * @return whether the string can be skipped
+     */
+    boolean isStringCulled(CFont font, int y, float scale, int length) {
+
+        if (font.getGlyphCache() != null) {
+
+            return false;
         }
+        GlyphMetrics metrics = font.getMetrics();
+        float baseline = y + (scale * metrics.getHeight());
+
+        if (((baseline + (scale * metrics.getMaxBoundsBottom())) <= clipY0[clipDepth])
+                || ((baseline + (scale * metrics.getMinBoundsY())) >= clipY1[clipDepth])) {
+
+            stats.recordCulled(length);                                                                                 // Whole string lies above or below clip rectangle.
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * Determines whether the rest of a string lies right of the clip rectangle, and records its characters as culled
+     * if so.
+     * As with isStringCulled, strings in fonts that rasterize characters on demand are never rejected here.
+     *
+     * @param font font of string
+     * @param x screen coordinate of next character's origin
+     * @param scale scale factor compared to native font size
+     * @param remaining number of characters left in string
+     * @return whether the rest of the string can be skipped
+     */
+    private boolean isPastClip(CFont font, float x, float scale, int remaining) {
+
+        if (font.getGlyphCache() != null) {
+
+            return false;
+        }
+
+        if ((x + (scale * font.getMetrics().getMinBoundsX())) >= clipX1[clipDepth]) {
+
+            stats.recordCulled(remaining);                                                                              // Rest of string lies right of clip rectangle.
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * Adds a single character to this batch by codepoint.
+     *
+     * @param font font of character
+     * @param x screen coordinate of character's origin (leftmost x)
+     * @param y screen coordinate (topmost y)
+     * @param scale scale factor compared to native font size
+     * @param codepoint character to add
+     * @param argb color (with alpha) in hexadecimal format
+     * @return screen coordinate of next character's origin
+     */
+    private float addCodepoint(CFont font, float x, float y, float scale, int codepoint, int argb) {
+
+        int glyph = font.getGlyph(codepoint);                                                                           // Missing characters resolve to the missing glyph.
+        addCharacter(font, x, y, scale, glyph, argb);
+        return x + (font.getMetrics().getAdvance(glyph) * scale);                                                       // Prepare for next character in string.
     }
 
 
     /**
      * Adds a single character to this batch.
      *
+     * @param font font of character
      * @param x screen coordinate (leftmost x)
      * @param y screen coordinate (topmost y)
      * @param scale sale factor compared to native font size
-     * @param charInfo character data
-     * @param rgb color in hexadecimal format
+     * @param glyph glyph index of character in font metrics
+     * @param argb color (with alpha) in hexadecimal format
+     */
+    private void addCharacter(CFont font, float x, float y, float scale, int glyph, int argb) {
+
+        GlyphMetrics metrics = font.getMetrics();
+        float x0 = x + (scale * metrics.getBoundsX(glyph));                                                             // Top-left corner (remember that positive Y is down).
+        float y0 = y + (scale * (metrics.getHeight() + metrics.getBoundsY(glyph)));                                     // ^^^ (bounds are relative to baseline, which sits `height` below top)
+        float x1 = x0 + (scale * metrics.getBoundsWidth(glyph));                                                        // Bottom-right corner (remember that positive Y is down).
+        float y1 = y0 + (scale * metrics.getBoundsHeight(glyph));                                                       // ^^^
+        addQuad(font, glyph, x0, y0, x1, y1, argb);
+    }
+
+
+    /**
+     * Adds the quad of a single character to this batch.
+     *
+     * @param font font of character
+     * @param glyph glyph index of character in font metrics
+     * @param x0 left edge on screen
+     * @param y0 top edge on screen
+     * @param x1 right edge on screen
+     * @param y1 bottom edge on screen
+     * @param argb color (with alpha) in hexadecimal format
      */
-    private void addCharacter(float x, float y, float scale, CharInfo charInfo, int rgb) {
+    private void addQuad(CFont font, int glyph, float x0, float y0, float x1, float y1, int argb) {
 
-        if (size >= (batchSize - 4)) {
+        float cx0 = clipX0[clipDepth], cy0 = clipY0[clipDepth], cx1 = clipX1[clipDepth], cy1 = clipY1[clipDepth];
 
-            flush();                                                                                                    // Flush batch (i.e., render then clear) to start fresh.
+        if ((x1 <= cx0) || (x0 >= cx1) || (y1 <= cy0) || (y0 >= cy1) || (x0 >= x1) || (y0 >= y1)) {
+
+            stats.recordCulled(1);                                                                                      // Outside clip rectangle, or draws nothing (e.g., a space).
+            return;
+        }
+        GlyphMetrics metrics = font.getMetrics();
+        float ux0 = metrics.getU0(glyph);
+        float uy0 = metrics.getV0(glyph);                                                                               // Top edge, since positive Y is defined as down here.
+        float ux1 = metrics.getU1(glyph);
+        float uy1 = metrics.getV1(glyph);
+
+        if ((clipDepth > 0) && ((x0 < cx0) || (y0 < cy0) || (x1 > cx1) || (y1 > cy1))) {                                // Screen edges are left to the GPU.
+
+            float du = (ux1 - ux0) / (x1 - x0);                                                                         // Texture coordinate change per screen unit.
+            float dv = (uy1 - uy0) / (y1 - y0);
+
+            if (x0 < cx0) { ux0 += (cx0 - x0) * du; x0 = cx0; }
+            if (x1 > cx1) { ux1 -= (x1 - cx1) * du; x1 = cx1; }
+            if (y0 < cy0) { uy0 += (cy0 - y0) * dv; y0 = cy0; }
+            if (y1 > cy1) { uy1 -= (y1 - cy1) * dv; y1 = cy1; }
+            stats.recordTrimmed();
         }
-        float r = (float)(((rgb >> 16) & 0xFF) / 255.0);                                                                // Extract red information from hexadecimal.
-        float g = (float)(((rgb >> 8) & 0xFF) / 255.0);                                                                 // Extract green information from hexadecimal.
-        float b = (float)(((rgb >> 0) & 0xFF) / 255.0);                                                                 // Extract blue information from hexadecimal.
 
-        float x0 = x;                                                                                                   // Top-left corner (remember that positive Y is down).
-        float y0 = y;                                                                                                   // ^^^
-        float x1 = x + (scale * charInfo.getWidth());                                                                   // Bottom-right corner (remember that positive Y is down).
-        float y1 = y + (scale * (charInfo.getHeight() + charInfo.getDescent()));                                        // ^^^ (also, modifying this value affects how "stretched" the text appears)
+        if (size >= capacity) {
 
-        float ux0 = charInfo.getTextureCoords()[0].x;
-        float uy0 = charInfo.getTextureCoords()[1].y;                                                                   // Flipped with `uy1` since positive Y is defined as down here.
-        float ux1 = charInfo.getTextureCoords()[1].x;
-        float uy1 = charInfo.getTextureCoords()[0].y;
+            flush(FlushReason.FULL);                                                                                    // Flush batch (i.e., render then clear) to start fresh.
+        }
+        int slot = bindSlot(font, metrics.getPage(glyph));
+        GlyphCache glyphCache = font.getGlyphCache();
 
-        int index = size * 7;                                                                                           // First vertex with position, color, and texture coordinates; seven floats per vertex.
-        vertices[index] = x1;                                                                                           // Position (X).
-        vertices[index + 1] = y0;                                                                                       // Position (Y).
-        vertices[index + 2] = r;                                                                                        // Color (red).
-        vertices[index + 3] = g;                                                                                        // Color (green).
-        vertices[index + 4] = b;                                                                                        // Color (blue).
-        vertices[index + 5] = ux1;                                                                                      // Texture coordinate (X).
-        vertices[index + 6] = uy0;                                                                                      // Texture coordinate (Y).
+        if (glyphCache != null) {
 
-        index += 7;                                                                                                     // Second vertex with position, color, and texture coordinates.
-        vertices[index] = x1;
-        vertices[index + 1] = y1;
-        vertices[index + 2] = r;
-        vertices[index + 3] = g;
-        vertices[index + 4] = b;
-        vertices[index + 5] = ux1;
-        vertices[index + 6] = uy1;
+            glyphCache.markPending(glyph, evictionFlush);                                                               // Marked after any flush above, which releases pending characters.
+        }
 
-        index += 7;                                                                                                     // Third vertex with position, color, and texture coordinates.
-        vertices[index] = x0;
-        vertices[index + 1] = y1;
-        vertices[index + 2] = r;
-        vertices[index + 3] = g;
-        vertices[index + 4] = b;
-        vertices[index + 5] = ux0;
-        vertices[index + 6] = uy1;
+        if (vertices == null) {
 
-        index += 7;                                                                                                     // Fourth vertex with position, color, and texture coordinates.
-        vertices[index] = x0;
-        vertices[index + 1] = y0;
-        vertices[index + 2] = r;
-        vertices[index + 3] = g;
-        vertices[index + 4] = b;
-        vertices[index + 5] = ux0;
-        vertices[index + 6] = uy0;
+            vertices = stream.begin();                                                                                  // May wait for GPU to finish with previous contents.
+        }
 
-        size += 4;                                                                                                      // Four vertices have now been added.
+        vertexFormat.put(vertices, size, x0, y0, x1, y1, ux0, uy0, ux1, uy1, argb, slot);
+        size++;                                                                                                         // One more character has now been added.
     }
 
 
     /**
-     * Flushes this batch.
+     * Pushes a clip rectangle, so that only characters (or the parts of characters) inside both it and every clip
+     * rectangle already pushed are added to this batch until it is popped.
+     * Characters entirely outside are rejected before any vertex is written; characters partly outside are trimmed.
+     * Note that clipping applies to characters as they are added, not to text meshes.
+     *
+     * @param x screen coordinate (leftmost x)
+     * @param y screen coordinate (topmost y)
+     * @param width clip rectangle width
+     * @param height clip rectangle height
+     */
+    public void pushClip(float x, float y, float width, float height) {
+
+        if (clipDepth == maxClipDepth) {
+
+            throw new IllegalStateException("Clip rectangles cannot be nested more than " + maxClipDepth + " deep");
+        }
+        int parent = clipDepth++;
+        clipX0[clipDepth] = Math.max(clipX0[parent], x);
+        clipY0[clipDepth] = Math.max(clipY0[parent], y);
+        clipX1[clipDepth] = Math.max(clipX0[clipDepth], Math.min(clipX1[parent], x + width));                           // Keep empty intersections empty rather than inverted.
+        clipY1[clipDepth] = Math.max(clipY0[clipDepth], Math.min(clipY1[parent], y + height));
+    }
+
+
+    /**
+     * Pops the most recently pushed clip rectangle.
+     */
+    public void popClip() {
+
+        if (clipDepth == 0) {
+
+            throw new IllegalStateException("No clip rectangle to pop");
+        }
+        clipDepth--;
+    }
+
+
+    /**
+     * Creates a segment that a single producer thread can add characters to without touching this batch (e.g., to
+     * lay out UI panels in parallel).
+     * Every segment created is merged into this batch when it is next flushed explicitly, in creation order, after
+     * anything added to this batch directly; its characters are therefore drawn in the same order no matter which
+     * producer finishes first.
+     *
+     * @param capacity number of characters the segment initially has room for (it grows as needed)
+     * @return segment
+     */
+    public GlyphSegment createSegment(int capacity) {
+
+        GlyphSegment segment = new GlyphSegment(vertexFormat, capacity);
+        segments.add(segment);
+        return segment;
+    }
+
+
+    /**
+     * Stops merging a segment into this batch.
+     *
+     * @param segment segment created by createSegment
+     */
+    public void removeSegment(GlyphSegment segment) {
+
+        segments.remove(segment);
+    }
+
+
+    /**
+     * Copies the characters of every segment into this batch, in segment creation order, then clears the segments.
+     * Characters are copied a run at a time; only texture slots (for the MULTI_FONT format) are rewritten.
+     * No producer may be adding characters to a segment while this runs.
+     */
+    private void mergeSegments() {
+
+        for (GlyphSegment segment : segments) {
+
+            ByteBuffer source = segment.getVertices();
+            int start = 0;
+
+            for (int run = 0; run < segment.getRunCount(); run++) {
+
+                int end = segment.getRunEnd(run);
+
+                while (start < end) {
+
+                    if (size >= capacity) {
+
+                        flush(FlushReason.FULL);
+                    }
+                    int slot = bindSlot(segment.getRunFont(run), segment.getRunPage(run));                              // Bound after any flush, since flushing frees every slot.
+
+                    if (vertices == null) {
+
+                        vertices = stream.begin();
+                    }
+                    int count = Math.min(end - start, capacity - size);
+                    vertices.put(size * glyphBytes, source, start * glyphBytes, count * glyphBytes);
+
+                    if ((vertexFormat == VertexFormat.MULTI_FONT) && (slot != 0)) {
+
+                        for (int i = size; i < size + count; i++) {
+
+                            PackedVertexBuilder.putSlot(vertices, i, slot);
+                        }
+                    }
+                    size += count;
+                    start += count;
+                }
+            }
+            stats.recordCulled(segment.getCulled());
+            segment.clear();
+        }
+    }
+
+
+    /**
+     * Finds the texture slot that a font texture page is bound to in this batch, binding it to a free slot if it is
+     * not bound yet.
+     * The batch is flushed first if every slot is already taken by another texture.
+     *
+     * @param font target font
+     * @param page target page of font texture
+     * @return texture slot
+     * @throws IllegalArgumentException if this batch uses the MULTI_FONT vertex format and the font is an MSDF font,
+     *                                  which the MULTI_FONT shader cannot decode
+     */
+    private int bindSlot(CFont font, int page) {
+
+        int textureId = font.getTextureId(page);
+
+        for (int slot = 0; slot < slotCount; slot++) {
+
+            if (slotTextures[slot] == textureId) {
+
+                return slot;
+            }
+        }
+
+        if ((vertexFormat == VertexFormat.MULTI_FONT) && (font.getMode() == AtlasMode.MSDF)) {
+
+            throw new IllegalArgumentException("MSDF fonts cannot be drawn with a " + vertexFormat + " shader");
+        }
+
+        if (slotCount == slotTextures.length) {
+
+            flush(FlushReason.TEXTURE_CHANGE);                                                                          // Characters on too many textures for one draw call.
+        }
+        slotTextures[slotCount] = textureId;
+        slotFonts[slotCount] = font;
+        slotSdf[slotCount] = (font.getMode() == AtlasMode.SDF) ? 1 : 0;
+        return slotCount++;
+    }
+
+
+    /**
+     * Drops every character in this batch without drawing it.
+     */
+    void discard() {
+
+        size = 0;
+        releaseSlots();
+    }
+
+
+    /**
+     * Frees every texture slot, telling the glyph cache of each font bound to one that this batch no longer holds any
+     * of its characters.
+     */
+    private void releaseSlots() {
+
+        for (int slot = 0; slot < slotCount; slot++) {
+
+            GlyphCache glyphCache = slotFonts[slot].getGlyphCache();
+
+            if (glyphCache != null) {
+
+                glyphCache.markFlushed();
+            }
+            slotFonts[slot] = null;                                                                                     // Don't keep fonts alive until the slot is reused.
+        }
+        slotCount = 0;
+    }
+
+
+    /**
+     * Flushes this batch, first merging in the characters of every segment created by createSegment.
      * This must be called to actually render text to the screen.
      */
     public void flush() {
 
-        // Clear buffer on GPU.
-        glBindBuffer(GL_ARRAY_BUFFER, vboId);
-        glBufferData(GL_ARRAY_BUFFER, vertexSize * batchSize * Float.BYTES, GL_DYNAMIC_DRAW);                           // Allocate memory on GPU.
+        mergeSegments();
+        flush(FlushReason.EXPLICIT);
+    }
+
+
+    /**
+     * Makes the characters in this batch available to the GPU and records the flush, without drawing them.
+     * This is the part of a flush that needs no OpenGL context beyond that of the stream, so byte accounting can be
+     * checked against a RecordingVertexStream.
+     *
+     * @param reason why this batch is being flushed
+     * @return offset (in bytes) of the committed characters within the vertex buffer object
+     */
+    int commit(FlushReason reason) {
+
+        int byteCount = size * glyphBytes;                                                                              // Only vertices actually in use.
+        int offset = stream.commit(byteCount);
+        vertices = null;
+        stats.recordFlush(reason, size, byteCount);
+        return offset;
+    }
+
+
+    /**
+     * Flushes this batch, issuing a single draw call for every character in it.
+     * Nothing is drawn if this batch is empty.
+     *
+     * @param reason why this batch is being flushed
+     */
+    private void flush(FlushReason reason) {
+
+        if (size == 0) {
 
-        // Upload CPU contents (vertex data).
-        glBufferSubData(GL_ARRAY_BUFFER, 0, vertices);
+            return;
+        }
+        int offset = commit(reason);
 
         // Draw buffer that was just uploaded.
         shader.use();
-        glActiveTexture(GL_TEXTURE0);
-        glBindTexture(GL_TEXTURE_2D, font.getTextureId());
+
+        for (int slot = 0; slot < slotCount; slot++) {
+
+            GlState.bindTexture(slot, slotTextures[slot]);
+        }
+
+        if (vertexFormat == VertexFormat.MULTI_FONT) {
+
+            shader.uploadIntArray("uFontTextures", slotUnits);
+            shader.uploadIntArray("uSdf", slotSdf);
+        } else {
+
+            shader.uploadTexture("uFontTexture", 0);
+            shader.uploadInt("uSdf", slotSdf[0]);
+        }
+        shader.uploadMat4f("uProjection", projection);                                                                  // Skipped by shader unless changed.
+        GlState.bindVertexArray(vaoId);
+
+        if (vertexFormat == VertexFormat.INSTANCED) {
+
+            int stride = GlyphInstanceBuilder.glyphBytes;
+            glBindBuffer(GL_ARRAY_BUFFER, stream.getBufferId());
+            glVertexAttribPointer(1, 4, GL_FLOAT, false, stride, offset);                                               // Position and size.
+            glVertexAttribPointer(2, 4, GL_UNSIGNED_SHORT, true, stride, offset + GlyphInstanceBuilder.texCoordsOffset);
+            glVertexAttribPointer(3, 4, GL_UNSIGNED_BYTE, true, stride, offset + GlyphInstanceBuilder.colorOffset);
+            glDrawArraysInstanced(GL_TRIANGLE_STRIP, 0, 4, size);                                                       // Four corners per character.
+        } else {
+
+            glDrawElementsBaseVertex(GL_TRIANGLES, (size * 6), GL_UNSIGNED_INT, 0,
+                    offset / (glyphBytes / 4));                                                                         // Six indices per character.
+        }
+        stream.end();
+
+        // Reset batch for use on next call (state is left bound, so the next flush only binds what differs).
+        size = 0;
+        releaseSlots();
+    }
+
+
+    /**
+     * Draws a retained text mesh, first uploading whatever has changed in it.
+     * Characters already added to this batch are drawn first so that draw order is preserved.
+     * The mesh is drawn with this batch's shader and projection, so the shader must take per-vertex quads (i.e., this
+     * batch cannot use the INSTANCED or MULTI_FONT vertex formats).
+     *
+     * @param mesh target text mesh
+     */
+    public void draw(TextMesh mesh) {
+
+        if ((vertexFormat == VertexFormat.INSTANCED) || (vertexFormat == VertexFormat.MULTI_FONT)) {
+
+            throw new IllegalStateException("Text meshes cannot be drawn with a " + vertexFormat + " shader");
+        }
+        flush(FlushReason.MESH_DRAW);
+        int byteCount = mesh.update();
+
+        if (mesh.getSize() == 0) {
+
+            return;
+        }
+        CFont meshFont = mesh.getFont();
+        GlyphMetrics metrics = meshFont.getMetrics();
+        shader.use();
         shader.uploadTexture("uFontTexture", 0);
+        shader.uploadInt("uSdf", (meshFont.getMode() == AtlasMode.SDF) ? 1 : 0);
         shader.uploadMat4f("uProjection", projection);
-        glBindVertexArray(vaoId);
-        glDrawElements(GL_TRIANGLES, (size * 6), GL_UNSIGNED_INT, 0);
+        GlState.bindVertexArray(mesh.getVaoId());
 
-        // Reset batch for use on next call.
-        size = 0;
+        for (int start = 0, end; start < mesh.getSize(); start = end) {                                                 // One draw call per run of characters on the same page.
+
+            int runPage = metrics.getPage(mesh.getGlyph(start));
+
+            for (end = start + 1; (end < mesh.getSize()) && (metrics.getPage(mesh.getGlyph(end)) == runPage); end++);
+            GlState.bindTexture(0, meshFont.getTextureId(runPage));
+            glDrawElementsBaseVertex(GL_TRIANGLES, ((end - start) * 6), GL_UNSIGNED_INT,
+                    (long)start * 6 * Integer.BYTES, 0);                                                                // Six indices per character.
+            stats.recordDraw(end - start, byteCount);
+            byteCount = 0;                                                                                              // Only count upload once.
+        }
+    }
+
+
+    /**
+     * Combines a color and an opacity into a single color with alpha.
+     *
+     * @param rgb color in hexadecimal format
+     * @param alpha opacity from zero (transparent) to one (opaque)
+     * @return color (with alpha) in hexadecimal format
+     */
+    static int toArgb(int rgb, float alpha) {
+
+        return (Math.round(Math.max(0f, Math.min(1f, alpha)) * 255f) << 24) | (rgb & 0xFFFFFF);
+    }
+
+
+    // GETTERS
+    public int getCapacity() {
+        return capacity;
+    }
 
-        // Unbind after drawing.
-        glBindVertexArray(0);
-        shader.detach();
-        glBindTexture(GL_TEXTURE_2D, 0);
+    public VertexFormat getVertexFormat() {
+        return vertexFormat;
+    }
+
+    public LayoutCache getLayoutCache() {
+        return layoutCache;
+    }
+
+    public BatchStats getStats() {
+        return stats;
     }
 
 
@@ -268,4 +1021,8 @@ public class FontBatch {
     public void setFont(CFont font) {
         this.font = font;
     }
+
+    public void setLayoutCache(LayoutCache layoutCache) {
+        this.layoutCache = layoutCache;
+    }
 }
@@ -0,0 +1,48 @@
+package rendering;
+
+/**
+ * This interface represents the OpenGL calls that GlState makes when tracked state actually changes.
+ * Swapping in a recording backend lets state tracking (and anything that sorts draws to reduce state changes) run
+ * without a GPU.
+ */
+public interface GlBackend {
+
+    /**
+     * Binds a program (glUseProgram).
+     *
+     * @param id program ID (0 binds nothing)
+     */
+    void useProgram(int id);
+
+
+    /**
+     * Binds a vertex array object (glBindVertexArray).
+     *
+     * @param id vertex array object ID (0 binds nothing)
+     */
+    void bindVertexArray(int id);
+
+
+    /**
+     * Selects the active texture unit (glActiveTexture).
+     *
+     * @param unit texture unit (zero-based)
+     */
+    void activeTexture(int unit);
+
+
+    /**
+     * Binds a 2D texture to the active texture unit (glBindTexture).
+     *
+     * @param id texture ID (0 binds nothing)
+     */
+    void bindTexture(int id);
+
+
+    /**
+     * Sets how fragments are blended into the framebuffer (glEnable/glDisable of GL_BLEND, then glBlendFunc).
+     *
+     * @param mode target blend mode
+     */
+    void blendMode(BlendMode mode);
+}
@@ -0,0 +1,245 @@
+package rendering;
+
+import java.util.Arrays;
+
+/**
+ * This class tracks which program, vertex array object, 2D textures, and blend mode are set, so that setting something
+ * that is already set makes no OpenGL call.
+ * Calls that do change state go through a backend, which makes real OpenGL calls unless replaced (e.g., by a
+ * RecordingGlBackend to check state tracking without a GPU).
+ * Batches leave their state bound after drawing, so back-to-back batches sharing a shader or font texture only bind
+ * what actually differs.
+ * Tracking is only correct if these bindings are changed through this class; call invalidate after changing any of
+ * them directly.
+ * Note that the tracked state belongs to whichever OpenGL context is current.
+ */
+public final class GlState {
+
+    // FIELDS
+    /**
+     * Number of texture units tracked.
+     * Sixteen is the minimum number of fragment shader texture units every OpenGL 3.3 implementation must offer.
+     */
+    private static final int textureUnits = 16;
+
+    /**
+     * Value of tracked state that is not known (i.e., anything may be bound).
+     */
+    private static final int unknown = -1;
+
+    /**
+     * Bound program ID.
+     */
+    private static int program = unknown;
+
+    /**
+     * Bound vertex array object ID.
+     */
+    private static int vertexArray = unknown;
+
+    /**
+     * Active texture unit (zero-based).
+     */
+    private static int activeUnit = unknown;
+
+    /**
+     * Bound 2D texture ID of each texture unit, indexed by unit.
+     */
+    private static final int[] textures = new int[textureUnits];
+
+    /**
+     * Blend mode, or null if not known.
+     */
+    private static BlendMode blendMode = null;
+
+    /**
+     * Backend that state changes are made through.
+     */
+    private static GlBackend backend = new OpenGlBackend();
+
+    /**
+     * Number of state changes made and skipped since the last reset.
+     */
+    private static long stateChanges, stateChangesSkipped;
+
+    static {
+        Arrays.fill(textures, unknown);
+    }
+
+
+    // CONSTRUCTOR
+    /**
+     * Prevents instantiation.
+     */
+    private GlState() {}
+
+
+    // METHODS
+    /**
+     * Binds a program if it is not bound already.
+     *
+     * @param id program ID (0 binds nothing)
+     */
+    public static void useProgram(int id) {
+
+        if (program == id) {
+
+            stateChangesSkipped++;
+            return;
+        }
+        backend.useProgram(id);
+        program = id;
+        stateChanges++;
+    }
+
+
+    /**
+     * Binds a vertex array object if it is not bound already.
+     *
+     * @param id vertex array object ID (0 binds nothing)
+     */
+    public static void bindVertexArray(int id) {
+
+        if (vertexArray == id) {
+
+            stateChangesSkipped++;
+            return;
+        }
+        backend.bindVertexArray(id);
+        vertexArray = id;
+        stateChanges++;
+    }
+
+
+    /**
+     * Binds a 2D texture to a texture unit if it is not bound there already.
+     * The target texture unit is left active.
+     *
+     * @param unit texture unit (zero-based)
+     * @param id texture ID (0 binds nothing)
+     */
+    public static void bindTexture(int unit, int id) {
+
+        if (textures[unit] == id) {
+
+            stateChangesSkipped++;
+            return;
+        }
+
+        if (activeUnit != unit) {
+
+            backend.activeTexture(unit);
+            activeUnit = unit;
+        }
+        backend.bindTexture(id);
+        textures[unit] = id;
+        stateChanges++;
+    }
+
+
+    /**
+     * Sets the blend mode if it is not set already.
+     *
+     * @param mode target blend mode
+     */
+    public static void setBlendMode(BlendMode mode) {
+
+        if (blendMode == mode) {
+
+            stateChangesSkipped++;
+            return;
+        }
+        backend.blendMode(mode);
+        blendMode = mode;
+        stateChanges++;
+    }
+
+
+    /**
+     * Forgets a vertex array object that is about to be deleted, since OpenGL unbinds deleted objects and may reuse
+     * their IDs.
+     *
+     * @param id vertex array object ID
+     */
+    public static void vertexArrayDeleted(int id) {
+
+        if (vertexArray == id) {
+
+            vertexArray = 0;
+        }
+    }
+
+
+    /**
+     * Forgets all tracked state, so that the next bind of each kind is always made.
+     * This must be called after changing program, vertex array object, active texture unit, 2D texture bindings, or
+     * blending without going through this class.
+     */
+    public static void invalidate() {
+
+        program = unknown;
+        vertexArray = unknown;
+        activeUnit = unknown;
+        Arrays.fill(textures, unknown);
+        blendMode = null;
+    }
+
+
+    /**
+     * Sets the state change counters back to zero.
+     */
+    public static void resetCounters() {
+
+        stateChanges = 0;
+        stateChangesSkipped = 0;
+    }
+
+
+    // GETTERS
+    public static long getStateChanges() {
+        return stateChanges;
+    }
+
+    public static long getStateChangesSkipped() {
+        return stateChangesSkipped;
+    }
+
+    public static BlendMode getBlendMode() {
+        return blendMode;
+    }
+
+    /**
+     * Retrieves the texture unit that was last made active through this class.
+     *
+     * @return texture unit (zero-based), or 0 if none is known to be active
+     */
+    public static int getActiveTextureUnit() {
+        return (activeUnit == unknown) ? 0 : activeUnit;
+    }
+
+    /**
+     * Retrieves the 2D texture bound to a texture unit.
+     *
+     * @param unit texture unit (zero-based)
+     * @return texture ID, or -1 if the binding is not known
+     */
+    public static int getBoundTexture(int unit) {
+        return textures[unit];
+    }
+
+    public static GlBackend getBackend() {
+        return backend;
+    }
+
+
+    // SETTERS
+    /**
+     * Sets the backend that state changes are made through, forgetting all tracked state.
+     *
+     * @param backend target backend
+     */
+    public static void setBackend(GlBackend backend) {
+        GlState.backend = backend;
+        invalidate();
+    }
+}
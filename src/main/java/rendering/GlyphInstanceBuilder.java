@@ -0,0 +1,85 @@
+package rendering;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class encodes characters as one instance record each for instanced drawing of a shared unit quad.
+ * Each record holds (in order) position of top-left corner and size (four floats), texture coordinates of top-left
+ * and bottom-right corners (four normalized unsigned shorts), and color (four normalized unsigned bytes, RGBA).
+ * At 28 bytes, a record is a quarter the size of the four vertices the same character takes when drawn as a quad.
+ * No OpenGL calls are made, so encoding can be checked and measured without a GPU.
+ */
+public final class GlyphInstanceBuilder {
+
+    // FIELDS
+    /**
+     * Number of bytes per character (one record).
+     */
+    public static final int glyphBytes = 4 * Float.BYTES + 4 * Short.BYTES + 4;
+
+    /**
+     * Byte offset of texture coordinates within a record.
+     */
+    public static final int texCoordsOffset = 4 * Float.BYTES;
+
+    /**
+     * Byte offset of color within a record.
+     */
+    public static final int colorOffset = texCoordsOffset + 4 * Short.BYTES;
+
+
+    // CONSTRUCTOR
+    /**
+     * Prevents instantiation.
+     */
+    private GlyphInstanceBuilder() {}
+
+
+    // METHODS
+    /**
+     * Writes the instance record of a character.
+     * Positive Y is down, so (x0, y0) is the top-left corner and (u0, v0) is its texture coordinate.
+     *
+     * @param buffer target buffer (native byte order)
+     * @param glyphIndex position of character within buffer (i.e., number of characters before it)
+     * @param x0 left edge on screen
+     * @param y0 top edge on screen
+     * @param x1 right edge on screen
+     * @param y1 bottom edge on screen
+     * @param u0 left edge on font texture
+     * @param v0 top edge on font texture
+     * @param u1 right edge on font texture
+     * @param v1 bottom edge on font texture
+     * @param argb color (with alpha) in hexadecimal format
+     */
+    public static void put(ByteBuffer buffer, int glyphIndex, float x0, float y0, float x1, float y1,
+                           float u0, float v0, float u1, float v1, int argb) {
+
+        int index = glyphIndex * glyphBytes;
+        buffer.putFloat(index, x0);
+        buffer.putFloat(index + 4, y0);
+        buffer.putFloat(index + 8, x1 - x0);
+        buffer.putFloat(index + 12, y1 - y0);
+        buffer.putShort(index + texCoordsOffset, toUnsignedShort(u0));
+        buffer.putShort(index + texCoordsOffset + 2, toUnsignedShort(v0));
+        buffer.putShort(index + texCoordsOffset + 4, toUnsignedShort(u1));
+        buffer.putShort(index + texCoordsOffset + 6, toUnsignedShort(v1));
+        buffer.put(index + colorOffset, (byte)(argb >> 16));                                                            // Red.
+        buffer.put(index + colorOffset + 1, (byte)(argb >> 8));                                                         // Green.
+        buffer.put(index + colorOffset + 2, (byte)argb);                                                                // Blue.
+        buffer.put(index + colorOffset + 3, (byte)(argb >>> 24));                                                       // Alpha.
+    }
+
+
+    /**
+     * Converts a value from zero to one into a normalized unsigned short.
+     * Values outside that range are clamped to it rather than wrapping around.
+     *
+     * @param value value from zero to one
+     * @return normalized unsigned short (stored in a signed short)
+     */
+    static short toUnsignedShort(float value) {
+
+        return (short)Math.round(Math.max(0f, Math.min(1f, value)) * 65535f);
+    }
+}
@@ -0,0 +1,216 @@
+package rendering;
+
+import fonts.AtlasMode;
+import fonts.CFont;
+import fonts.GlyphMetrics;
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This class holds characters laid out by a single producer thread for a FontBatch, so that text (e.g., UI panels,
+ * nameplates, or log views) can be built on several threads at once.
+ * Vertices are written here in the batch's vertex format without any lock or OpenGL call, then merged into the batch
+ * on the thread that owns the OpenGL context when the batch is flushed (see FontBatch.createSegment).
+ * A segment must only be written to by one thread at a time, and must not be written to while its batch is flushed;
+ * handing it between threads through anything that establishes happens-before (e.g., joining a future) is enough.
+ * Characters are only culled against the screen, since clip rectangles belong to the batch.
+ * Fonts that rasterize characters on demand cannot be used, since rasterizing uploads to the GPU.
+ */
+public class GlyphSegment {
+
+    // FIELDS
+    /**
+     * Layout of character data in the staging buffer.
+     */
+    private final VertexFormat vertexFormat;
+
+    /**
+     * Number of bytes each character takes up in the staging buffer.
+     */
+    private final int glyphBytes;
+
+    /**
+     * Staging buffer of every character added since the last merge.
+     */
+    private ByteBuffer vertices;
+
+    /**
+     * Number of characters in the staging buffer.
+     */
+    private int size = 0;
+
+    /**
+     * Font texture of each run of consecutive characters sharing one (font and page), plus the number of characters
+     * up to and including each run.
+     */
+    private CFont[] runFonts = new CFont[16];
+    private int[] runPages = new int[16];
+    private int[] runEnds = new int[16];
+
+    /**
+     * Number of runs.
+     */
+    private int runCount = 0;
+
+    /**
+     * Number of characters culled since the last merge.
+     */
+    private int culled = 0;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a GlyphSegment instance.
+     *
+     * @param vertexFormat layout of character data in the staging buffer
+     * @param capacity number of characters the staging buffer initially has room for
+     */
+    GlyphSegment(VertexFormat vertexFormat, int capacity) {
+        this.vertexFormat = vertexFormat;
+        this.glyphBytes = vertexFormat.getGlyphBytes();
+        this.vertices = BufferUtils.createByteBuffer(Math.max(1, capacity) * glyphBytes);
+    }
+
+
+    // METHODS
+    /**
+     * Adds a string of characters in a specific font to this segment with a given opacity.
+     *
+     * @param font font to render text in
+     * @param text text to render
+     * @param x screen coordinate (leftmost x)
+     * @param y screen coordinate (topmost y)
+     * @param scale scale factor compared to native font size
+     * @param rgb color in hexadecimal format
+     * @param alpha opacity from zero (transparent) to one (opaque)
+     */
+    public void addString(CFont font, CharSequence text, float x, float y, float scale, int rgb, float alpha) {
+
+        if (font.getGlyphCache() != null) {
+
+            throw new IllegalArgumentException("Fonts that rasterize characters on demand cannot be used off the "
+                    + "OpenGL thread");
+        }
+
+        if ((vertexFormat == VertexFormat.MULTI_FONT) && (font.getMode() == AtlasMode.MSDF)) {
+
+            throw new IllegalArgumentException("MSDF fonts cannot be drawn with a " + vertexFormat + " shader");
+        }
+        int argb = FontBatch.toArgb(rgb, alpha);
+        GlyphMetrics metrics = font.getMetrics();
+        float baseline = y + (scale * metrics.getHeight());
+
+        for (int index = 0; index < text.length(); ) {
+
+            int codepoint = Character.codePointAt(text, index);
+            index += Character.charCount(codepoint);
+            int glyph = font.getGlyph(codepoint);
+            float x0 = x + (scale * metrics.getBoundsX(glyph));                                                         // Top-left corner (remember that positive Y is down).
+            float y0 = baseline + (scale * metrics.getBoundsY(glyph));
+            float x1 = x0 + (scale * metrics.getBoundsWidth(glyph));                                                    // Bottom-right corner (remember that positive Y is down).
+            float y1 = y0 + (scale * metrics.getBoundsHeight(glyph));
+            x += metrics.getAdvance(glyph) * scale;                                                                     // Prepare for next character in string.
+
+            if ((x1 <= 0) || (x0 >= FontBatch.screenWidth) || (y1 <= 0) || (y0 >= FontBatch.screenHeight)
+                    || (x0 >= x1) || (y0 >= y1)) {
+
+                culled++;                                                                                               // Off screen, or draws nothing (e.g., a space).
+                continue;
+            }
+            addQuad(font, metrics.getPage(glyph), x0, y0, x1, y1, metrics.getU0(glyph), metrics.getV0(glyph),
+                    metrics.getU1(glyph), metrics.getV1(glyph), argb);
+        }
+    }
+
+
+    /**
+     * Adds the quad of a single character to this segment, growing the staging buffer if needed.
+     *
+     * @param font font of character
+     * @param page page of font texture that character is on
+     * @param x0 left edge on screen
+     * @param y0 top edge on screen
+     * @param x1 right edge on screen
+     * @param y1 bottom edge on screen
+     * @param u0 left edge on font texture
+     * @param v0 top edge on font texture
+     * @param u1 right edge on font texture
+     * @param v1 bottom edge on font texture
+     * @param argb color (with alpha) in hexadecimal format
+     */
+    private void addQuad(CFont font, int page, float x0, float y0, float x1, float y1,
+                         float u0, float v0, float u1, float v1, int argb) {
+
+        if ((size + 1) * glyphBytes > vertices.capacity()) {
+
+            ByteBuffer grown = BufferUtils.createByteBuffer(vertices.capacity() * 2);
+            grown.put(0, vertices, 0, size * glyphBytes);
+            vertices = grown;
+        }
+
+        if ((runCount == 0) || (runFonts[runCount - 1] != font) || (runPages[runCount - 1] != page)) {
+
+            if (runCount == runEnds.length) {
+
+                runFonts = Arrays.copyOf(runFonts, runCount * 2);
+                runPages = Arrays.copyOf(runPages, runCount * 2);
+                runEnds = Arrays.copyOf(runEnds, runCount * 2);
+            }
+            runFonts[runCount] = font;
+            runPages[runCount] = page;
+            runCount++;
+        }
+        vertexFormat.put(vertices, size, x0, y0, x1, y1, u0, v0, u1, v1, argb, 0);                                      // Real slot is only known once merged.
+        size++;
+        runEnds[runCount - 1] = size;
+    }
+
+
+    /**
+     * Drops every character in this segment.
+     * This is called by the batch once this segment has been merged.
+     */
+    public void clear() {
+
+        Arrays.fill(runFonts, 0, runCount, null);                                                                       // Don't keep fonts alive until the run is reused.
+        size = 0;
+        runCount = 0;
+        culled = 0;
+    }
+
+
+    // GETTERS
+    public VertexFormat getVertexFormat() {
+        return vertexFormat;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCulled() {
+        return culled;
+    }
+
+    ByteBuffer getVertices() {
+        return vertices;
+    }
+
+    int getRunCount() {
+        return runCount;
+    }
+
+    CFont getRunFont(int run) {
+        return runFonts[run];
+    }
+
+    int getRunPage(int run) {
+        return runPages[run];
+    }
+
+    int getRunEnd(int run) {
+        return runEnds[run];
+    }
+}
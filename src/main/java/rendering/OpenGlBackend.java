@@ -0,0 +1,64 @@
+package rendering;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static org.lwjgl.opengl.GL20.glUseProgram;
+import static org.lwjgl.opengl.GL30.glBindVertexArray;
+
+/**
+ * This class makes real OpenGL calls for GlState.
+ * An OpenGL context must be current.
+ */
+public class OpenGlBackend implements GlBackend {
+
+    // METHODS
+    @Override
+    public void useProgram(int id) {
+
+        glUseProgram(id);
+    }
+
+
+    @Override
+    public void bindVertexArray(int id) {
+
+        glBindVertexArray(id);
+    }
+
+
+    @Override
+    public void activeTexture(int unit) {
+
+        glActiveTexture(GL_TEXTURE0 + unit);
+    }
+
+
+    @Override
+    public void bindTexture(int id) {
+
+        glBindTexture(GL_TEXTURE_2D, id);
+    }
+
+
+    @Override
+    public void blendMode(BlendMode mode) {
+
+        switch (mode) {
+            case NONE:
+                glDisable(GL_BLEND);
+                return;
+            case PREMULTIPLIED:
+                glEnable(GL_BLEND);
+                glBlendFunc(GL_ONE, GL_ONE_MINUS_SRC_ALPHA);
+                return;
+            case ADDITIVE:
+                glEnable(GL_BLEND);
+                glBlendFunc(GL_SRC_ALPHA, GL_ONE);
+                return;
+            default:
+                glEnable(GL_BLEND);
+                glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        }
+    }
+}
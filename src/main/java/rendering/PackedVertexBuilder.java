@@ -0,0 +1,195 @@
+package rendering;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.lwjgl.system.MemoryUtil.memAddress0;
+import static org.lwjgl.system.MemoryUtil.memPutFloat;
+import static org.lwjgl.system.MemoryUtil.memPutInt;
+
+/**
+ * This class encodes characters as four compact vertices each (one per quad corner) for indexed drawing.
+ * Each vertex holds (in order) position (two floats), texture coordinates (two normalized unsigned shorts), and color
+ * (four normalized unsigned bytes, RGBA), so a vertex is 16 bytes instead of the 28 written by QuadVertexBuilder.
+ * Positions stay as floats since half floats cannot address single pixels past 2048.
+ * Vertices of multi-font batches additionally hold the texture slot of each character (one unsigned byte, padded to
+ * four), making them 20 bytes.
+ * Vertices are written straight to memory through MemoryUtil, so the target buffer must be direct and no bounds
+ * checks are made; keeping writes within the buffer is up to the caller.
+ * No OpenGL calls are made, so encoding can be checked and measured without a GPU.
+ */
+public final class PackedVertexBuilder {
+
+    // FIELDS
+    /**
+     * Number of bytes per vertex.
+     */
+    public static final int vertexBytes = 2 * Float.BYTES + 2 * Short.BYTES + 4;
+
+    /**
+     * Byte offset of texture coordinates within a vertex.
+     */
+    public static final int texCoordsOffset = 2 * Float.BYTES;
+
+    /**
+     * Byte offset of color within a vertex.
+     */
+    public static final int colorOffset = texCoordsOffset + 2 * Short.BYTES;
+
+    /**
+     * Number of bytes per character (four vertices).
+     */
+    public static final int glyphBytes = vertexBytes * 4;
+
+    /**
+     * Number of bytes per vertex with a texture slot.
+     */
+    public static final int slotVertexBytes = vertexBytes + 4;
+
+    /**
+     * Byte offset of texture slot within a vertex with a texture slot.
+     */
+    public static final int slotOffset = vertexBytes;
+
+    /**
+     * Number of bytes per character (four vertices) with a texture slot.
+     */
+    public static final int slotGlyphBytes = slotVertexBytes * 4;
+
+    /**
+     * Whether multi-byte values are stored least significant byte first on this platform.
+     */
+    private static final boolean littleEndian = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+
+    // CONSTRUCTOR
+    /**
+     * Prevents instantiation.
+     */
+    private PackedVertexBuilder() {}
+
+
+    // METHODS
+    /**
+     * Writes the four vertices of a character.
+     * Positive Y is down, so (x0, y0) is the top-left corner and (u0, v0) is its texture coordinate.
+     *
+     * @param buffer target buffer (direct, native byte order)
+     * @param glyphIndex position of character within buffer (i.e., number of characters before it)
+     * @param x0 left edge on screen
+     * @param y0 top edge on screen
+     * @param x1 right edge on screen
+     * @param y1 bottom edge on screen
+     * @param u0 left edge on font texture
+     * @param v0 top edge on font texture
+     * @param u1 right edge on font texture
+     * @param v1 bottom edge on font texture
+     * @param argb color (with alpha) in hexadecimal format
+     */
+    public static void put(ByteBuffer buffer, int glyphIndex, float x0, float y0, float x1, float y1,
+                           float u0, float v0, float u1, float v1, int argb) {
+
+        long address = memAddress0(buffer) + (long)glyphIndex * glyphBytes;
+        int color = toRgba(argb);
+        int s0 = GlyphInstanceBuilder.toUnsignedShort(u0) & 0xFFFF;
+        int t0 = GlyphInstanceBuilder.toUnsignedShort(v0) & 0xFFFF;
+        int s1 = GlyphInstanceBuilder.toUnsignedShort(u1) & 0xFFFF;
+        int t1 = GlyphInstanceBuilder.toUnsignedShort(v1) & 0xFFFF;
+
+        putVertex(address, x1, y0, s1, t0, color);                                                                      // Top-right corner.
+        putVertex(address + vertexBytes, x1, y1, s1, t1, color);                                                        // Bottom-right corner.
+        putVertex(address + vertexBytes * 2, x0, y1, s0, t1, color);                                                    // Bottom-left corner.
+        putVertex(address + vertexBytes * 3, x0, y0, s0, t0, color);                                                    // Top-left corner.
+    }
+
+
+    /**
+     * Writes the four vertices of a character, each with the texture slot that the character is sampled from.
+     * Positive Y is down, so (x0, y0) is the top-left corner and (u0, v0) is its texture coordinate.
+     *
+     * @param buffer target buffer (direct, native byte order)
+     * @param glyphIndex position of character within buffer (i.e., number of characters before it)
+     * @param x0 left edge on screen
+     * @param y0 top edge on screen
+     * @param x1 right edge on screen
+     * @param y1 bottom edge on screen
+     * @param u0 left edge on font texture
+     * @param v0 top edge on font texture
+     * @param u1 right edge on font texture
+     * @param v1 bottom edge on font texture
+     * @param argb color (with alpha) in hexadecimal format
+     * @param slot texture slot of font texture (0 to 255)
+     */
+    public static void put(ByteBuffer buffer, int glyphIndex, float x0, float y0, float x1, float y1,
+                           float u0, float v0, float u1, float v1, int argb, int slot) {
+
+        long address = memAddress0(buffer) + (long)glyphIndex * slotGlyphBytes;
+        int color = toRgba(argb);
+        int s0 = GlyphInstanceBuilder.toUnsignedShort(u0) & 0xFFFF;
+        int t0 = GlyphInstanceBuilder.toUnsignedShort(v0) & 0xFFFF;
+        int s1 = GlyphInstanceBuilder.toUnsignedShort(u1) & 0xFFFF;
+        int t1 = GlyphInstanceBuilder.toUnsignedShort(v1) & 0xFFFF;
+        int slotBytes = littleEndian ? slot : (slot << 24);                                                             // Slot must be the first byte in memory.
+
+        putVertex(address, x1, y0, s1, t0, color);                                                                      // Top-right corner.
+        memPutInt(address + slotOffset, slotBytes);
+        putVertex(address + slotVertexBytes, x1, y1, s1, t1, color);                                                    // Bottom-right corner.
+        memPutInt(address + slotVertexBytes + slotOffset, slotBytes);
+        putVertex(address + slotVertexBytes * 2, x0, y1, s0, t1, color);                                                // Bottom-left corner.
+        memPutInt(address + slotVertexBytes * 2 + slotOffset, slotBytes);
+        putVertex(address + slotVertexBytes * 3, x0, y0, s0, t0, color);                                                // Top-left corner.
+        memPutInt(address + slotVertexBytes * 3 + slotOffset, slotBytes);
+    }
+
+
+    /**
+     * Rewrites the texture slot of a character written by the slot variant of put, leaving everything else as is.
+     *
+     * @param buffer target buffer (direct, native byte order)
+     * @param glyphIndex position of character within buffer (i.e., number of characters before it)
+     * @param slot texture slot of font texture (0 to 255)
+     */
+    public static void putSlot(ByteBuffer buffer, int glyphIndex, int slot) {
+
+        long address = memAddress0(buffer) + (long)glyphIndex * slotGlyphBytes + slotOffset;
+        int slotBytes = littleEndian ? slot : (slot << 24);                                                             // Slot must be the first byte in memory.
+
+        for (int vertex = 0; vertex < 4; vertex++) {
+
+            memPutInt(address + (long)vertex * slotVertexBytes, slotBytes);
+        }
+    }
+
+
+    /**
+     * Writes a single vertex.
+     *
+     * @param address memory address of vertex
+     * @param x position (X)
+     * @param y position (Y)
+     * @param s texture coordinate (X) as a normalized unsigned short
+     * @param t texture coordinate (Y) as a normalized unsigned short
+     * @param rgba color as four bytes in memory order (see toRgba)
+     */
+    private static void putVertex(long address, float x, float y, int s, int t, int rgba) {
+
+        memPutFloat(address, x);
+        memPutFloat(address + 4, y);
+        memPutInt(address + texCoordsOffset, littleEndian ? (s | (t << 16)) : ((s << 16) | t));
+        memPutInt(address + colorOffset, rgba);
+    }
+
+
+    /**
+     * Rearranges a color so that, once stored as an int in native byte order, its bytes are red, green, blue, then
+     * alpha in memory.
+     *
+     * @param argb color (with alpha) in hexadecimal format
+     * @return rearranged color
+     */
+    static int toRgba(int argb) {
+
+        int rgba = (argb << 8) | (argb >>> 24);                                                                         // Move alpha from the top byte to the bottom byte.
+        return littleEndian ? Integer.reverseBytes(rgba) : rgba;
+    }
+}
@@ -0,0 +1,136 @@
+package rendering;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL32.*;
+import static org.lwjgl.opengl.GL44.*;
+
+/**
+ * This class streams vertices through several equally sized regions of one vertex buffer object that stays mapped
+ * for its whole lifetime.
+ * The mapping is coherent, so vertices written into a region are visible to the GPU without any further calls.
+ * A fence placed after each draw keeps a region from being written again until the GPU has finished drawing from it.
+ * Requires OpenGL 4.4 or ARB_buffer_storage.
+ */
+public class PersistentMappedStream implements VertexStream {
+
+    // FIELDS
+    /**
+     * Number of regions.
+     */
+    private final int regionCount;
+
+    /**
+     * Vertex buffer object ID.
+     */
+    private int vboId;
+
+    /**
+     * Size of each region in bytes.
+     */
+    private int regionCapacity;
+
+    /**
+     * Mapped memory of each region.
+     */
+    private ByteBuffer[] regions;
+
+    /**
+     * Fence placed after the last draw from each region, or 0 if the region is not in use by the GPU.
+     */
+    private final long[] fences;
+
+    /**
+     * Region currently being written into.
+     */
+    private int region = 0;
+
+    /**
+     * Whether current region has been waited on since it was last used.
+     */
+    private boolean regionReady = false;
+
+    /**
+     * Total number of vertex bytes uploaded.
+     */
+    private long bytesUploaded;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a PersistentMappedStream instance.
+     *
+     * @param regionCount number of regions
+     */
+    public PersistentMappedStream(int regionCount) {
+        this.regionCount = regionCount;
+        this.fences = new long[regionCount];
+    }
+
+
+    // METHODS
+    @Override
+    public void init(int capacity) {
+
+        regionCapacity = capacity;
+        long sizeBytes = (long)capacity * regionCount;
+        int flags = GL_MAP_WRITE_BIT | GL_MAP_PERSISTENT_BIT | GL_MAP_COHERENT_BIT;
+        vboId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vboId);
+        glBufferStorage(GL_ARRAY_BUFFER, sizeBytes, flags);                                                             // Immutable storage; required for persistent mapping.
+        ByteBuffer whole = glMapBufferRange(GL_ARRAY_BUFFER, 0, sizeBytes, flags).order(ByteOrder.nativeOrder());
+        regions = new ByteBuffer[regionCount];
+
+        for (int i = 0; i < regionCount; i++) {
+
+            regions[i] = whole.slice(i * capacity, capacity).order(ByteOrder.nativeOrder());
+        }
+    }
+
+
+    @Override
+    public ByteBuffer begin() {
+
+        if (!regionReady) {
+
+            RingBufferStream.waitForRegion(fences, region);
+            regionReady = true;
+        }
+        return regions[region];
+    }
+
+
+    @Override
+    public int commit(int byteCount) {
+
+        begin();                                                                                                        // Ensures region is free, even if nothing was written.
+        bytesUploaded += byteCount;
+        return region * regionCapacity;
+    }
+
+
+    @Override
+    public void end() {
+
+        fences[region] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        region = (region + 1) % regionCount;
+        regionReady = false;
+    }
+
+
+    @Override
+    public long getBytesUploaded() {
+
+        return bytesUploaded;
+    }
+
+
+    @Override
+    public int getBufferId() {
+
+        return vboId;
+    }
+}
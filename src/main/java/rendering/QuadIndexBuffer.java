@@ -0,0 +1,78 @@
+package rendering;
+
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.system.MemoryUtil.memAllocInt;
+import static org.lwjgl.system.MemoryUtil.memFree;
+
+/**
+ * This class holds a single element buffer object of quad indices shared by every batch.
+ * Every quad uses the same six-index pattern, so one buffer large enough for the biggest batch serves all of them.
+ * Note that the buffer belongs to whichever OpenGL context was current when it was first bound.
+ */
+public final class QuadIndexBuffer {
+
+    // FIELDS
+    /**
+     * Base vertex indices of a single quad (two triangles).
+     */
+    private static final int[] indices = {
+            0, 1, 3,
+            1, 2, 3
+    };
+
+    /**
+     * Element buffer object ID, or 0 if it has not been created yet.
+     */
+    private static int eboId = 0;
+
+    /**
+     * Number of quads the buffer currently holds indices for.
+     */
+    private static int capacity = 0;
+
+
+    // CONSTRUCTOR
+    /**
+     * Prevents instantiation.
+     */
+    private QuadIndexBuffer() {}
+
+
+    // METHODS
+    /**
+     * Binds the shared element buffer object (attaching it to the currently bound vertex array object), first growing
+     * it if it holds indices for fewer than the passed number of quads.
+     *
+     * @param quads number of quads that must be drawable
+     */
+    public static void bind(int quads) {
+
+        if (eboId == 0) {
+
+            eboId = glGenBuffers();
+        }
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, eboId);
+
+        if (quads > capacity) {
+
+            IntBuffer elementBuffer = memAllocInt(quads * indices.length);                                              // Six indices per quad.
+
+            for (int i = 0; i < quads * indices.length; i++) {
+
+                elementBuffer.put(indices[i % indices.length] + ((i / indices.length) * 4));                            // Four vertices per quad.
+            }
+            elementBuffer.flip();
+            glBufferData(GL_ELEMENT_ARRAY_BUFFER, elementBuffer, GL_STATIC_DRAW);                                       // Same buffer ID, so every bound vertex array object sees new size.
+            memFree(elementBuffer);
+            capacity = quads;
+        }
+    }
+
+
+    // GETTERS
+    public static int getCapacity() {
+        return capacity;
+    }
+}
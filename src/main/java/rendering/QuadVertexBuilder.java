@@ -0,0 +1,92 @@
+package rendering;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class encodes characters as four vertices each (one per quad corner) for indexed drawing.
+ * Each vertex holds position (two floats), color (three floats), and texture coordinates (two floats).
+ * No OpenGL calls are made, so encoding can be checked and measured without a GPU.
+ */
+public final class QuadVertexBuilder {
+
+    // FIELDS
+    /**
+     * Number of floats per vertex.
+     */
+    public static final int vertexFloats = 7;
+
+    /**
+     * Number of bytes per vertex.
+     */
+    public static final int vertexBytes = vertexFloats * Float.BYTES;
+
+    /**
+     * Number of bytes per character (four vertices).
+     */
+    public static final int glyphBytes = vertexBytes * 4;
+
+
+    // CONSTRUCTOR
+    /**
+     * Prevents instantiation.
+     */
+    private QuadVertexBuilder() {}
+
+
+    // METHODS
+    /**
+     * Writes the four vertices of a character.
+     * Positive Y is down, so (x0, y0) is the top-left corner and (u0, v0) is its texture coordinate.
+     *
+     * @param buffer target buffer (native byte order)
+     * @param glyphIndex position of character within buffer (i.e., number of characters before it)
+     * @param x0 left edge on screen
+     * @param y0 top edge on screen
+     * @param x1 right edge on screen
+     * @param y1 bottom edge on screen
+     * @param u0 left edge on font texture
+     * @param v0 top edge on font texture
+     * @param u1 right edge on font texture
+     * @param v1 bottom edge on font texture
+     * @param rgb color in hexadecimal format
+     */
+    public static void put(ByteBuffer buffer, int glyphIndex, float x0, float y0, float x1, float y1,
+                           float u0, float v0, float u1, float v1, int rgb) {
+
+        float r = (float)(((rgb >> 16) & 0xFF) / 255.0);                                                                // Extract red information from hexadecimal.
+        float g = (float)(((rgb >> 8) & 0xFF) / 255.0);                                                                 // Extract green information from hexadecimal.
+        float b = (float)(((rgb >> 0) & 0xFF) / 255.0);                                                                 // Extract blue information from hexadecimal.
+
+        int index = glyphIndex * glyphBytes;
+        putVertex(buffer, index, x1, y0, r, g, b, u1, v0);                                                              // Top-right corner.
+        putVertex(buffer, index + vertexBytes, x1, y1, r, g, b, u1, v1);                                                // Bottom-right corner.
+        putVertex(buffer, index + vertexBytes * 2, x0, y1, r, g, b, u0, v1);                                            // Bottom-left corner.
+        putVertex(buffer, index + vertexBytes * 3, x0, y0, r, g, b, u0, v0);                                            // Top-left corner.
+    }
+
+
+    /**
+     * Writes a single vertex.
+     *
+     * @param buffer target buffer
+     * @param index byte index of vertex within buffer
+     * @param x position (X)
+     * @param y position (Y)
+     * @param r color (red)
+     * @param g color (green)
+     * @param b color (blue)
+     * @param u texture coordinate (X)
+     * @param v texture coordinate (Y)
+     */
+    private static void putVertex(ByteBuffer buffer, int index, float x, float y, float r, float g, float b,
+                                  float u, float v) {
+
+        buffer.putFloat(index, x);
+        buffer.putFloat(index + 4, y);
+        buffer.putFloat(index + 8, r);
+        buffer.putFloat(index + 12, g);
+        buffer.putFloat(index + 16, b);
+        buffer.putFloat(index + 20, u);
+        buffer.putFloat(index + 24, v);
+    }
+}
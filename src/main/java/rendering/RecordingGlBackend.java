@@ -0,0 +1,68 @@
+package rendering;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class makes no OpenGL calls; it only records the calls that would have been made, in order.
+ * Calls are recorded as short strings (e.g., "useProgram 3"), so state tracking can be checked without a GPU.
+ */
+public class RecordingGlBackend implements GlBackend {
+
+    // FIELDS
+    /**
+     * Calls that would have been made, in order.
+     */
+    private final List<String> calls = new ArrayList<>();
+
+
+    // METHODS
+    @Override
+    public void useProgram(int id) {
+
+        calls.add("useProgram " + id);
+    }
+
+
+    @Override
+    public void bindVertexArray(int id) {
+
+        calls.add("bindVertexArray " + id);
+    }
+
+
+    @Override
+    public void activeTexture(int unit) {
+
+        calls.add("activeTexture " + unit);
+    }
+
+
+    @Override
+    public void bindTexture(int id) {
+
+        calls.add("bindTexture " + id);
+    }
+
+
+    @Override
+    public void blendMode(BlendMode mode) {
+
+        calls.add("blendMode " + mode);
+    }
+
+
+    /**
+     * Forgets every recorded call.
+     */
+    public void clear() {
+
+        calls.clear();
+    }
+
+
+    // GETTERS
+    public List<String> getCalls() {
+        return calls;
+    }
+}
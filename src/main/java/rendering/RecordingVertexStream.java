@@ -0,0 +1,138 @@
+package rendering;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class streams vertices nowhere; it only records what would have been uploaded.
+ * It makes no OpenGL calls, so byte accounting can be checked without a GPU.
+ * Commit offsets follow the same regions as a RingBufferStream with the same region count would (a single region, and
+ * so always offset zero, by default).
+ */
+public class RecordingVertexStream implements VertexStream {
+
+    // FIELDS
+    /**
+     * Number of regions that commits cycle through.
+     */
+    private final int regionCount;
+
+    /**
+     * Buffer that vertices are written into.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Size of each region in bytes.
+     */
+    private int regionCapacity;
+
+    /**
+     * Region that the next commit goes into.
+     */
+    private int region = 0;
+
+    /**
+     * Number of bytes in each commit, in order.
+     */
+    private final List<Integer> commits = new ArrayList<>();
+
+    /**
+     * Offset returned by each commit, in order.
+     */
+    private final List<Integer> commitOffsets = new ArrayList<>();
+
+    /**
+     * Number of times end has been called.
+     */
+    private int endCount;
+
+    /**
+     * Total number of vertex bytes that would have been uploaded.
+     */
+    private long bytesUploaded;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a RecordingVertexStream instance whose commits all go into a single region.
+     */
+    public RecordingVertexStream() {
+        this(1);
+    }
+
+
+    /**
+     * Constructs a RecordingVertexStream instance.
+     *
+     * @param regionCount number of regions that commits cycle through
+     */
+    public RecordingVertexStream(int regionCount) {
+        this.regionCount = regionCount;
+    }
+
+
+    // METHODS
+    @Override
+    public void init(int capacity) {
+
+        regionCapacity = capacity;
+        buffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+
+    @Override
+    public ByteBuffer begin() {
+
+        return buffer;
+    }
+
+
+    @Override
+    public int commit(int byteCount) {
+
+        int offset = region * regionCapacity;
+        commits.add(byteCount);
+        commitOffsets.add(offset);
+        bytesUploaded += byteCount;
+        return offset;
+    }
+
+
+    @Override
+    public void end() {
+
+        endCount++;
+        region = (region + 1) % regionCount;
+    }
+
+
+    @Override
+    public long getBytesUploaded() {
+
+        return bytesUploaded;
+    }
+
+
+    @Override
+    public int getBufferId() {
+
+        return 0;
+    }
+
+
+    // GETTERS
+    public List<Integer> getCommits() {
+        return commits;
+    }
+
+    public List<Integer> getCommitOffsets() {
+        return commitOffsets;
+    }
+
+    public int getEndCount() {
+        return endCount;
+    }
+}
@@ -0,0 +1,151 @@
+package rendering;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL32.*;
+
+/**
+ * This class streams vertices through several equally sized regions of one vertex buffer object.
+ * Each region is mapped while vertices are written into it, so vertices are written straight to driver memory.
+ * A fence placed after each draw keeps a region from being mapped again until the GPU has finished drawing from it.
+ */
+public class RingBufferStream implements VertexStream {
+
+    // FIELDS
+    /**
+     * Number of regions.
+     */
+    private final int regionCount;
+
+    /**
+     * Vertex buffer object ID.
+     */
+    private int vboId;
+
+    /**
+     * Size of each region in bytes.
+     */
+    private int regionCapacity;
+
+    /**
+     * Fence placed after the last draw from each region, or 0 if the region is not in use by the GPU.
+     */
+    private final long[] fences;
+
+    /**
+     * Region currently being written into.
+     */
+    private int region = 0;
+
+    /**
+     * Mapped memory of current region, or null if it is not mapped.
+     */
+    private ByteBuffer mapped;
+
+    /**
+     * Total number of vertex bytes uploaded.
+     */
+    private long bytesUploaded;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a RingBufferStream instance.
+     *
+     * @param regionCount number of regions
+     */
+    public RingBufferStream(int regionCount) {
+        this.regionCount = regionCount;
+        this.fences = new long[regionCount];
+    }
+
+
+    // METHODS
+    @Override
+    public void init(int capacity) {
+
+        regionCapacity = capacity;
+        vboId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vboId);
+        glBufferData(GL_ARRAY_BUFFER, (long)capacity * regionCount, GL_STREAM_DRAW);
+    }
+
+
+    @Override
+    public ByteBuffer begin() {
+
+        if (mapped == null) {
+
+            waitForRegion(fences, region);
+            glBindBuffer(GL_ARRAY_BUFFER, vboId);
+            mapped = glMapBufferRange(GL_ARRAY_BUFFER, (long)region * regionCapacity, regionCapacity,
+                    GL_MAP_WRITE_BIT | GL_MAP_INVALIDATE_RANGE_BIT | GL_MAP_UNSYNCHRONIZED_BIT)                         // Fence already guarantees region is free.
+                    .order(ByteOrder.nativeOrder());
+        }
+        return mapped;
+    }
+
+
+    @Override
+    public int commit(int byteCount) {
+
+        begin();                                                                                                        // Ensures region is mapped, even if nothing was written.
+        glBindBuffer(GL_ARRAY_BUFFER, vboId);
+        glUnmapBuffer(GL_ARRAY_BUFFER);
+        mapped = null;
+        bytesUploaded += byteCount;
+        return region * regionCapacity;
+    }
+
+
+    @Override
+    public void end() {
+
+        fences[region] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        region = (region + 1) % regionCount;
+    }
+
+
+    /**
+     * Blocks until the GPU has finished drawing from the target region, then releases its fence.
+     *
+     * @param fences fence of each region
+     * @param region target region
+     */
+    static void waitForRegion(long[] fences, int region) {
+
+        if (fences[region] == 0) {
+
+            return;
+        }
+
+        while (true) {
+
+            int result = glClientWaitSync(fences[region], GL_SYNC_FLUSH_COMMANDS_BIT, 1_000_000);                       // Wait up to one millisecond at a time.
+
+            if ((result == GL_ALREADY_SIGNALED) || (result == GL_CONDITION_SATISFIED) || (result == GL_WAIT_FAILED)) {
+
+                break;
+            }
+        }
+        glDeleteSync(fences[region]);
+        fences[region] = 0;
+    }
+
+
+    @Override
+    public long getBytesUploaded() {
+
+        return bytesUploaded;
+    }
+
+
+    @Override
+    public int getBufferId() {
+
+        return vboId;
+    }
+}
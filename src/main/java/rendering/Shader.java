@@ -7,7 +7,10 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.lwjgl.opengl.GL11.GL_FALSE;
 import static org.lwjgl.opengl.GL20.*;
@@ -23,7 +26,17 @@ public class Shader {
     private String vertexSource;
     private String fragmentSource;
     private final String filePath;
-    private boolean inUse = false;
+
+    /**
+     * Active uniforms of this shader by name, resolved when the shader is linked.
+     */
+    private final Map<String, Uniform> uniforms = new HashMap<>();
+
+    /**
+     * Scratch arrays that values are gathered into before being compared against (and uploaded as) uniform values.
+     */
+    private final float[] floats = new float[16];
+    private final int[] ints = new int[1];
 
 
     // CONSTRUCTOR
@@ -118,159 +131,226 @@ public class Shader {
             System.out.println(glGetProgramInfoLog(shaderProgramId, length));
             throw new RuntimeException("Failed to link shaders from " + filePath);
         }
+        cacheUniforms();
     }
 
 
     /**
-     * Uses this shader if not already in use.
+     * Caches the location of every active uniform in this shader, dropping any previously uploaded values.
+     * Array uniforms are cached under their plain name (e.g., "uSdf") as well as their first element ("uSdf[0]").
      */
-    public void use() {
+    private void cacheUniforms() {
 
-        if (!inUse) {
+        uniforms.clear();
+        int count = glGetProgrami(shaderProgramId, GL_ACTIVE_UNIFORMS);
+        IntBuffer size = BufferUtils.createIntBuffer(1);
+        IntBuffer type = BufferUtils.createIntBuffer(1);
 
-            inUse = true;
-            glUseProgram(shaderProgramId);
+        for (int i = 0; i < count; i++) {
+
+            String name = glGetActiveUniform(shaderProgramId, i, size, type);
+            Uniform uniform = new Uniform(glGetUniformLocation(shaderProgramId, name));
+            uniforms.put(name, uniform);
+
+            if (name.endsWith("[0]")) {
+
+                uniforms.put(name.substring(0, name.length() - 3), uniform);
+            }
         }
     }
 
 
+    /**
+     * Uses this shader if not already in use.
+     */
+    public void use() {
+
+        GlState.useProgram(shaderProgramId);
+    }
+
+
     /**
      * Detaches this shader.
      */
     public void detach() {
 
-        glUseProgram(0);                                                                                                // 0 is a flag that states to bind nothing.
-        inUse = false;
+        GlState.useProgram(0);                                                                                          // 0 is a flag that states to bind nothing.
     }
 
 
     /**
      * Uploads a 4x4 matrix of floats to this shader.
+     * Nothing is uploaded if the matrix equals the one last uploaded.
      *
      * @param varName name of target variable in this shader to upload to
      * @param mat4 matrix to upload
      */
     public void uploadMat4f(String varName, Matrix4f mat4) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
+        Uniform uniform = uniforms.get(varName);
         use();                                                                                                          // Ensures this shader is being used.
-        FloatBuffer matBuffer = BufferUtils.createFloatBuffer(16);                                                      // 16 since 4x4 matrix.
-        mat4.get(matBuffer);
-        glUniformMatrix4fv(varLocation, false, matBuffer);
+
+        if ((uniform != null) && uniform.update(mat4.get(floats), 16)) {                                                // 16 since 4x4 matrix.
+
+            glUniformMatrix4fv(uniform.location, false, uniform.floats);
+        }
     }
 
 
     /**
      * Uploads a 3x3 matrix of floats to this shader.
+     * Nothing is uploaded if the matrix equals the one last uploaded.
      *
      * @param varName name of target variable in this shader to upload to
      * @param mat3 matrix to upload
      */
     public void uploadMat3f(String varName, Matrix3f mat3) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
+        Uniform uniform = uniforms.get(varName);
         use();                                                                                                          // Ensures this shader is being used.
-        FloatBuffer matBuffer = BufferUtils.createFloatBuffer(9);                                                       // 9 since 3x3 matrix.
-        mat3.get(matBuffer);
-        glUniformMatrix3fv(varLocation, false, matBuffer);
+
+        if ((uniform != null) && uniform.update(mat3.get(floats), 9)) {                                                 // 9 since 3x3 matrix.
+
+            glUniformMatrix3fv(uniform.location, false, uniform.floats);
+        }
     }
 
 
     /**
      * Uploads a vector of four floats to this shader.
+     * Nothing is uploaded if the vector equals the one last uploaded.
      *
      * @param varName name of target variable in this shader to upload to
      * @param vec vector to upload
      */
     public void uploadVec4f(String varName, Vector4f vec) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
+        Uniform uniform = uniforms.get(varName);
         use();                                                                                                          // Ensures this shader is being used.
-        glUniform4f(varLocation, vec.x, vec.y, vec.z, vec.w);
+        floats[0] = vec.x;
+        floats[1] = vec.y;
+        floats[2] = vec.z;
+        floats[3] = vec.w;
+
+        if ((uniform != null) && uniform.update(floats, 4)) {
+
+            glUniform4f(uniform.location, vec.x, vec.y, vec.z, vec.w);
+        }
     }
 
 
     /**
      * Uploads a vector of three floats to this shader.
+     * Nothing is uploaded if the vector equals the one last uploaded.
      *
      * @param varName name of target variable in this shader to upload to
      * @param vec vector to upload
      */
     public void uploadVec3f(String varName, Vector3f vec) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
+        Uniform uniform = uniforms.get(varName);
         use();                                                                                                          // Ensures this shader is being used.
-        glUniform3f(varLocation, vec.x, vec.y, vec.z);
+        floats[0] = vec.x;
+        floats[1] = vec.y;
+        floats[2] = vec.z;
+
+        if ((uniform != null) && uniform.update(floats, 3)) {
+
+            glUniform3f(uniform.location, vec.x, vec.y, vec.z);
+        }
     }
 
 
     /**
      * Uploads a vector of two floats to this shader.
+     * Nothing is uploaded if the vector equals the one last uploaded.
      *
      * @param varName name of target variable in this shader to upload to
      * @param vec vector to upload
      */
     public void uploadVec2f(String varName, Vector2f vec) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
+        Uniform uniform = uniforms.get(varName);
         use();                                                                                                          // Ensures this shader is being used.
-        glUniform2f(varLocation, vec.x, vec.y);
+        floats[0] = vec.x;
+        floats[1] = vec.y;
+
+        if ((uniform != null) && uniform.update(floats, 2)) {
+
+            glUniform2f(uniform.location, vec.x, vec.y);
+        }
     }
 
 
     /**
      * Uploads a float to this shader.
+     * Nothing is uploaded if the float equals the one last uploaded.
      *
      * @param varName name of target variable in this shader to upload to
      * @param val float to upload
      */
     public void uploadFloat(String varName, float val) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
+        Uniform uniform = uniforms.get(varName);
         use();                                                                                                          // Ensures this shader is being used.
-        glUniform1f(varLocation, val);
+        floats[0] = val;
+
+        if ((uniform != null) && uniform.update(floats, 1)) {
+
+            glUniform1f(uniform.location, val);
+        }
     }
 
 
     /**
      * Uploads an int to this shader.
+     * Nothing is uploaded if the int equals the one last uploaded.
      *
      * @param varName name of target variable in this shader to upload to
      * @param val int to upload
      */
     public void uploadInt(String varName, int val) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
+        Uniform uniform = uniforms.get(varName);
         use();                                                                                                          // Ensures this shader is being used.
-        glUniform1i(varLocation, val);
+        ints[0] = val;
+
+        if ((uniform != null) && uniform.update(ints, 1)) {
+
+            glUniform1i(uniform.location, val);
+        }
     }
 
 
     /**
      * Uploads a texture to this shader.
+     * Nothing is uploaded if the slot equals the one last uploaded.
      *
      * @param varName name of target variable in this shader to upload to
      * @param slot slot of texture to upload
      */
     public void uploadTexture(String varName, int slot) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
-        use();                                                                                                          // Ensures this shader is being used.
-        glUniform1i(varLocation, slot);
+        uploadInt(varName, slot);                                                                                       // Samplers are set like ints.
     }
 
 
     /**
      * Uploads an array of ints to this shader.
+     * Nothing is uploaded if the array equals the one last uploaded.
      *
      * @param varName name of target variable in this shader to upload to
      * @param array array to upload
      */
     public void uploadIntArray(String varName, int[] array) {
 
-        int varLocation = glGetUniformLocation(shaderProgramId, varName);
+        Uniform uniform = uniforms.get(varName);
         use();                                                                                                          // Ensures this shader is being used.
-        glUniform1iv(varLocation, array);
+
+        if ((uniform != null) && uniform.update(array, array.length)) {
+
+            glUniform1iv(uniform.location, array);
+        }
     }
 
 
@@ -296,4 +376,68 @@ public class Shader {
         }
         return resultStringBuilder.toString();
     }
+
+
+    /**
+     * This class holds the location of a uniform and the value last uploaded to it.
+     * Uniform values belong to the program, so a value stays uploaded until this shader uploads another.
+     */
+    private static class Uniform {
+
+        /**
+         * Uniform location.
+         */
+        private final int location;
+
+        /**
+         * Float or int components last uploaded, or null if none of that kind have been.
+         */
+        private float[] floats;
+        private int[] ints;
+
+        /**
+         * Constructs a Uniform instance.
+         *
+         * @param location uniform location
+         */
+        private Uniform(int location) {
+            this.location = location;
+        }
+
+        /**
+         * Records the passed float components as the uniform's value.
+         *
+         * @param values source array
+         * @param count number of components (taken from the start of the source array)
+         * @return whether the value changed (i.e., must be uploaded)
+         */
+        private boolean update(float[] values, int count) {
+            if ((floats != null) && (floats.length == count) && Arrays.equals(floats, 0, count, values, 0, count)) {
+                return false;
+            }
+            if ((floats == null) || (floats.length != count)) {
+                floats = new float[count];
+            }
+            System.arraycopy(values, 0, floats, 0, count);
+            return true;
+        }
+
+        /**
+         * Records the passed int components as the uniform's value.
+         *
+         * @param values source array
+         * @param count number of components (taken from the start of the source array)
+         * @return whether the value changed (i.e., must be uploaded)
+         */
+        private boolean update(int[] values, int count) {
+            if ((ints != null) && (ints.length == count) && Arrays.equals(ints, 0, count, values, 0, count)) {
+                return false;
+            }
+            if ((ints == null) || (ints.length != count)) {
+                ints = new int[count];
+            }
+            System.arraycopy(values, 0, ints, 0, count);
+            return true;
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package rendering;
+
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+
+/**
+ * This enum represents the available ways of streaming vertices to the GPU.
+ */
+public enum StreamingStrategy {
+
+    /**
+     * Orphans the vertex buffer object and uploads only the vertices in use with glBufferSubData.
+     * Works everywhere, but copies every vertex twice (once into a staging buffer, once by the driver).
+     */
+    SUB_DATA,
+
+    /**
+     * Cycles through several regions of one vertex buffer object, writing straight into each region while it is
+     * mapped; fences keep a region from being overwritten while the GPU is still drawing from it.
+     */
+    RING_BUFFER,
+
+    /**
+     * Like the ring buffer, but the whole vertex buffer object stays mapped for its lifetime (GL_MAP_PERSISTENT_BIT),
+     * so no map or unmap calls are made per flush.
+     * Requires OpenGL 4.4 or ARB_buffer_storage; falls back to the ring buffer otherwise.
+     */
+    PERSISTENT_MAPPED;
+
+
+    // FIELDS
+    /**
+     * Number of regions that ring buffer strategies cycle through.
+     * Three lets the CPU write one region while the GPU may still be drawing from the previous two.
+     */
+    private static final int regions = 3;
+
+
+    // METHODS
+    /**
+     * Creates a vertex stream using this strategy.
+     * An OpenGL context must be current.
+     *
+     * @return vertex stream
+     */
+    public VertexStream create() {
+
+        switch (this) {
+            case PERSISTENT_MAPPED:
+                if (isPersistentMappingSupported()) {
+                    return new PersistentMappedStream(regions);
+                }
+                return new RingBufferStream(regions);
+            case RING_BUFFER:
+                return new RingBufferStream(regions);
+            default:
+                return new SubDataStream();
+        }
+    }
+
+
+    /**
+     * Determines whether the current OpenGL context supports persistently mapped buffers.
+     *
+     * @return whether persistent mapping is supported
+     */
+    public static boolean isPersistentMappingSupported() {
+
+        GLCapabilities capabilities = GL.getCapabilities();
+        return capabilities.OpenGL44 || capabilities.GL_ARB_buffer_storage;
+    }
+}
@@ -0,0 +1,86 @@
+package rendering;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+
+/**
+ * This class streams vertices by orphaning the vertex buffer object and uploading only the vertices in use.
+ * Orphaning (re-specifying the buffer with no data) lets the driver hand back fresh storage instead of waiting for
+ * draws still using the old contents.
+ */
+public class SubDataStream implements VertexStream {
+
+    // FIELDS
+    /**
+     * Vertex buffer object ID.
+     */
+    private int vboId;
+
+    /**
+     * Size of vertex buffer object in bytes.
+     */
+    private long capacityBytes;
+
+    /**
+     * Buffer that vertices are written into before being uploaded.
+     */
+    private ByteBuffer staging;
+
+    /**
+     * Total number of vertex bytes uploaded.
+     */
+    private long bytesUploaded;
+
+
+    // METHODS
+    @Override
+    public void init(int capacity) {
+
+        capacityBytes = capacity;
+        staging = BufferUtils.createByteBuffer(capacity);
+        vboId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vboId);
+        glBufferData(GL_ARRAY_BUFFER, capacityBytes, GL_DYNAMIC_DRAW);
+    }
+
+
+    @Override
+    public ByteBuffer begin() {
+
+        return staging;
+    }
+
+
+    @Override
+    public int commit(int byteCount) {
+
+        glBindBuffer(GL_ARRAY_BUFFER, vboId);
+        glBufferData(GL_ARRAY_BUFFER, capacityBytes, GL_DYNAMIC_DRAW);                                                  // Orphan old contents.
+        staging.limit(byteCount).position(0);
+        glBufferSubData(GL_ARRAY_BUFFER, 0, staging);
+        staging.clear();
+        bytesUploaded += byteCount;
+        return 0;
+    }
+
+
+    @Override
+    public void end() {}
+
+
+    @Override
+    public long getBytesUploaded() {
+
+        return bytesUploaded;
+    }
+
+
+    @Override
+    public int getBufferId() {
+
+        return vboId;
+    }
+}
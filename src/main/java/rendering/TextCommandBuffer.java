@@ -0,0 +1,114 @@
+package rendering;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class hands frames of text commands from a recording thread (e.g., the simulation thread) to a rendering thread
+ * (the thread that owns the OpenGL context), so that the next frame is recorded while the current one is drawn.
+ * The recording thread records into one list while the rendering thread draws another; publishing and acquiring swap
+ * lists through a third, shared one with a single atomic operation, so neither thread ever waits for the other.
+ * If several frames are published before the rendering thread acquires, only the newest is drawn; if none is, the
+ * last frame acquired is drawn again.
+ */
+public class TextCommandBuffer {
+
+    // FIELDS
+    /**
+     * Bit of the shared state set when the shared list holds a frame that has not been acquired yet.
+     */
+    private static final int published = 4;
+
+    /**
+     * Bits of the shared state holding the index of the shared list.
+     */
+    private static final int indexMask = 3;
+
+    /**
+     * Command lists, indexed by the recording, shared, and rendering indices.
+     */
+    private final TextCommandList[] lists = new TextCommandList[3];
+
+    /**
+     * Index of the shared list, plus the published bit.
+     */
+    private final AtomicInteger shared = new AtomicInteger(1);
+
+    /**
+     * Index of the list being recorded into (only used by the recording thread).
+     */
+    private int recording = 0;
+
+    /**
+     * Index of the list being drawn (only used by the rendering thread).
+     */
+    private int rendering = 2;
+
+    /**
+     * Number of frames published and acquired (each only written by its own thread).
+     */
+    private volatile long framesPublished, framesAcquired;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a TextCommandBuffer instance.
+     *
+     * @param capacity number of commands each list initially has room for (they grow as needed)
+     */
+    public TextCommandBuffer(int capacity) {
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new TextCommandList(capacity);
+        }
+    }
+
+
+    // METHODS
+    /**
+     * Publishes the frame recorded so far, making it the next one the rendering thread acquires, and starts recording
+     * a new, empty frame.
+     * This must only be called from the recording thread.
+     */
+    public void publish() {
+
+        recording = shared.getAndSet(recording | published) & indexMask;
+        lists[recording].clear();                                                                                       // Either already drawn or never going to be.
+        framesPublished++;
+    }
+
+
+    /**
+     * Acquires the newest published frame, if one has been published since the last call.
+     * This must only be called from the rendering thread.
+     *
+     * @return list to draw (the same one as last time if no newer frame has been published)
+     */
+    public TextCommandList acquire() {
+
+        if ((shared.get() & published) != 0) {                                                                          // Only this thread clears the bit, so it stays set.
+
+            rendering = shared.getAndSet(rendering) & indexMask;
+            framesAcquired++;
+        }
+        return lists[rendering];
+    }
+
+
+    // GETTERS
+    /**
+     * Retrieves the list that the recording thread records the next frame into.
+     * This must only be called from the recording thread.
+     *
+     * @return list being recorded into
+     */
+    public TextCommandList getRecording() {
+        return lists[recording];
+    }
+
+    public long getFramesPublished() {
+        return framesPublished;
+    }
+
+    public long getFramesAcquired() {
+        return framesAcquired;
+    }
+}
@@ -0,0 +1,114 @@
+package rendering;
+
+import fonts.CFont;
+
+import java.util.Arrays;
+
+/**
+ * This class records the text drawn over a single frame as a list of commands, so that text can be decided on one
+ * thread (e.g., the simulation thread) and drawn on another (see TextCommandBuffer).
+ * Recording makes no OpenGL call and, once the list has grown to fit a frame, allocates nothing.
+ * A list must only be used by one thread at a time.
+ */
+public class TextCommandList {
+
+    // FIELDS
+    /**
+     * Font, text, position (leftmost x, topmost y), scale, and color (with alpha) of each command.
+     */
+    private CFont[] fonts;
+    private String[] texts;
+    private int[] xs, ys;
+    private float[] scales;
+    private int[] argbs;
+
+    /**
+     * Number of commands recorded.
+     */
+    private int size = 0;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a TextCommandList instance.
+     *
+     * @param capacity number of commands the list initially has room for (it grows as needed)
+     */
+    public TextCommandList(int capacity) {
+        capacity = Math.max(1, capacity);
+        this.fonts = new CFont[capacity];
+        this.texts = new String[capacity];
+        this.xs = new int[capacity];
+        this.ys = new int[capacity];
+        this.scales = new float[capacity];
+        this.argbs = new int[capacity];
+    }
+
+
+    // METHODS
+    /**
+     * Records a command that draws a string of characters in a specific font with a given opacity.
+     *
+     * @param font font to render text in
+     * @param text text to render
+     * @param x screen coordinate (leftmost x)
+     * @param y screen coordinate (topmost y)
+     * @param scale scale factor compared to native font size
+     * @param rgb color in hexadecimal format
+     * @param alpha opacity from zero (transparent) to one (opaque)
+     */
+    public void addString(CFont font, String text, int x, int y, float scale, int rgb, float alpha) {
+
+        if (size == fonts.length) {
+
+            int capacity = size * 2;
+            fonts = Arrays.copyOf(fonts, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            scales = Arrays.copyOf(scales, capacity);
+            argbs = Arrays.copyOf(argbs, capacity);
+        }
+        fonts[size] = font;
+        texts[size] = text;
+        xs[size] = x;
+        ys[size] = y;
+        scales[size] = scale;
+        argbs[size] = FontBatch.toArgb(rgb, alpha);
+        size++;
+    }
+
+
+    /**
+     * Adds every recorded command to a batch, in recording order.
+     * The list is left as is, so it can be drawn again (e.g., if no newer frame has been recorded yet).
+     * An OpenGL context must be current, since the batch may flush.
+     *
+     * @param batch target batch
+     */
+    public void drawTo(FontBatch batch) {
+
+        for (int i = 0; i < size; i++) {
+
+            int argb = argbs[i];
+            batch.addString(fonts[i], texts[i], xs[i], ys[i], scales[i], argb & 0xFFFFFF, (argb >>> 24) / 255f);
+        }
+    }
+
+
+    /**
+     * Drops every recorded command.
+     */
+    public void clear() {
+
+        Arrays.fill(fonts, 0, size, null);                                                                              // Don't keep anything alive until the command is reused.
+        Arrays.fill(texts, 0, size, null);
+        size = 0;
+    }
+
+
+    // GETTERS
+    public int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,336 @@
+package rendering;
+
+import fonts.CFont;
+import fonts.GlyphMetrics;
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+
+/**
+ * This class holds a string that is laid out and uploaded to its own vertex buffer object once, then drawn as many
+ * times as needed (e.g., HUD labels and menu items that rarely change).
+ * Changing the text only rewrites and re-uploads the range of characters that actually moved or changed; changing the
+ * position, scale, or color rewrites every character.
+ * Vertices use the PACKED_QUAD format, so meshes are drawn with the same shaders as regular batches (e.g.,
+ * fontShader.glsl) through FontBatch.draw.
+ * An OpenGL context must be current when a mesh is updated, drawn, or deleted.
+ */
+public class TextMesh {
+
+    // FIELDS
+    /**
+     * Layout of character data in the vertex buffer.
+     */
+    private static final VertexFormat vertexFormat = VertexFormat.PACKED_QUAD;
+
+    /**
+     * Number of bytes each character takes up in the vertex buffer.
+     */
+    private static final int glyphBytes = PackedVertexBuilder.glyphBytes;
+
+    /**
+     * Font used in this mesh.
+     */
+    private final CFont font;
+
+    /**
+     * Text to render.
+     */
+    private String text = "";
+
+    /**
+     * Screen coordinates of text (leftmost x, topmost y).
+     */
+    private float x, y;
+
+    /**
+     * Scale factor compared to native font size.
+     */
+    private float scale = 1;
+
+    /**
+     * Color (with alpha) in hexadecimal format.
+     */
+    private int argb = 0xFF000000;
+
+    /**
+     * Whether the text, position, scale, or color has changed since the last update.
+     */
+    private boolean dirty = true;
+
+    /**
+     * Whether every character must be rewritten on the next update (i.e., not just those that changed).
+     */
+    private boolean allDirty = true;
+
+    /**
+     * Glyph metrics version that the current vertices were built from.
+     */
+    private int metricsVersion = -1;
+
+    /**
+     * Number of characters currently in this mesh.
+     */
+    private int size = 0;
+
+    /**
+     * Number of characters the vertex buffer object has room for.
+     */
+    private int capacity = 0;
+
+    /**
+     * Glyph index of each character.
+     */
+    private int[] glyphs = new int[0];
+
+    /**
+     * Horizontal offset of each character's origin from the start of the text, at native font size.
+     */
+    private float[] offsets = new float[0];
+
+    /**
+     * Copy of every vertex in the vertex buffer object, so a changed range can be rewritten and uploaded alone.
+     */
+    private ByteBuffer vertices;
+
+    /**
+     * Vertex array object ID, or 0 if it has not been created yet.
+     */
+    private int vaoId = 0;
+
+    /**
+     * Vertex buffer object ID, or 0 if it has not been created yet.
+     */
+    private int vboId = 0;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a TextMesh instance.
+     *
+     * @param font font used in this mesh
+     */
+    public TextMesh(CFont font) {
+        this.font = font;
+    }
+
+
+    // METHODS
+    /**
+     * Lays out and uploads whatever has changed since the last update.
+     * This is called by FontBatch.draw, so it only needs to be called directly to upload ahead of time.
+     *
+     * @return number of vertex bytes uploaded
+     */
+    public int update() {
+
+        GlyphMetrics metrics = font.getMetrics();
+
+        if (metrics.getVersion() != metricsVersion) {
+
+            dirty = true;                                                                                               // Glyphs may have been generated, evicted, or moved.
+            allDirty = true;
+        }
+
+        if (!dirty) {
+
+            return 0;
+        }
+        int count = text.codePointCount(0, text.length());
+
+        if (count > capacity) {
+
+            grow(count);
+        }
+        int first = allDirty ? 0 : count;                                                                               // First and last characters that need to be rewritten.
+        int last = allDirty ? count - 1 : -1;
+        float offset = 0;
+        int i = 0;
+
+        for (int index = 0; index < text.length(); i++) {
+
+            int codepoint = text.codePointAt(index);
+            index += Character.charCount(codepoint);
+            int glyph = font.getGlyph(codepoint);
+
+            if ((i >= size) || (glyphs[i] != glyph) || (offsets[i] != offset)) {
+
+                first = Math.min(first, i);
+                last = Math.max(last, i);
+                glyphs[i] = glyph;
+                offsets[i] = offset;
+            }
+            offset += metrics.getAdvance(glyph);
+        }
+        size = count;
+        metricsVersion = metrics.getVersion();                                                                          // Read after layout, since layout may generate glyphs.
+        dirty = false;
+        allDirty = false;
+
+        if (first > last) {
+
+            return 0;                                                                                                   // Text changed, but no character did (e.g., a trailing character was removed).
+        }
+
+        for (int j = first; j <= last; j++) {
+
+            putGlyph(metrics, j);
+        }
+        int byteOffset = first * glyphBytes;
+        vertices.limit((last + 1) * glyphBytes).position(byteOffset);
+        glBindBuffer(GL_ARRAY_BUFFER, vboId);
+        glBufferSubData(GL_ARRAY_BUFFER, byteOffset, vertices);
+        vertices.clear();
+        return (last + 1 - first) * glyphBytes;
+    }
+
+
+    /**
+     * Writes the vertices of a single character into the vertex copy.
+     *
+     * @param metrics glyph metrics of font
+     * @param index index of character within this mesh
+     */
+    private void putGlyph(GlyphMetrics metrics, int index) {
+
+        int glyph = glyphs[index];
+        float x0 = x + (scale * (offsets[index] + metrics.getBoundsX(glyph)));                                          // Top-left corner (remember that positive Y is down).
+        float y0 = y + (scale * (metrics.getHeight() + metrics.getBoundsY(glyph)));                                     // ^^^ (bounds are relative to baseline, which sits `height` below top)
+        float x1 = x0 + (scale * metrics.getBoundsWidth(glyph));                                                        // Bottom-right corner (remember that positive Y is down).
+        float y1 = y0 + (scale * metrics.getBoundsHeight(glyph));                                                       // ^^^
+        PackedVertexBuilder.put(vertices, index, x0, y0, x1, y1,
+                metrics.getU0(glyph), metrics.getV0(glyph), metrics.getU1(glyph), metrics.getV1(glyph), argb);
+    }
+
+
+    /**
+     * Grows this mesh so that it has room for at least the passed number of characters.
+     * The vertex buffer object is re-specified, so every character is rewritten on the next update.
+     *
+     * @param count number of characters that must fit
+     */
+    private void grow(int count) {
+
+        capacity = Math.max(count, capacity * 2);
+        glyphs = Arrays.copyOf(glyphs, capacity);
+        offsets = Arrays.copyOf(offsets, capacity);
+        vertices = BufferUtils.createByteBuffer(capacity * glyphBytes);
+
+        if (vaoId == 0) {
+
+            vaoId = glGenVertexArrays();
+            vboId = glGenBuffers();
+        }
+        GlState.bindVertexArray(vaoId);
+        glBindBuffer(GL_ARRAY_BUFFER, vboId);
+        glBufferData(GL_ARRAY_BUFFER, (long)capacity * glyphBytes, GL_STATIC_DRAW);                                     // Rarely rewritten, so static is the better hint.
+        QuadIndexBuffer.bind(capacity);
+        vertexFormat.enableQuadAttributes();
+        allDirty = true;
+    }
+
+
+    /**
+     * Deletes the vertex array object and vertex buffer object of this mesh.
+     * The mesh can still be used afterwards; both are recreated on the next update.
+     */
+    public void delete() {
+
+        if (vaoId != 0) {
+
+            GlState.vertexArrayDeleted(vaoId);
+            glDeleteVertexArrays(vaoId);
+            glDeleteBuffers(vboId);
+            vaoId = 0;
+            vboId = 0;
+        }
+        size = 0;
+        capacity = 0;
+        dirty = true;
+        allDirty = true;
+    }
+
+
+    // GETTERS
+    public CFont getFont() {
+        return font;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    public int getArgb() {
+        return argb;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    int getVaoId() {
+        return vaoId;
+    }
+
+    int getGlyph(int index) {
+        return glyphs[index];
+    }
+
+
+    // SETTERS
+    public void setText(String text) {
+        if (!this.text.equals(text)) {
+            this.text = text;
+            dirty = true;
+        }
+    }
+
+    public void setPosition(float x, float y) {
+        if ((this.x != x) || (this.y != y)) {
+            this.x = x;
+            this.y = y;
+            dirty = true;
+            allDirty = true;
+        }
+    }
+
+    public void setScale(float scale) {
+        if (this.scale != scale) {
+            this.scale = scale;
+            dirty = true;
+            allDirty = true;
+        }
+    }
+
+    /**
+     * Sets the color of this mesh.
+     *
+     * @param rgb color in hexadecimal format
+     * @param alpha opacity from zero (transparent) to one (opaque)
+     */
+    public void setColor(int rgb, float alpha) {
+        int argb = FontBatch.toArgb(rgb, alpha);
+        if (this.argb != argb) {
+            this.argb = argb;
+            dirty = true;
+            allDirty = true;
+        }
+    }
+}
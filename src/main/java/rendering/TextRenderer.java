@@ -0,0 +1,334 @@
+package rendering;
+
+import fonts.CFont;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class collects the text drawn over a frame and renders it in an order that minimizes state changes.
+ * Submissions are sorted by layer, then shader, blend mode, and font, so every run of text sharing a shader and blend
+ * mode goes through the same batch back to back, and state is set through GlState so nothing already set is set again.
+ * Submission order is kept within each layer for text that shares all three, but not across them; text that must be
+ * drawn over other text (e.g., overlapping labels) should be submitted on a higher layer.
+ * Each shader gets its own batch, created on first render, so every shader must accept the vertex format passed on
+ * construction.
+ */
+public class TextRenderer {
+
+    // FIELDS
+    /**
+     * Number of low bits of each sort key holding the submission index.
+     */
+    private static final int submissionBits = 24;
+
+    /**
+     * Mask of the low bits of each sort key holding the submission index.
+     */
+    private static final long submissionMask = (1L << submissionBits) - 1;
+
+    /**
+     * Number of characters each batch can store before it must be flushed.
+     */
+    private final int batchCapacity;
+
+    /**
+     * How batches stream vertices to the GPU.
+     */
+    private final StreamingStrategy streamingStrategy;
+
+    /**
+     * Layout of character data in each batch's vertex buffer.
+     */
+    private final VertexFormat vertexFormat;
+
+    /**
+     * Submissions of the current frame; entries past the submission count are kept for reuse.
+     */
+    private final List<Submission> submissions = new ArrayList<>();
+
+    /**
+     * Number of submissions in the current frame.
+     */
+    private int submissionCount = 0;
+
+    /**
+     * Sort keys of the current frame's submissions, in submission order until sorted.
+     */
+    private long[] keys = new long[64];
+
+    /**
+     * Sort position of each shader and font (in order of first submission).
+     */
+    private final Map<Shader, Integer> shaderIndices = new IdentityHashMap<>();
+    private final Map<CFont, Integer> fontIndices = new IdentityHashMap<>();
+
+    /**
+     * Batch of each shader.
+     */
+    private final Map<Shader, FontBatch> batches = new IdentityHashMap<>();
+
+    /**
+     * Number of state changes (see GlState) made and skipped while rendering the last frame.
+     */
+    private long frameStateChanges, frameStateChangesSkipped;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a TextRenderer instance with batches of the default capacity that stream vertices with
+     * glBufferSubData.
+     */
+    public TextRenderer() {
+        this(FontBatch.defaultCapacity, StreamingStrategy.SUB_DATA, VertexFormat.QUAD);
+    }
+
+
+    /**
+     * Constructs a TextRenderer instance.
+     *
+     * @param batchCapacity number of characters each batch can store before it must be flushed
+     * @param streamingStrategy how batches stream vertices to the GPU
+     * @param vertexFormat layout of character data in each batch's vertex buffer
+     */
+    public TextRenderer(int batchCapacity, StreamingStrategy streamingStrategy, VertexFormat vertexFormat) {
+        this.batchCapacity = batchCapacity;
+        this.streamingStrategy = streamingStrategy;
+        this.vertexFormat = vertexFormat;
+    }
+
+
+    // METHODS
+    /**
+     * Submits a string to be drawn when the frame is rendered.
+     *
+     * @param layer draw order of text across shaders, blend modes, and fonts (lower layers are drawn first; -32768 to
+     *              32767)
+     * @param shader shader to draw text with
+     * @param blendMode how text is blended into the framebuffer
+     * @param font font to render text in
+     * @param text text to render
+     * @param x screen coordinate (leftmost x)
+     * @param y screen coordinate (topmost y)
+     * @param scale scale factor compared to native font size
+     * @param rgb color in hexadecimal format
+     * @param alpha opacity from zero (transparent) to one (opaque)
+     */
+    public void submit(int layer, Shader shader, BlendMode blendMode, CFont font, String text, int x, int y,
+                       float scale, int rgb, float alpha) {
+
+        long key = key(layer, indexOf(shaderIndices, shader), blendMode.ordinal(), indexOf(fontIndices, font),
+                submissionCount);                                                                                       // Packed first, so a rejected layer changes nothing.
+
+        if (submissionCount == submissions.size()) {
+
+            submissions.add(new Submission());
+        }
+
+        if (submissionCount == keys.length) {
+
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+        Submission submission = submissions.get(submissionCount);
+        submission.shader = shader;
+        submission.blendMode = blendMode;
+        submission.font = font;
+        submission.text = text;
+        submission.x = x;
+        submission.y = y;
+        submission.scale = scale;
+        submission.rgb = rgb;
+        submission.alpha = alpha;
+        keys[submissionCount] = key;
+        submissionCount++;
+    }
+
+
+    /**
+     * Renders every submission of the current frame, then clears them for the next frame.
+     * An OpenGL context must be current.
+     */
+    public void render() {
+
+        long changesBefore = GlState.getStateChanges();
+        long skippedBefore = GlState.getStateChangesSkipped();
+        sort();
+        FontBatch batch = null;
+
+        for (int i = 0; i < submissionCount; i++) {
+
+            Submission submission = submissions.get((int)(keys[i] & submissionMask));
+            FontBatch next = getBatch(submission.shader);
+
+            if (next != batch) {
+
+                if (batch != null) {
+
+                    batch.flush();                                                                                      // Draw with the previous shader before switching.
+                }
+                batch = next;
+            }
+
+            if (GlState.getBlendMode() != submission.blendMode) {
+
+                batch.flush();                                                                                          // Draw with the previous blend mode before switching.
+                GlState.setBlendMode(submission.blendMode);
+            }
+            batch.addString(submission.font, submission.text, submission.x, submission.y, submission.scale,
+                    submission.rgb, submission.alpha);
+        }
+
+        if (batch != null) {
+
+            batch.flush();
+        }
+        frameStateChanges = GlState.getStateChanges() - changesBefore;
+        frameStateChangesSkipped = GlState.getStateChangesSkipped() - skippedBefore;
+        clear();
+    }
+
+
+    /**
+     * Sorts the current frame's submissions into draw order.
+     * Afterwards, the low bits of each key (see key) are the index of the submission to draw at that position.
+     */
+    void sort() {
+
+        Arrays.sort(keys, 0, submissionCount);
+    }
+
+
+    /**
+     * Drops every submission of the current frame without rendering it.
+     * Shader and font sort positions are dropped too, so they are assigned afresh each frame and neither keeps
+     * anything alive nor runs out across frames.
+     */
+    public void clear() {
+
+        for (int i = 0; i < submissionCount; i++) {
+
+            Submission submission = submissions.get(i);
+            submission.shader = null;                                                                                   // Don't keep anything alive until the slot is reused.
+            submission.font = null;
+            submission.text = null;
+        }
+        submissionCount = 0;
+        shaderIndices.clear();
+        fontIndices.clear();
+    }
+
+
+    /**
+     * Retrieves the batch of a shader, creating it if needed.
+     *
+     * @param shader target shader
+     * @return batch
+     */
+    private FontBatch getBatch(Shader shader) {
+
+        FontBatch batch = batches.get(shader);
+
+        if (batch == null) {
+
+            batch = new FontBatch(batchCapacity, streamingStrategy, vertexFormat);
+            batch.setShader(shader);
+            batch.init();
+            batches.put(shader, batch);
+        }
+        return batch;
+    }
+
+
+    /**
+     * Packs a sort key.
+     * From most to least significant: layer (16 bits, signed like the key itself), shader index (8 bits), blend mode
+     * (4 bits), font index (12 bits), and submission index (24 bits), so sorting keys sorts submissions.
+     *
+     * @param layer draw order of text across shaders, blend modes, and fonts (-32768 to 32767)
+     * @param shaderIndex sort position of shader
+     * @param blendMode blend mode ordinal
+     * @param fontIndex sort position of font
+     * @param submission submission index
+     * @return sort key
+     * @throws IllegalArgumentException if the layer does not fit in 16 bits
+     * @throws IllegalStateException if any index does not fit in its bits
+     */
+    static long key(int layer, int shaderIndex, int blendMode, int fontIndex, int submission) {
+
+        if ((layer < Short.MIN_VALUE) || (layer > Short.MAX_VALUE)) {
+
+            throw new IllegalArgumentException("Layer " + layer + " is out of range");
+        }
+
+        if ((shaderIndex > 0xFF) || (fontIndex > 0xFFF) || (submission > submissionMask)) {
+
+            throw new IllegalStateException("Too many shaders, fonts, or submissions in one frame");
+        }
+        return ((long)layer << 48) | ((long)shaderIndex << 40) | ((long)blendMode << 36)
+                | ((long)fontIndex << submissionBits) | submission;
+    }
+
+
+    /**
+     * Retrieves the sort position of a shader or font, assigning the next one if it has none yet.
+     *
+     * @param indices sort positions
+     * @param target target shader or font
+     * @param <T> shader or font
+     * @return sort position
+     */
+    private static <T> int indexOf(Map<T, Integer> indices, T target) {
+
+        Integer index = indices.get(target);
+
+        if (index == null) {
+
+            index = indices.size();
+            indices.put(target, index);
+        }
+        return index;
+    }
+
+
+    // GETTERS
+    public int getSubmissionCount() {
+        return submissionCount;
+    }
+
+    public long getFrameStateChanges() {
+        return frameStateChanges;
+    }
+
+    public long getFrameStateChangesSkipped() {
+        return frameStateChangesSkipped;
+    }
+
+    /**
+     * Retrieves the text of the submission drawn at a position once sorted (or submitted at it before sorting).
+     *
+     * @param position draw position
+     * @return text of submission
+     */
+    String getSortedText(int position) {
+        return submissions.get((int)(keys[position] & submissionMask)).text;
+    }
+
+
+    /**
+     * This class holds a single string submitted for drawing.
+     */
+    private static class Submission {
+
+        private Shader shader;
+        private BlendMode blendMode;
+        private CFont font;
+        private String text;
+        private int x, y;
+        private float scale;
+        private int rgb;
+        private float alpha;
+    }
+}
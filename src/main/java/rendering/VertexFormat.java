@@ -0,0 +1,138 @@
+package rendering;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.glVertexAttribIPointer;
+
+/**
+ * This enum represents the available layouts of character data in a batch's vertex buffer.
+ */
+public enum VertexFormat {
+
+    /**
+     * Four vertices per character, each holding position (two floats), color (three floats), and texture coordinates
+     * (two floats): 28 bytes per vertex.
+     * Color is always opaque.
+     */
+    QUAD,
+
+    /**
+     * Four vertices per character, each holding position (two floats), texture coordinates (two normalized unsigned
+     * shorts), and color (four normalized unsigned bytes, RGBA): 16 bytes per vertex.
+     */
+    PACKED_QUAD,
+
+    /**
+     * One record per character, drawn as an instance of a shared unit quad (see GlyphInstanceBuilder).
+     * Requires a shader with an instanced vertex stage (e.g., fontShaderInstanced.glsl).
+     */
+    INSTANCED,
+
+    /**
+     * Like PACKED_QUAD, but each vertex also holds the texture slot that its character is sampled from (one unsigned
+     * byte, padded to four): 20 bytes per vertex.
+     * Lets a single batch (and a single draw call) hold characters from several fonts and font texture pages.
+     * Requires a shader that selects a texture by slot (e.g., fontShaderMultiFont.glsl).
+     */
+    MULTI_FONT;
+
+
+    // METHODS
+    /**
+     * Retrieves the number of bytes each character takes up in the vertex buffer in this format.
+     *
+     * @return bytes per character
+     */
+    public int getGlyphBytes() {
+
+        switch (this) {
+            case PACKED_QUAD:
+                return PackedVertexBuilder.glyphBytes;
+            case INSTANCED:
+                return GlyphInstanceBuilder.glyphBytes;
+            case MULTI_FONT:
+                return PackedVertexBuilder.slotGlyphBytes;
+            default:
+                return QuadVertexBuilder.glyphBytes;
+        }
+    }
+
+
+    /**
+     * Writes a single character in this format.
+     * Positive Y is down, so (x0, y0) is the top-left corner and (u0, v0) is its texture coordinate.
+     *
+     * @param buffer target buffer (direct, native byte order)
+     * @param glyphIndex position of character within buffer (i.e., number of characters before it)
+     * @param x0 left edge on screen
+     * @param y0 top edge on screen
+     * @param x1 right edge on screen
+     * @param y1 bottom edge on screen
+     * @param u0 left edge on font texture
+     * @param v0 top edge on font texture
+     * @param u1 right edge on font texture
+     * @param v1 bottom edge on font texture
+     * @param argb color (with alpha) in hexadecimal format
+     * @param slot texture slot of font texture (ignored by every format but MULTI_FONT)
+     */
+    void put(ByteBuffer buffer, int glyphIndex, float x0, float y0, float x1, float y1,
+             float u0, float v0, float u1, float v1, int argb, int slot) {
+
+        switch (this) {
+            case PACKED_QUAD:
+                PackedVertexBuilder.put(buffer, glyphIndex, x0, y0, x1, y1, u0, v0, u1, v1, argb);
+                break;
+            case INSTANCED:
+                GlyphInstanceBuilder.put(buffer, glyphIndex, x0, y0, x1, y1, u0, v0, u1, v1, argb);
+                break;
+            case MULTI_FONT:
+                PackedVertexBuilder.put(buffer, glyphIndex, x0, y0, x1, y1, u0, v0, u1, v1, argb, slot);
+                break;
+            default:
+                QuadVertexBuilder.put(buffer, glyphIndex, x0, y0, x1, y1, u0, v0, u1, v1, argb);
+        }
+    }
+
+
+    /**
+     * Sets and enables the attribute pointers of a quad format for the vertex buffer object bound to GL_ARRAY_BUFFER,
+     * recording them in the currently bound vertex array object.
+     * Attribute locations match fontShader.glsl: position (0), color (1), and texture coordinates (2), plus texture
+     * slot (3) for the multi-font format.
+     */
+    void enableQuadAttributes() {
+
+        if (this == INSTANCED) {
+
+            throw new IllegalStateException("Instanced format has no per-vertex quad attributes");
+        }
+
+        if (this == PACKED_QUAD) {
+
+            int stride = PackedVertexBuilder.vertexBytes;
+            glVertexAttribPointer(0, 2, GL_FLOAT, false, stride, 0);
+            glVertexAttribPointer(1, 4, GL_UNSIGNED_BYTE, true, stride, PackedVertexBuilder.colorOffset);
+            glVertexAttribPointer(2, 2, GL_UNSIGNED_SHORT, true, stride, PackedVertexBuilder.texCoordsOffset);
+        } else if (this == MULTI_FONT) {
+
+            int stride = PackedVertexBuilder.slotVertexBytes;
+            glVertexAttribPointer(0, 2, GL_FLOAT, false, stride, 0);
+            glVertexAttribPointer(1, 4, GL_UNSIGNED_BYTE, true, stride, PackedVertexBuilder.colorOffset);
+            glVertexAttribPointer(2, 2, GL_UNSIGNED_SHORT, true, stride, PackedVertexBuilder.texCoordsOffset);
+            glVertexAttribIPointer(3, 1, GL_UNSIGNED_BYTE, stride, PackedVertexBuilder.slotOffset);                     // Integer attribute, so not normalized.
+            glEnableVertexAttribArray(3);
+        } else {
+
+            int stride = QuadVertexBuilder.vertexBytes;
+            glVertexAttribPointer(0, 2, GL_FLOAT, false, stride, 0);
+            glVertexAttribPointer(1, 3, GL_FLOAT, false, stride, 2 * Float.BYTES);                                      // Alpha defaults to one.
+            glVertexAttribPointer(2, 2, GL_FLOAT, false, stride, 5 * Float.BYTES);
+        }
+        glEnableVertexAttribArray(0);
+        glEnableVertexAttribArray(1);
+        glEnableVertexAttribArray(2);
+    }
+}
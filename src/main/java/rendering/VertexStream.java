@@ -0,0 +1,60 @@
+package rendering;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This interface represents a way of streaming vertices to a vertex buffer object every time a batch is flushed.
+ * Each flush follows the same cycle: begin (get somewhere to write vertices), commit (make written vertices available
+ * to the GPU), draw, then end (mark the committed vertices as in use by the GPU).
+ */
+public interface VertexStream {
+
+    /**
+     * Creates the vertex buffer object and leaves it bound to GL_ARRAY_BUFFER so that attribute pointers can be set.
+     *
+     * @param capacity maximum number of bytes that can be written between begin and commit
+     */
+    void init(int capacity);
+
+
+    /**
+     * Retrieves the buffer that the next batch of vertices is written into.
+     * Vertices must be written with absolute puts starting at index zero, in native byte order.
+     * The same buffer is returned until commit is called.
+     *
+     * @return direct buffer (native byte order) with room for the capacity passed to init
+     */
+    ByteBuffer begin();
+
+
+    /**
+     * Makes the vertices written since begin available to the GPU.
+     *
+     * @param byteCount number of bytes written, starting at index zero
+     * @return offset (in bytes) of the committed vertices within the vertex buffer object
+     */
+    int commit(int byteCount);
+
+
+    /**
+     * Marks the most recently committed vertices as in use by the draw call just issued.
+     * They will not be overwritten until the GPU has finished with them.
+     */
+    void end();
+
+
+    /**
+     * Retrieves the total number of vertex bytes made available to the GPU.
+     *
+     * @return bytes uploaded
+     */
+    long getBytesUploaded();
+
+
+    /**
+     * Retrieves the ID of the vertex buffer object that committed vertices live in.
+     *
+     * @return vertex buffer object ID, or 0 if there is none
+     */
+    int getBufferId();
+}
@@ -0,0 +1,81 @@
+package sdf;
+
+/**
+ * This class computes distance fields by searching a square window around each sampled pixel.
+ * Every sample costs O(spread^2), so this engine is very slow at high resolutions.
+ * It is kept as a reference implementation to verify faster engines against.
+ */
+public class BruteForceDistanceField implements DistanceFieldEngine {
+
+    // METHODS
+    @Override
+    public DistanceField compute(byte[] bitmap, int width, int height, int margin, int spread) {
+
+        return (x, y) -> findNearestPixel(x, y, bitmap, width, height, spread);                                         // Nothing to precompute; each sample does its own search.
+    }
+
+
+    /**
+     * Finds the nearest pixel to the passed X and Y of a different state inside the passed bitmap.
+     * The Pythagorean theorem is used.
+     *
+     * @param pixelX target pixel (X)
+     * @param pixelY target pixel (Y)
+     * @param bitmap target bitmap
+     * @param width bitmap width
+     * @param height bitmap height
+     * @param spread spread factor (i.e., radius of square region around pixel to check)
+     * @return nearest pixel
+     */
+    private static float findNearestPixel(int pixelX, int pixelY, byte[] bitmap,
+                                          int width, int height, int spread) {
+
+        int state = getPixel(pixelX, pixelY, bitmap, width, height);
+        int minX = pixelX - spread;
+        int maxX = pixelX + spread;
+        int minY = pixelY - spread;
+        int maxY = pixelY + spread;
+        float minDistance = spread * spread;
+
+        for (int y = minY; y < maxY; y++) {
+
+            for (int x = minX; x < maxX; x++) {
+
+                int pixelState = getPixel(x, y, bitmap, width, height);
+                float dxSquared = (x - pixelX) * (x - pixelX);
+                float dySquared = (y - pixelY) * (y - pixelY);
+                float distanceSquared = dxSquared + dySquared;
+
+                if (pixelState != state) {
+
+                    minDistance = Math.min(distanceSquared, minDistance);
+                }
+            }
+        }
+        minDistance = (float)Math.sqrt(minDistance);
+        float output = (minDistance - 0.5f) / (spread - 0.5f);
+        output *= ((state == 0) ? -1 : 1);                                                                              // If off (black) pixel, multiply by -1; if on (white) pixel, multiply by 1.
+
+        return (output + 1) * 0.5f;                                                                                     // Map from [-1, 1] to [0, 1].
+    }
+
+
+    /**
+     * Retrieves the target pixel.
+     *
+     * @param x target pixel (X)
+     * @param y target pixel (Y)
+     * @param bitmap target bitmap
+     * @param width bitmap width
+     * @param height bitmap height
+     * @return pixel; returns 1 if found, 0 if not
+     */
+    private static int getPixel(int x, int y, byte[] bitmap, int width, int height) {
+
+        if ((x >= 0) && (x < width) && (y >= 0) && (y < height)) {                                                      // Check if in range of bitmap.
+
+            return (((bitmap[x + y * width] & 0xFF) == 0) ? 0 : 1);
+        }
+        return 0;
+    }
+}
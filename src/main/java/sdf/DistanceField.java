@@ -0,0 +1,17 @@
+package sdf;
+
+/**
+ * This interface represents a computed distance field over a glyph bitmap.
+ * Samples are taken in the coordinate space of the source bitmap, but may fall outside of it (e.g., in padding).
+ */
+public interface DistanceField {
+
+    /**
+     * Samples this distance field at the target pixel.
+     *
+     * @param x target pixel (X)
+     * @param y target pixel (Y)
+     * @return signed distance mapped into a [0, 1] range, where 0.5 lies on the glyph edge
+     */
+    float sample(int x, int y);
+}
@@ -0,0 +1,21 @@
+package sdf;
+
+/**
+ * This interface represents an algorithm for computing distance fields from glyph bitmaps.
+ * Engines are stateless and can be shared between threads.
+ */
+public interface DistanceFieldEngine {
+
+    /**
+     * Computes a distance field for the passed bitmap.
+     * Any non-zero byte in the bitmap is treated as an on (inside) pixel.
+     *
+     * @param bitmap source bitmap (one byte per pixel, row-major)
+     * @param width bitmap width
+     * @param height bitmap height
+     * @param margin number of pixels outside each edge of the bitmap that will be sampled
+     * @param spread spread factor (i.e., maximum distance that is measured before clamping)
+     * @return distance field
+     */
+    DistanceField compute(byte[] bitmap, int width, int height, int margin, int spread);
+}
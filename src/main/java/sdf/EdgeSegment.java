@@ -0,0 +1,394 @@
+package sdf;
+
+/**
+ * This class represents a single edge of a glyph outline: a line, quadratic curve, or cubic curve.
+ * Each edge carries a color (a set of RGB channels) that decides which MSDF channels it contributes to.
+ */
+class EdgeSegment {
+
+    // FIELDS
+    /**
+     * Channel flags used for edge colors.
+     */
+    static final int RED = 1, GREEN = 2, BLUE = 4;
+
+    /**
+     * Edge colors made of two channels, plus white (all channels).
+     */
+    static final int YELLOW = RED | GREEN, MAGENTA = RED | BLUE, CYAN = GREEN | BLUE, WHITE = RED | GREEN | BLUE;
+
+    /**
+     * Number of initial samples taken along a curve when searching for its closest point.
+     */
+    private static final int curveSamples = 8;
+
+    /**
+     * Number of Newton iterations used to refine the closest point on a curve.
+     */
+    private static final int newtonIterations = 4;
+
+    /**
+     * Control points (X); two for a line, three for a quadratic curve, and four for a cubic curve.
+     */
+    private final double[] x;
+
+    /**
+     * Control points (Y); two for a line, three for a quadratic curve, and four for a cubic curve.
+     */
+    private final double[] y;
+
+    /**
+     * Channels that this edge contributes to.
+     */
+    int color = WHITE;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs an EdgeSegment instance.
+     *
+     * @param x control points (X)
+     * @param y control points (Y)
+     */
+    EdgeSegment(double[] x, double[] y) {
+        this.x = x;
+        this.y = y;
+    }
+
+
+    // METHODS
+    /**
+     * Computes the signed distance from the passed point to this edge.
+     * The sign is positive when the point lies to the right of the edge direction.
+     * Results are written to the passed array: [0] signed distance, [1] orthogonality (0 when the closest point is
+     * inside the edge, higher when the point lies off an endpoint at a shallow angle), and [2] edge parameter
+     * (below 0 or above 1 when the point lies beyond an endpoint).
+     *
+     * @param px target point (X)
+     * @param py target point (Y)
+     * @param out output array of length three
+     */
+    void signedDistance(double px, double py, double[] out) {
+
+        double t = closestParameter(px, py);
+        double qx = px - pointX(t);
+        double qy = py - pointY(t);
+        double dx = directionX(t);
+        double dy = directionY(t);
+        double distance = Math.sqrt(qx * qx + qy * qy);
+        double sign = (cross(qx, qy, dx, dy) >= 0) ? 1 : -1;
+        double param = t;
+        double dot = 0;
+
+        if ((t <= 0) || (t >= 1)) {                                                                                     // Closest point is an endpoint.
+
+            double length = Math.sqrt(dx * dx + dy * dy);
+            param = ((t <= 0) ? 0 : 1) + (qx * dx + qy * dy) / (length * length);
+            dot = (distance > 0) ? Math.abs((qx * dx + qy * dy) / (length * distance)) : 0;
+        }
+        out[0] = sign * distance;
+        out[1] = dot;
+        out[2] = param;
+    }
+
+
+    /**
+     * Converts a signed distance produced by {@link #signedDistance} into a pseudo-distance.
+     * When the point lies beyond an endpoint, the distance to the tangent line extended from that endpoint is used
+     * instead if it is smaller, which keeps corners sharp when channels are combined.
+     *
+     * @param px target point (X)
+     * @param py target point (Y)
+     * @param out signed distance result to convert in place
+     */
+    void pseudoDistance(double px, double py, double[] out) {
+
+        if ((out[2] < 0) || (out[2] > 1)) {
+
+            double t = (out[2] < 0) ? 0 : 1;
+            double dx = directionX(t);
+            double dy = directionY(t);
+            double length = Math.sqrt(dx * dx + dy * dy);
+            dx /= length;
+            dy /= length;
+            double qx = px - pointX(t);
+            double qy = py - pointY(t);
+            double ts = qx * dx + qy * dy;
+
+            if ((t == 0) ? (ts < 0) : (ts > 0)) {                                                                       // Point lies beyond endpoint along tangent.
+
+                double pseudo = cross(qx, qy, dx, dy);
+
+                if (Math.abs(pseudo) <= Math.abs(out[0])) {
+
+                    out[0] = pseudo;
+                    out[1] = 0;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Finds the parameter of the point on this edge closest to the passed point, clamped to [0, 1].
+     *
+     * @param px target point (X)
+     * @param py target point (Y)
+     * @return parameter
+     */
+    private double closestParameter(double px, double py) {
+
+        if (x.length == 2) {                                                                                            // Line; closed form.
+
+            double abx = x[1] - x[0];
+            double aby = y[1] - y[0];
+            double t = ((px - x[0]) * abx + (py - y[0]) * aby) / (abx * abx + aby * aby);
+            return Math.max(0, Math.min(1, t));
+        }
+        double bestT = 0;
+        double bestDistance = Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i <= curveSamples; i++) {                                                                       // Coarse search for starting point.
+
+            double t = (double)i / curveSamples;
+            double qx = pointX(t) - px;
+            double qy = pointY(t) - py;
+            double distance = qx * qx + qy * qy;
+
+            if (distance < bestDistance) {
+
+                bestDistance = distance;
+                bestT = t;
+            }
+        }
+        double t = bestT;
+
+        for (int i = 0; i < newtonIterations; i++) {                                                                    // Refine with Newton's method on d/dt |P(t) - p|^2.
+
+            double qx = pointX(t) - px;
+            double qy = pointY(t) - py;
+            double d1x = directionX(t);
+            double d1y = directionY(t);
+            double numerator = qx * d1x + qy * d1y;
+            double denominator = d1x * d1x + d1y * d1y + qx * secondDerivativeX(t) + qy * secondDerivativeY(t);
+
+            if (denominator == 0) {
+
+                break;
+            }
+            t = Math.max(0, Math.min(1, t - numerator / denominator));
+        }
+        double qx = pointX(t) - px;
+        double qy = pointY(t) - py;
+        return ((qx * qx + qy * qy) <= bestDistance) ? t : bestT;
+    }
+
+
+    /**
+     * Splits this edge into three edges of equal parameter length.
+     * Used when a contour has too few edges to be colored.
+     *
+     * @return three edges sharing this edge's color
+     */
+    EdgeSegment[] splitInThirds() {
+
+        EdgeSegment[] parts = new EdgeSegment[3];
+
+        for (int i = 0; i < 3; i++) {
+
+            parts[i] = subsegment(i / 3.0, (i + 1) / 3.0);
+            parts[i].color = color;
+        }
+        return parts;
+    }
+
+
+    /**
+     * Creates the portion of this edge between two parameters.
+     *
+     * @param t0 start parameter
+     * @param t1 end parameter
+     * @return edge portion
+     */
+    private EdgeSegment subsegment(double t0, double t1) {
+
+        int n = x.length;
+        double[] sx = new double[n];
+        double[] sy = new double[n];
+        double h = (t1 - t0) / (n - 1);
+        sx[0] = pointX(t0);
+        sy[0] = pointY(t0);
+        sx[n - 1] = pointX(t1);
+        sy[n - 1] = pointY(t1);
+
+        if (n == 3) {                                                                                                   // Quadratic; control point from tangent at start.
+
+            sx[1] = sx[0] + directionX(t0) * h;
+            sy[1] = sy[0] + directionY(t0) * h;
+        } else if (n == 4) {                                                                                            // Cubic; control points from tangents at both ends.
+
+            sx[1] = sx[0] + directionX(t0) * h;
+            sy[1] = sy[0] + directionY(t0) * h;
+            sx[2] = sx[3] - directionX(t1) * h;
+            sy[2] = sy[3] - directionY(t1) * h;
+        }
+        return new EdgeSegment(sx, sy);
+    }
+
+
+    /**
+     * Computes the point on this edge at the passed parameter (X).
+     *
+     * @param t parameter
+     * @return point (X)
+     */
+    double pointX(double t) {
+
+        return evaluate(x, t);
+    }
+
+
+    /**
+     * Computes the point on this edge at the passed parameter (Y).
+     *
+     * @param t parameter
+     * @return point (Y)
+     */
+    double pointY(double t) {
+
+        return evaluate(y, t);
+    }
+
+
+    /**
+     * Computes the direction (first derivative) of this edge at the passed parameter (X).
+     * Falls back to the chord between the endpoints if the derivative vanishes.
+     *
+     * @param t parameter
+     * @return direction (X)
+     */
+    double directionX(double t) {
+
+        double dx = derivative(x, t);
+        double dy = derivative(y, t);
+        return ((dx == 0) && (dy == 0)) ? (x[x.length - 1] - x[0]) : dx;
+    }
+
+
+    /**
+     * Computes the direction (first derivative) of this edge at the passed parameter (Y).
+     * Falls back to the chord between the endpoints if the derivative vanishes.
+     *
+     * @param t parameter
+     * @return direction (Y)
+     */
+    double directionY(double t) {
+
+        double dx = derivative(x, t);
+        double dy = derivative(y, t);
+        return ((dx == 0) && (dy == 0)) ? (y[y.length - 1] - y[0]) : dy;
+    }
+
+
+    /**
+     * Computes the second derivative of this edge at the passed parameter (X).
+     *
+     * @param t parameter
+     * @return second derivative (X)
+     */
+    private double secondDerivativeX(double t) {
+
+        return secondDerivative(x, t);
+    }
+
+
+    /**
+     * Computes the second derivative of this edge at the passed parameter (Y).
+     *
+     * @param t parameter
+     * @return second derivative (Y)
+     */
+    private double secondDerivativeY(double t) {
+
+        return secondDerivative(y, t);
+    }
+
+
+    /**
+     * Evaluates a Bezier curve of degree one to three.
+     *
+     * @param p control points
+     * @param t parameter
+     * @return value
+     */
+    private static double evaluate(double[] p, double t) {
+
+        double s = 1 - t;
+
+        switch (p.length) {
+            case 2:
+                return s * p[0] + t * p[1];
+            case 3:
+                return s * s * p[0] + 2 * s * t * p[1] + t * t * p[2];
+            default:
+                return s * s * s * p[0] + 3 * s * s * t * p[1] + 3 * s * t * t * p[2] + t * t * t * p[3];
+        }
+    }
+
+
+    /**
+     * Evaluates the first derivative of a Bezier curve of degree one to three.
+     *
+     * @param p control points
+     * @param t parameter
+     * @return value
+     */
+    private static double derivative(double[] p, double t) {
+
+        double s = 1 - t;
+
+        switch (p.length) {
+            case 2:
+                return p[1] - p[0];
+            case 3:
+                return 2 * s * (p[1] - p[0]) + 2 * t * (p[2] - p[1]);
+            default:
+                return 3 * s * s * (p[1] - p[0]) + 6 * s * t * (p[2] - p[1]) + 3 * t * t * (p[3] - p[2]);
+        }
+    }
+
+
+    /**
+     * Evaluates the second derivative of a Bezier curve of degree one to three.
+     *
+     * @param p control points
+     * @param t parameter
+     * @return value
+     */
+    private static double secondDerivative(double[] p, double t) {
+
+        switch (p.length) {
+            case 2:
+                return 0;
+            case 3:
+                return 2 * (p[2] - 2 * p[1] + p[0]);
+            default:
+                return 6 * (1 - t) * (p[2] - 2 * p[1] + p[0]) + 6 * t * (p[3] - 2 * p[2] + p[1]);
+        }
+    }
+
+
+    /**
+     * Computes the two-dimensional cross product of two vectors.
+     *
+     * @param ax first vector (X)
+     * @param ay first vector (Y)
+     * @param bx second vector (X)
+     * @param by second vector (Y)
+     * @return cross product
+     */
+    static double cross(double ax, double ay, double bx, double by) {
+
+        return ax * by - ay * bx;
+    }
+}
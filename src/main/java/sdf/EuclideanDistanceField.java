@@ -0,0 +1,177 @@
+package sdf;
+
+/**
+ * This class computes distance fields with an exact separable Euclidean distance transform (EDT).
+ * The transform follows Felzenszwalb and Huttenlocher: a one-dimensional lower envelope of parabolas is built for
+ * every column and then every row, so an entire bitmap is processed in O(width * height) regardless of spread.
+ * The field is computed once up front and every sample afterward is a single array read.
+ */
+public class EuclideanDistanceField implements DistanceFieldEngine {
+
+    // FIELDS
+    /**
+     * Value used to mark pixels that are not feature pixels (i.e., infinitely far from a feature).
+     */
+    private static final float INF = 1e20f;
+
+
+    // METHODS
+    @Override
+    public DistanceField compute(byte[] bitmap, int width, int height, int margin, int spread) {
+
+        int gridWidth = width + margin * 2;                                                                             // Grid covers bitmap plus margin on left and right.
+        int gridHeight = height + margin * 2;                                                                           // Grid covers bitmap plus margin on top and bottom.
+        float[] toOn = new float[gridWidth * gridHeight];                                                               // Squared distance from each pixel to nearest on pixel.
+        float[] toOff = new float[gridWidth * gridHeight];                                                              // Squared distance from each pixel to nearest off pixel.
+
+        for (int y = 0; y < gridHeight; y++) {
+
+            for (int x = 0; x < gridWidth; x++) {
+
+                int bitmapX = x - margin;
+                int bitmapY = y - margin;
+                boolean on = (bitmapX >= 0) && (bitmapX < width) && (bitmapY >= 0) && (bitmapY < height)
+                        && ((bitmap[bitmapX + bitmapY * width] & 0xFF) != 0);
+                toOn[x + y * gridWidth] = on ? 0 : INF;
+                toOff[x + y * gridWidth] = on ? INF : 0;
+            }
+        }
+        transform(toOn, gridWidth, gridHeight);
+        transform(toOff, gridWidth, gridHeight);
+
+        float[] field = toOn;                                                                                           // Reuse first grid for final output.
+        float maxDistance = spread * spread;
+
+        for (int i = 0; i < field.length; i++) {
+
+            boolean on = (toOn[i] == 0);
+            float distanceSquared = Math.min(on ? toOff[i] : toOn[i], maxDistance);                                     // Clamp to spread, same as a windowed search would.
+            float output = ((float)Math.sqrt(distanceSquared) - 0.5f) / (spread - 0.5f);
+            output *= (on ? 1 : -1);                                                                                    // If off (black) pixel, multiply by -1; if on (white) pixel, multiply by 1.
+            field[i] = (output + 1) * 0.5f;                                                                             // Map from [-1, 1] to [0, 1].
+        }
+
+        return (x, y) -> {
+            int gridX = Math.max(0, Math.min(gridWidth - 1, x + margin));                                              // Clamp samples that stray outside the margin.
+            int gridY = Math.max(0, Math.min(gridHeight - 1, y + margin));
+            return field[gridX + gridY * gridWidth];
+        };
+    }
+
+
+    /**
+     * Transforms the passed grid in place from feature markers (0 for feature, INF otherwise) into squared distances
+     * to the nearest feature pixel.
+     *
+     * @param grid target grid
+     * @param width grid width
+     * @param height grid height
+     */
+    private static void transform(float[] grid, int width, int height) {
+
+        int length = Math.max(width, height);
+        float[] f = new float[length];
+        float[] d = new float[length];
+        int[] v = new int[length];
+        double[] z = new double[length + 1];
+
+        for (int x = 0; x < width; x++) {                                                                               // First pass: transform along each column.
+
+            for (int y = 0; y < height; y++) {
+
+                f[y] = grid[x + y * width];
+            }
+            transform1d(f, height, d, v, z);
+
+            for (int y = 0; y < height; y++) {
+
+                grid[x + y * width] = d[y];
+            }
+        }
+
+        for (int y = 0; y < height; y++) {                                                                              // Second pass: transform along each row.
+
+            System.arraycopy(grid, y * width, f, 0, width);
+            transform1d(f, width, d, v, z);
+            System.arraycopy(d, 0, grid, y * width, width);
+        }
+    }
+
+
+    /**
+     * Computes the one-dimensional squared distance transform of the passed sampled function.
+     * Samples equal to INF are skipped so that no parabola is ever built from an infinite value.
+     *
+     * @param f sampled function
+     * @param n number of samples
+     * @param d output squared distances
+     * @param v scratch array for parabola locations
+     * @param z scratch array for boundaries between parabolas
+     */
+    private static void transform1d(float[] f, int n, float[] d, int[] v, double[] z) {
+
+        int k = -1;                                                                                                     // Index of rightmost parabola in lower envelope.
+
+        for (int q = 0; q < n; q++) {
+
+            if (f[q] >= INF) {
+
+                continue;
+            }
+
+            if (k < 0) {
+
+                k = 0;
+                v[0] = q;
+                z[0] = Double.NEGATIVE_INFINITY;
+                z[1] = Double.POSITIVE_INFINITY;
+                continue;
+            }
+            double s = intersect(f, q, v[k]);
+
+            while (s <= z[k]) {                                                                                         // New parabola hides the previous one; pop it.
+
+                k--;
+                s = intersect(f, q, v[k]);
+            }
+            k++;
+            v[k] = q;
+            z[k] = s;
+            z[k + 1] = Double.POSITIVE_INFINITY;
+        }
+
+        if (k < 0) {                                                                                                    // No feature pixels on this line.
+
+            for (int q = 0; q < n; q++) {
+
+                d[q] = INF;
+            }
+            return;
+        }
+        k = 0;
+
+        for (int q = 0; q < n; q++) {
+
+            while (z[k + 1] < q) {
+
+                k++;
+            }
+            float dq = q - v[k];
+            d[q] = dq * dq + f[v[k]];
+        }
+    }
+
+
+    /**
+     * Finds the horizontal position where the parabolas rooted at the two passed samples intersect.
+     *
+     * @param f sampled function
+     * @param q first sample
+     * @param p second sample
+     * @return intersection
+     */
+    private static double intersect(float[] f, int q, int p) {
+
+        return ((f[q] + (double)q * q) - (f[p] + (double)p * p)) / (2.0 * (q - p));
+    }
+}
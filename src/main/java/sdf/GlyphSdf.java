@@ -0,0 +1,129 @@
+package sdf;
+
+/**
+ * This class represents a generated SDF (Signed Distance Field) for a single character.
+ * Multi-channel SDFs (MSDFs) store three interleaved channels per pixel.
+ */
+public class GlyphSdf {
+
+    // FIELDS
+    /**
+     * Character that this SDF was generated for.
+     */
+    private final int codepoint;
+
+    /**
+     * Width of SDF bitmap (including padding).
+     */
+    private final int width;
+
+    /**
+     * Height of SDF bitmap (including padding).
+     */
+    private final int height;
+
+    /**
+     * Number of channels stored per pixel (one for SDFs, three for MSDFs).
+     */
+    private final int channels;
+
+    /**
+     * SDF bitmap (channels interleaved per pixel, row-major, top row first).
+     * A value of 128 lies roughly on the glyph edge; higher values are inside the glyph.
+     */
+    private final byte[] pixels;
+
+    /**
+     * Time taken to rasterize this character and compute its distance field (nanoseconds).
+     */
+    private final long generationNanos;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs a GlyphSdf instance.
+     *
+     * @param codepoint character that this SDF was generated for
+     * @param width width of SDF bitmap
+     * @param height height of SDF bitmap
+     * @param pixels SDF bitmap
+     * @param generationNanos time taken to generate this SDF (nanoseconds)
+     */
+    public GlyphSdf(int codepoint, int width, int height, byte[] pixels, long generationNanos) {
+        this(codepoint, width, height, 1, pixels, generationNanos);
+    }
+
+
+    /**
+     * Constructs a GlyphSdf instance with the specified number of channels.
+     *
+     * @param codepoint character that this SDF was generated for
+     * @param width width of SDF bitmap
+     * @param height height of SDF bitmap
+     * @param channels number of channels stored per pixel
+     * @param pixels SDF bitmap
+     * @param generationNanos time taken to generate this SDF (nanoseconds)
+     */
+    public GlyphSdf(int codepoint, int width, int height, int channels, byte[] pixels, long generationNanos) {
+        this.codepoint = codepoint;
+        this.width = width;
+        this.height = height;
+        this.channels = channels;
+        this.pixels = pixels;
+        this.generationNanos = generationNanos;
+    }
+
+
+    // METHODS
+    /**
+     * Retrieves the first channel of the target pixel of this SDF.
+     *
+     * @param x target pixel (X)
+     * @param y target pixel (Y)
+     * @return pixel value from 0 to 255
+     */
+    public int getPixel(int x, int y) {
+
+        return getPixel(x, y, 0);
+    }
+
+
+    /**
+     * Retrieves a channel of the target pixel of this SDF.
+     *
+     * @param x target pixel (X)
+     * @param y target pixel (Y)
+     * @param channel target channel
+     * @return pixel value from 0 to 255
+     */
+    public int getPixel(int x, int y, int channel) {
+
+        return pixels[(x + y * width) * channels + channel] & 0xFF;
+    }
+
+
+    // GETTERS
+    public int getCodepoint() {
+        return codepoint;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public byte[] getPixels() {
+        return pixels;
+    }
+
+    public long getGenerationNanos() {
+        return generationNanos;
+    }
+}
@@ -0,0 +1,398 @@
+package sdf;
+
+import java.awt.Font;
+import java.awt.Shape;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class generates MSDFs (Multi-channel Signed Distance Fields) directly from vector glyph outlines.
+ * Each outline edge is assigned a color (a pair of RGB channels, or all three on smooth contours) so that the two
+ * edges meeting at a sharp corner never share every channel.
+ * The median of the three channels then reproduces the corner exactly, while a single-channel SDF would round it off.
+ * No intermediate raster is created; distances are measured against the outline curves themselves.
+ */
+public class MsdfGenerator {
+
+    // FIELDS
+    /**
+     * Sine of the minimum angle between two edge directions for their meeting point to count as a corner.
+     */
+    private static final double cornerThreshold = Math.sin(3.0);
+
+    /**
+     * Font (at target size) to generate MSDFs from.
+     */
+    private final Font font;
+
+    /**
+     * Padding around characters in generated MSDFs.
+     * This is also the distance (in pixels) at which the MSDF saturates.
+     */
+    private final int padding;
+
+    /**
+     * Render context used to create glyph outlines.
+     */
+    private final FontRenderContext frc = new FontRenderContext(null, true, true);
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs an MsdfGenerator instance.
+     *
+     * @param font font (at target size) to generate MSDFs from
+     * @param padding padding around characters in generated MSDFs
+     */
+    public MsdfGenerator(Font font, int padding) {
+        this.font = font;
+        this.padding = padding;
+    }
+
+
+    // METHODS
+    /**
+     * Generates an MSDF of the target character, sized to the character's outline bounds plus padding.
+     *
+     * @param codepoint character to render
+     * @return MSDF with three channels
+     */
+    public GlyphSdf generate(int codepoint) {
+
+        long startNanos = System.nanoTime();
+        Shape outline = font.createGlyphVector(frc, new String(Character.toChars(codepoint))).getOutline();
+        Rectangle2D bounds = outline.getBounds2D();
+        int width = (int)Math.ceil(bounds.getWidth()) + padding * 2;
+        int height = (int)Math.ceil(bounds.getHeight()) + padding * 2;
+        double originX = padding - Math.floor(bounds.getX());                                                           // Position of outline origin (baseline) in output.
+        double originY = padding - Math.floor(bounds.getY());
+
+        return generate(codepoint, outline, width, height, originX, originY, padding, startNanos);
+    }
+
+
+    /**
+     * Generates an MSDF of the passed outline.
+     *
+     * @param codepoint character that the outline belongs to
+     * @param outline glyph outline (origin on baseline, positive Y down)
+     * @param width output MSDF width
+     * @param height output MSDF height
+     * @param originX position of outline origin in output MSDF (X)
+     * @param originY position of outline origin in output MSDF (Y)
+     * @param range distance (in pixels) at which the MSDF saturates
+     * @param startNanos time at which generation of this character started (nanoseconds)
+     * @return MSDF with three channels
+     */
+    public static GlyphSdf generate(int codepoint, Shape outline, int width, int height,
+                                    double originX, double originY, double range, long startNanos) {
+
+        List<List<EdgeSegment>> contours = parseContours(outline);
+        colorEdges(contours);
+        List<EdgeSegment> edges = new ArrayList<>();
+        double area = 0;
+
+        for (List<EdgeSegment> contour : contours) {
+
+            edges.addAll(contour);
+            for (EdgeSegment edge : contour) {
+                area += EdgeSegment.cross(edge.pointX(0), edge.pointY(0), edge.pointX(1), edge.pointY(1));               // Shoelace formula over edge endpoints.
+            }
+        }
+        double orientation = (area > 0) ? -1 : 1;                                                                       // Flip signs so that inside is positive.
+        byte[] pixels = new byte[width * height * 3];
+        double[] sd = new double[3];
+        double[] bestDistance = new double[3];
+        double[] bestDot = new double[3];
+        EdgeSegment[] bestEdge = new EdgeSegment[3];
+        double[] channel = new double[3];
+
+        for (int y = 0; y < height; y++) {
+
+            for (int x = 0; x < width; x++) {
+
+                double px = x + 0.5 - originX;                                                                          // Sample at pixel center.
+                double py = y + 0.5 - originY;
+                double trueDistance = Double.POSITIVE_INFINITY;
+
+                for (int c = 0; c < 3; c++) {
+                    bestDistance[c] = Double.POSITIVE_INFINITY;
+                    bestDot[c] = Double.POSITIVE_INFINITY;
+                    bestEdge[c] = null;
+                }
+
+                for (EdgeSegment edge : edges) {                                                                        // Find nearest edge per channel.
+
+                    edge.signedDistance(px, py, sd);
+                    double distance = Math.abs(sd[0]);
+                    trueDistance = Math.min(trueDistance, distance);
+
+                    for (int c = 0; c < 3; c++) {
+
+                        if (((edge.color & (1 << c)) != 0)
+                                && ((distance < bestDistance[c])
+                                || ((distance == bestDistance[c]) && (sd[1] < bestDot[c])))) {
+
+                            bestDistance[c] = distance;
+                            bestDot[c] = sd[1];
+                            bestEdge[c] = edge;
+                        }
+                    }
+                }
+                boolean inside = outline.contains(px, py);
+                double signedTrueDistance = inside ? trueDistance : -trueDistance;
+
+                for (int c = 0; c < 3; c++) {                                                                           // Convert nearest edge per channel into pseudo-distance.
+
+                    if (bestEdge[c] == null) {
+
+                        channel[c] = signedTrueDistance;
+                        continue;
+                    }
+                    bestEdge[c].signedDistance(px, py, sd);
+                    bestEdge[c].pseudoDistance(px, py, sd);
+                    channel[c] = sd[0] * orientation;
+                }
+
+                if ((median(channel[0], channel[1], channel[2]) > 0) != inside) {                                       // Channels disagree with outline; fall back to true distance.
+
+                    channel[0] = signedTrueDistance;
+                    channel[1] = signedTrueDistance;
+                    channel[2] = signedTrueDistance;
+                }
+                int index = (x + y * width) * 3;
+
+                for (int c = 0; c < 3; c++) {
+
+                    double value = Math.max(0, Math.min(1, 0.5 + channel[c] / (2 * range)));                            // Map from [-range, range] to [0, 1].
+                    pixels[index + c] = (byte)(int)Math.round(value * 255.0);
+                }
+            }
+        }
+        return new GlyphSdf(codepoint, width, height, 3, pixels, System.nanoTime() - startNanos);
+    }
+
+
+    /**
+     * Splits the passed outline into closed contours of edges.
+     * Degenerate (zero-length) edges are dropped.
+     *
+     * @param outline glyph outline
+     * @return contours
+     */
+    private static List<List<EdgeSegment>> parseContours(Shape outline) {
+
+        List<List<EdgeSegment>> contours = new ArrayList<>();
+        List<EdgeSegment> contour = null;
+        double[] coords = new double[6];
+        double startX = 0, startY = 0;
+        double lastX = 0, lastY = 0;
+
+        for (PathIterator it = outline.getPathIterator(null); !it.isDone(); it.next()) {
+
+            switch (it.currentSegment(coords)) {
+                case PathIterator.SEG_MOVETO:
+                    closeContour(contour, lastX, lastY, startX, startY, contours);
+                    contour = new ArrayList<>();
+                    startX = lastX = coords[0];
+                    startY = lastY = coords[1];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    addEdge(contour, new double[] {lastX, coords[0]}, new double[] {lastY, coords[1]});
+                    lastX = coords[0];
+                    lastY = coords[1];
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    addEdge(contour, new double[] {lastX, coords[0], coords[2]},
+                            new double[] {lastY, coords[1], coords[3]});
+                    lastX = coords[2];
+                    lastY = coords[3];
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    addEdge(contour, new double[] {lastX, coords[0], coords[2], coords[4]},
+                            new double[] {lastY, coords[1], coords[3], coords[5]});
+                    lastX = coords[4];
+                    lastY = coords[5];
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    closeContour(contour, lastX, lastY, startX, startY, contours);
+                    contour = null;
+                    lastX = startX;
+                    lastY = startY;
+                    break;
+            }
+        }
+        closeContour(contour, lastX, lastY, startX, startY, contours);
+        return contours;
+    }
+
+
+    /**
+     * Adds an edge to the passed contour unless all of its control points coincide.
+     *
+     * @param contour target contour
+     * @param x control points (X)
+     * @param y control points (Y)
+     */
+    private static void addEdge(List<EdgeSegment> contour, double[] x, double[] y) {
+
+        if (contour == null) {
+
+            return;
+        }
+
+        for (int i = 1; i < x.length; i++) {
+
+            if ((x[i] != x[0]) || (y[i] != y[0])) {
+
+                contour.add(new EdgeSegment(x, y));
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Closes the passed contour with a line back to its start (if needed) and stores it.
+     *
+     * @param contour target contour
+     * @param lastX current point (X)
+     * @param lastY current point (Y)
+     * @param startX contour start point (X)
+     * @param startY contour start point (Y)
+     * @param contours list to store non-empty contours in
+     */
+    private static void closeContour(List<EdgeSegment> contour, double lastX, double lastY,
+                                     double startX, double startY, List<List<EdgeSegment>> contours) {
+
+        if (contour == null) {
+
+            return;
+        }
+        addEdge(contour, new double[] {lastX, startX}, new double[] {lastY, startY});
+
+        if (!contour.isEmpty()) {
+
+            contours.add(contour);
+        }
+    }
+
+
+    /**
+     * Assigns colors to the edges of every contour.
+     * Smooth contours are white; otherwise colors switch at every corner so that the edges meeting at a corner never
+     * share more than one channel.
+     * A contour with a single corner (teardrop) is split into a start, middle, and end section instead.
+     *
+     * @param contours target contours
+     */
+    private static void colorEdges(List<List<EdgeSegment>> contours) {
+
+        int[] palette = {EdgeSegment.CYAN, EdgeSegment.MAGENTA, EdgeSegment.YELLOW};
+
+        for (List<EdgeSegment> contour : contours) {
+
+            List<Integer> corners = new ArrayList<>();
+
+            for (int i = 0; i < contour.size(); i++) {
+
+                EdgeSegment previous = contour.get((i + contour.size() - 1) % contour.size());
+                if (isCorner(previous, contour.get(i))) {
+                    corners.add(i);
+                }
+            }
+
+            if (corners.isEmpty()) {
+
+                for (EdgeSegment edge : contour) {
+                    edge.color = EdgeSegment.WHITE;
+                }
+            } else if (corners.size() == 1) {
+
+                if (contour.size() < 3) {                                                                               // Need at least three edges to color a teardrop.
+
+                    List<EdgeSegment> split = new ArrayList<>();
+                    for (int i = 0; i < contour.size(); i++) {
+                        for (EdgeSegment part : contour.get((corners.get(0) + i) % contour.size()).splitInThirds()) {
+                            split.add(part);
+                        }
+                    }
+                    contour.clear();
+                    contour.addAll(split);
+                    corners.set(0, 0);
+                }
+                int[] colors = {EdgeSegment.MAGENTA, EdgeSegment.WHITE, EdgeSegment.YELLOW};
+                int m = contour.size();
+
+                for (int i = 0; i < m; i++) {
+                    contour.get((corners.get(0) + i) % m).color = colors[1 + symmetricalTrichotomy(i, m)];
+                }
+            } else {
+
+                int cornerCount = corners.size();
+                int start = corners.get(0);
+                int spline = 0;
+
+                for (int i = 0; i < contour.size(); i++) {
+
+                    int index = (start + i) % contour.size();
+                    if ((spline + 1 < cornerCount) && (index == corners.get(spline + 1))) {
+                        spline++;                                                                               // Reached next corner; switch color.
+                    }
+                    boolean lastClashesWithFirst = (spline == cornerCount - 1) && (spline % 3 == 0);
+                    contour.get(index).color = palette[lastClashesWithFirst ? 1 : (spline % 3)];
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Determines whether two consecutive edges meet at a corner.
+     *
+     * @param previous edge ending at the meeting point
+     * @param next edge starting at the meeting point
+     * @return whether the meeting point is a corner
+     */
+    private static boolean isCorner(EdgeSegment previous, EdgeSegment next) {
+
+        double ax = previous.directionX(1);
+        double ay = previous.directionY(1);
+        double bx = next.directionX(0);
+        double by = next.directionY(0);
+        double lengths = Math.sqrt(ax * ax + ay * ay) * Math.sqrt(bx * bx + by * by);
+        double dot = (ax * bx + ay * by) / lengths;
+        double cross = EdgeSegment.cross(ax, ay, bx, by) / lengths;
+        return (dot <= 0) || (Math.abs(cross) > cornerThreshold);
+    }
+
+
+    /**
+     * Maps an edge position within a contour of the passed size onto -1 (start), 0 (middle), or 1 (end).
+     *
+     * @param position edge position
+     * @param n number of edges
+     * @return section
+     */
+    private static int symmetricalTrichotomy(int position, int n) {
+
+        return (int)(3 + 2.875 * position / (n - 1) - 1.4375 + 0.5) - 3;
+    }
+
+
+    /**
+     * Computes the median of three values.
+     *
+     * @param a first value
+     * @param b second value
+     * @param c third value
+     * @return median
+     */
+    private static double median(double a, double b, double c) {
+
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+}
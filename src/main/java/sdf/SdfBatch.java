@@ -0,0 +1,248 @@
+package sdf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class generates SDFs (Signed Distance Fields) for a set of characters in parallel.
+ * One worker task is started per thread of the target pool; each worker opens its own FreeType face through an
+ * SdfGenerator and pulls characters from a shared cursor until none remain, so faces are reused across characters
+ * and uneven glyph costs are balanced automatically.
+ */
+public class SdfBatch {
+
+    // FIELDS
+    /**
+     * Characters to generate SDFs for.
+     */
+    private final int[] codepoints;
+
+    /**
+     * File path of font from program root.
+     */
+    private final String fontFile;
+
+    /**
+     * Size of SDFs to generate.
+     */
+    private final int fontSize;
+
+    /**
+     * Engine used to compute distance fields.
+     */
+    private final DistanceFieldEngine engine;
+
+    /**
+     * Generated SDFs, in the same order as the requested characters.
+     * Entries remain null for characters that could not be loaded.
+     */
+    private final GlyphSdf[] results;
+
+    /**
+     * Index of the next character to be claimed by a worker.
+     */
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    /**
+     * Number of characters that workers have finished with.
+     */
+    private final AtomicInteger completed = new AtomicInteger();
+
+    /**
+     * Whether this batch has been cancelled.
+     */
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    /**
+     * Task running this batch.
+     */
+    private ForkJoinTask<?> task;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs an SdfBatch instance.
+     *
+     * @param codepoints characters to generate SDFs for
+     * @param fontFile file path of font from program root
+     * @param fontSize size of SDFs to generate
+     * @param engine engine used to compute distance fields
+     */
+    public SdfBatch(int[] codepoints, String fontFile, int fontSize, DistanceFieldEngine engine) {
+        this.codepoints = codepoints.clone();
+        this.fontFile = fontFile;
+        this.fontSize = fontSize;
+        this.engine = engine;
+        this.results = new GlyphSdf[codepoints.length];
+    }
+
+
+    // METHODS
+    /**
+     * Starts generating this batch on the passed pool.
+     * This returns immediately; use {@link #join()} to wait for the result.
+     *
+     * @param pool pool to run workers on
+     * @return this batch
+     */
+    public SdfBatch start(ForkJoinPool pool) {
+
+        if (task != null) {
+
+            throw new IllegalStateException("Batch has already been started");
+        }
+        int workerCount = Math.max(1, Math.min(pool.getParallelism(), codepoints.length));
+        List<Worker> workers = new ArrayList<>(workerCount);
+
+        for (int i = 0; i < workerCount; i++) {
+
+            workers.add(new Worker(this));
+        }
+        task = pool.submit(() -> ForkJoinTask.invokeAll(workers));                                                      // Workers are forked from inside the pool.
+        return this;
+    }
+
+
+    /**
+     * Waits for this batch to finish and returns every generated SDF.
+     * Characters that could not be loaded by FreeType are omitted.
+     *
+     * @return generated SDFs, in the same order as the requested characters
+     * @throws CancellationException if this batch was cancelled before finishing
+     */
+    public List<GlyphSdf> join() {
+
+        if (task == null) {
+
+            throw new IllegalStateException("Batch has not been started");
+        }
+        task.join();
+
+        if (cancelled.get()) {
+
+            throw new CancellationException("SDF batch was cancelled after "
+                    + completed.get() + " of " + codepoints.length + " characters");
+        }
+        List<GlyphSdf> output = new ArrayList<>(results.length);
+
+        for (GlyphSdf result : results) {
+
+            if (result != null) {
+
+                output.add(result);
+            }
+        }
+        return output;
+    }
+
+
+    /**
+     * Cancels this batch.
+     * Characters already being generated are finished, but no new ones are started.
+     */
+    public void cancel() {
+
+        cancelled.set(true);
+    }
+
+
+    /**
+     * Generates SDFs for characters claimed from the shared cursor until none remain or this batch is cancelled.
+     * Runs on a single worker thread with its own generator.
+     */
+    private void work() {
+
+        if (cancelled.get() || (cursor.get() >= codepoints.length)) {
+
+            return;                                                                                                     // Avoid opening a face if there is nothing left to do.
+        }
+
+        try (SdfGenerator generator = new SdfGenerator(fontFile, fontSize, engine)) {
+
+            int i;
+
+            while (!cancelled.get() && ((i = cursor.getAndIncrement()) < codepoints.length)) {
+
+                results[i] = generator.generate(codepoints[i]);
+                completed.incrementAndGet();
+            }
+        }
+    }
+
+
+    /**
+     * Creates an array containing every character in the passed range.
+     *
+     * @param first first character (inclusive)
+     * @param last last character (inclusive)
+     * @return characters
+     */
+    public static int[] range(int first, int last) {
+
+        int[] codepoints = new int[Math.max(0, last - first + 1)];
+
+        for (int i = 0; i < codepoints.length; i++) {
+
+            codepoints[i] = first + i;
+        }
+        return codepoints;
+    }
+
+
+    // GETTERS
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    public boolean isDone() {
+        return (task != null) && task.isDone();
+    }
+
+    public int getCompletedCount() {
+        return completed.get();
+    }
+
+    public int getTotalCount() {
+        return codepoints.length;
+    }
+
+
+    /**
+     * This class runs the work of a batch on a single thread of the pool.
+     */
+    private static class Worker extends RecursiveAction {
+
+        // FIELDS
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Batch that this worker does the work of.
+         */
+        private final transient SdfBatch batch;
+
+
+        // CONSTRUCTOR
+        /**
+         * Constructs a Worker instance.
+         *
+         * @param batch batch to do the work of
+         */
+        private Worker(SdfBatch batch) {
+            this.batch = batch;
+        }
+
+
+        // METHODS
+        @Override
+        protected void compute() {
+
+            batch.work();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package sdf;
+
+import com.mlomb.freetypejni.Face;
+import com.mlomb.freetypejni.FreeType;
+import com.mlomb.freetypejni.Library;
+
+import static com.mlomb.freetypejni.FreeType.*;
+import static com.mlomb.freetypejni.FreeTypeConstants.FT_LOAD_RENDER;
+
+/**
+ * This class generates SDFs (Signed Distance Fields) for characters of a single font file.
+ * The FreeType library and face are opened once upon construction and reused for every character generated, so a
+ * single instance should be used for as many characters as possible.
+ * Instances are not thread-safe; each thread must use its own instance.
+ */
+public class SdfGenerator implements AutoCloseable {
+
+    // FIELDS
+    /**
+     * Padding around characters in generated SDFs.
+     */
+    private final int padding = 15;
+
+    /**
+     * Resolution that characters will scale up to before computing distance fields.
+     */
+    private final int upscaleResolution = 1024;
+
+    /**
+     * How far we will search within the upscaled image to find another pixel.
+     */
+    private final int spread = upscaleResolution / 2;
+
+    /**
+     * Size of SDFs to generate.
+     */
+    private final int fontSize;
+
+    /**
+     * Engine used to compute distance fields.
+     */
+    private final DistanceFieldEngine engine;
+
+    /**
+     * FreeType library owned by this generator.
+     */
+    private final Library library;
+
+    /**
+     * FreeType face owned by this generator.
+     */
+    private final Face face;
+
+
+    // CONSTRUCTOR
+    /**
+     * Constructs an SdfGenerator instance.
+     *
+     * @param fontFile file path of font from program root
+     * @param fontSize size of SDFs to generate
+     * @param engine engine used to compute distance fields
+     */
+    public SdfGenerator(String fontFile, int fontSize, DistanceFieldEngine engine) {
+        this.fontSize = fontSize;
+        this.engine = engine;
+        this.library = FreeType.newLibrary();                                                                           // Load FreeType library.
+
+        if (library == null) {
+
+            throw new RuntimeException("Failed to load FreeType library");
+        }
+        this.face = library.newFace(fontFile, 0);                                                                       // Create font using the font file passed in.
+
+        if (face == null) {
+
+            FT_Done_FreeType(library.getPointer());
+            throw new RuntimeException("Failed to load font from " + fontFile);
+        }
+        FT_Set_Pixel_Sizes(face.getPointer(), 0, upscaleResolution);
+    }
+
+
+    // METHODS
+    /**
+     * Generates an SDF of the target character.
+     *
+     * @param codepoint character to render
+     * @return SDF, or null if the font has no glyph for the target character or FreeType is not able to load it
+     */
+    public GlyphSdf generate(int codepoint) {
+
+        long startNanos = System.nanoTime();
+        int glyphIndex = FT_Get_Char_Index(face.getPointer(), codepoint);                                               // Takes the full codepoint, unlike FT_Load_Char (which takes a char).
+
+        if ((glyphIndex == 0) || FT_Load_Glyph(face.getPointer(), glyphIndex, FT_LOAD_RENDER)) {
+
+            return null;
+        }
+        int glyphWidth = face.getGlyphSlot().getBitmap().getWidth();
+        int glyphHeight = face.getGlyphSlot().getBitmap().getRows();
+        byte[] glyphBitmap = new byte[glyphHeight * glyphWidth];
+        face.getGlyphSlot().getBitmap().getBuffer()
+                .get(glyphBitmap, 0,  glyphWidth * glyphHeight);                                                        // Places buffer inside of byte array.
+
+        return fromBitmap(codepoint, glyphBitmap, glyphWidth, glyphHeight,
+                (float)upscaleResolution / (float)fontSize, padding, spread, engine, startNanos);
+    }
+
+
+    /**
+     * Generates an SDF from an already rasterized, upscaled character bitmap.
+     *
+     * @param codepoint character that the bitmap contains
+     * @param glyphBitmap upscaled character bitmap (one byte per pixel, row-major)
+     * @param glyphWidth upscaled character bitmap width
+     * @param glyphHeight upscaled character bitmap height
+     * @param scale how much larger the upscaled character is compared to the output SDF
+     * @param padding padding around character in output SDF
+     * @param spread spread factor in upscaled pixels
+     * @param engine engine used to compute the distance field
+     * @param startNanos time at which generation of this character started (nanoseconds)
+     * @return SDF
+     */
+    public static GlyphSdf fromBitmap(int codepoint, byte[] glyphBitmap, int glyphWidth, int glyphHeight, float scale,
+                                      int padding, int spread, DistanceFieldEngine engine, long startNanos) {
+
+        int characterWidth = (int)((float)glyphWidth / scale);
+        int characterHeight = (int)((float)glyphHeight / scale);
+        int bitmapWidth = characterWidth + padding * 2;                                                                 // Output bitmap; multiplied by two since padding on both left and right.
+        int bitmapHeight = characterHeight + padding * 2;                                                               // Output bitmap; multiplied by two since padding on both top and bottom.
+        float bitmapScaleX = (characterWidth > 0) ? (float)glyphWidth / (float)characterWidth : scale;                  // How much larger the upscaled font compared to the output font.
+        float bitmapScaleY = (characterHeight > 0) ? (float)glyphHeight / (float)characterHeight : scale;               // ^^^
+        byte[] bitmap = new byte[bitmapWidth * bitmapHeight];                                                           // Output (SDF bitmap).
+        int margin = (int)Math.ceil(padding * Math.max(bitmapScaleX, bitmapScaleY)) + 1;                                // How far outside the big glyph samples will land.
+        DistanceField field = engine.compute(glyphBitmap, glyphWidth, glyphHeight, margin, spread);                     // Compute distance field once for the entire big glyph.
+
+        for (int y = -padding; y < (characterHeight + padding); y++) {                                                  // Loop through negative padding to positive padding (below and above).
+
+            for (int x = -padding; x < (characterWidth + padding); x++) {                                               // Loop though negative to positive padding (left and right).
+
+                int pixelX = (int)mapRange(x, -padding, characterWidth + padding,
+                        -padding * bitmapScaleX, (characterWidth + padding) * bitmapScaleX);                            // Map pixel X into big glyph range.
+                int pixelY = (int)mapRange(y, -padding, characterHeight + padding,
+                        -padding * bitmapScaleY, (characterHeight + padding) * bitmapScaleY);                           // Map pixel Y into big glyph range.
+                float val = field.sample(pixelX, pixelY);
+                bitmap[(x + padding) + ((y + padding) * bitmapWidth)] = (byte)(int)(val * 255.0f);                      // Place nearest pixel inside of bitmap.
+            }
+        }
+        return new GlyphSdf(codepoint, bitmapWidth, bitmapHeight, bitmap, System.nanoTime() - startNanos);
+    }
+
+
+    /**
+     * Frees library and font memory.
+     */
+    @Override
+    public void close() {
+
+        FT_Done_Face(face.getPointer());
+        FT_Done_FreeType(library.getPointer());
+    }
+
+
+    /**
+     * Maps values into the specified range.
+     *
+     * @param val
+     * @param inMin
+     * @param inMax
+     * @param outMin
+     * @param outMax
+     * @return output
+     */
+    private static float mapRange(float val, float inMin, float inMax, float outMin, float outMax) {
+
+        return (val - inMin) * (outMax - outMin) / (inMax - inMin) + outMin;
+    }
+}
@@ -1,10 +1,10 @@
 #type vertex
 #version 330 core
 layout (location=0) in vec2 aPos;
-layout (location=1) in vec3 aColor;
+layout (location=1) in vec4 aColor;       // Alpha defaults to one when only three components are supplied.
 layout (location=2) in vec2 aTexCoords;
 
-out vec3 fColor;
+out vec4 fColor;
 out vec2 fTexCoords;
 
 uniform mat4 uProjection;
@@ -18,13 +18,22 @@ void main() {
 #type fragment
 #version 330 core
 
-in vec3 fColor;
+in vec4 fColor;
 in vec2 fTexCoords;
 
 uniform sampler2D uFontTexture;
+uniform int uSdf;
 
 out vec4 color;
 
 void main() {
-    color = vec4(fColor, 1) * texture(uFontTexture, fTexCoords);
+    float texel = texture(uFontTexture, fTexCoords).r;    // Single-channel (R8) atlas.
+    if (uSdf == 1) {
+        float distance = texel;
+        float smoothing = fwidth(distance);
+        float alpha = smoothstep(0.5 - smoothing, 0.5 + smoothing, distance);
+        color = vec4(fColor.rgb, fColor.a * alpha);
+    } else {
+        color = fColor * texel;
+    }
 }
@@ -0,0 +1,40 @@
+#type vertex
+#version 330 core
+layout (location=0) in vec2 aCorner;       // Corner of unit quad, from (0, 0) at top-left to (1, 1) at bottom-right.
+layout (location=1) in vec4 aRect;         // Per character: position of top-left corner (xy) and size (zw).
+layout (location=2) in vec4 aTexRect;      // Per character: texture coordinates of top-left (xy) and bottom-right (zw).
+layout (location=3) in vec4 aColor;        // Per character: color.
+
+out vec4 fColor;
+out vec2 fTexCoords;
+
+uniform mat4 uProjection;
+
+void main() {
+    fTexCoords = mix(aTexRect.xy, aTexRect.zw, aCorner);
+    fColor = aColor;
+    gl_Position = uProjection * vec4(aRect.xy + aCorner * aRect.zw, -5, 1);
+}
+
+#type fragment
+#version 330 core
+
+in vec4 fColor;
+in vec2 fTexCoords;
+
+uniform sampler2D uFontTexture;
+uniform int uSdf;
+
+out vec4 color;
+
+void main() {
+    float texel = texture(uFontTexture, fTexCoords).r;    // Single-channel (R8) atlas.
+    if (uSdf == 1) {
+        float distance = texel;
+        float smoothing = fwidth(distance);
+        float alpha = smoothstep(0.5 - smoothing, 0.5 + smoothing, distance);
+        color = vec4(fColor.rgb, fColor.a * alpha);
+    } else {
+        color = fColor * texel;
+    }
+}
@@ -0,0 +1,57 @@
+#type vertex
+#version 330 core
+layout (location=0) in vec2 aPos;
+layout (location=1) in vec4 aColor;
+layout (location=2) in vec2 aTexCoords;
+layout (location=3) in int aSlot;          // Texture slot of the character's font texture.
+
+out vec4 fColor;
+out vec2 fTexCoords;
+flat out int fSlot;
+
+uniform mat4 uProjection;
+
+void main() {
+    fTexCoords = aTexCoords;
+    fColor = aColor;
+    fSlot = aSlot;
+    gl_Position = uProjection * vec4(aPos, -5, 1);
+}
+
+#type fragment
+#version 330 core
+
+in vec4 fColor;
+in vec2 fTexCoords;
+flat in int fSlot;
+
+uniform sampler2D uFontTextures[8];
+uniform int uSdf[8];
+
+out vec4 color;
+
+// GLSL 3.30 only allows sampler arrays to be indexed by constants, hence the switch.
+float sampleSlot(int slot, vec2 texCoords) {
+    switch (slot) {
+        case 0: return texture(uFontTextures[0], texCoords).r;
+        case 1: return texture(uFontTextures[1], texCoords).r;
+        case 2: return texture(uFontTextures[2], texCoords).r;
+        case 3: return texture(uFontTextures[3], texCoords).r;
+        case 4: return texture(uFontTextures[4], texCoords).r;
+        case 5: return texture(uFontTextures[5], texCoords).r;
+        case 6: return texture(uFontTextures[6], texCoords).r;
+        default: return texture(uFontTextures[7], texCoords).r;
+    }
+}
+
+void main() {
+    float texel = sampleSlot(fSlot, fTexCoords);    // Single-channel (R8) atlas.
+    if (uSdf[fSlot] == 1) {
+        float distance = texel;
+        float smoothing = fwidth(distance);
+        float alpha = smoothstep(0.5 - smoothing, 0.5 + smoothing, distance);
+        color = vec4(fColor.rgb, fColor.a * alpha);
+    } else {
+        color = fColor * texel;
+    }
+}
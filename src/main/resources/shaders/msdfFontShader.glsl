@@ -0,0 +1,38 @@
+#type vertex
+#version 330 core
+layout (location=0) in vec2 aPos;
+layout (location=1) in vec4 aColor;       // Alpha defaults to one when only three components are supplied.
+layout (location=2) in vec2 aTexCoords;
+
+out vec4 fColor;
+out vec2 fTexCoords;
+
+uniform mat4 uProjection;
+
+void main() {
+    fTexCoords = aTexCoords;
+    fColor = aColor;
+    gl_Position = uProjection * vec4(aPos, -5, 1);
+}
+
+#type fragment
+#version 330 core
+
+in vec4 fColor;
+in vec2 fTexCoords;
+
+uniform sampler2D uFontTexture;
+
+out vec4 color;
+
+float median(float r, float g, float b) {
+    return max(min(r, g), min(max(r, g), b));
+}
+
+void main() {
+    vec3 msd = texture(uFontTexture, fTexCoords).rgb;
+    float distance = median(msd.r, msd.g, msd.b);
+    float smoothing = fwidth(distance);
+    float alpha = smoothstep(0.5 - smoothing, 0.5 + smoothing, distance);
+    color = vec4(fColor.rgb, fColor.a * alpha);
+}
@@ -0,0 +1,110 @@
+package fonts;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that baked fonts read back as written, and that damaged files are rejected with an IOException (so the font
+ * is generated again) instead of handing a short texel region to the GPU.
+ */
+class BakedFontTest {
+
+    // FIELDS
+    /**
+     * Byte offset of the texel offset within the header (magic, version, key, then seven fields before it).
+     */
+    private static final int texelOffsetPosition = 2 * Integer.BYTES + 32 + 8 * Integer.BYTES;
+
+    /**
+     * Byte offset of the texel length within the header.
+     */
+    private static final int texelLengthPosition = texelOffsetPosition + Integer.BYTES;
+
+    /**
+     * Font baked once for every test.
+     */
+    private static BakedFont baked;
+
+    /**
+     * Directory that each test writes its baked font into.
+     */
+    @TempDir
+    Path directory;
+
+
+    // METHODS
+    @BeforeAll
+    static void bake() {
+
+        baked = CFont.bake("/fonts/Arimo-mO92.ttf", 16, AtlasMode.COVERAGE);
+    }
+
+
+    @Test
+    void writtenFontReadsBack() throws IOException {
+
+        BakedFont read = BakedFont.read(baked.write(directory), baked.getKey());
+        assertEquals(baked.getTexels().limit(), read.getTexels().limit());
+        assertEquals(baked.getTexels().rewind(), read.getTexels().rewind());
+    }
+
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+
+        Path file = baked.write(directory);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+
+            channel.truncate(channel.size() - 100);                                                                     // Cut off the end of the texels.
+        }
+        assertThrows(IOException.class, () -> BakedFont.read(file, baked.getKey()));
+    }
+
+
+    @Test
+    void wrongTexelLengthIsRejected() throws IOException {
+
+        Path file = baked.write(directory);
+        overwriteInt(file, texelLengthPosition, baked.getTexels().limit() - 1);
+        assertThrows(IOException.class, () -> BakedFont.read(file, baked.getKey()));
+    }
+
+
+    @Test
+    void texelOffsetInsideHeaderIsRejected() throws IOException {
+
+        Path file = baked.write(directory);
+        overwriteInt(file, texelOffsetPosition, 0);
+        assertThrows(IOException.class, () -> BakedFont.read(file, baked.getKey()));
+    }
+
+
+    /**
+     * Overwrites a single little-endian int of a file.
+     *
+     * @param file target file
+     * @param position byte offset of int
+     * @param value value to write
+     * @throws IOException if the file cannot be written
+     */
+    private static void overwriteInt(Path file, int position, int value) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+
+            channel.write(ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(value).flip(),
+                    position);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package fonts;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks the counters, memory cap, and staleness handling of LayoutCache, without an OpenGL context.
+ */
+class LayoutCacheTest {
+
+    // FIELDS
+    /**
+     * Font file that every font is loaded from.
+     */
+    private static final String filePath = "/fonts/Arimo-mO92.ttf";
+
+    /**
+     * Font that text is laid out in (its texture is never uploaded).
+     */
+    private static CFont font;
+
+    /**
+     * Estimated memory of an entry holding any three-character string without spaces.
+     */
+    private static long entryBytes;
+
+
+    // METHODS
+    @BeforeAll
+    static void loadFont() {
+
+        font = TestFonts.load(filePath, 32, AtlasMode.COVERAGE);
+        LayoutCache cache = new LayoutCache();
+        cache.get(font, "abc", 1f);
+        entryBytes = cache.getBytes();
+    }
+
+
+    @Test
+    void countersTrackHitsAndMisses() {
+
+        LayoutCache cache = new LayoutCache();
+        GlyphRun run = cache.get(font, "abc", 1f);
+        assertSame(run, cache.get(font, "abc", 1f));
+        cache.get(font, "abc", 2f);                                                                                     // Different scale, so a different entry.
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+        assertEquals(2, cache.getSize());
+        assertEquals(2 * entryBytes, cache.getBytes());
+
+        cache.resetCounters();
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        cache.clear();
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getBytes());
+    }
+
+
+    @Test
+    void leastRecentlyUsedRunIsEvictedOverCap() {
+
+        LayoutCache cache = new LayoutCache(2 * entryBytes);
+        cache.get(font, "aaa", 1f);
+        cache.get(font, "bbb", 1f);
+        cache.get(font, "aaa", 1f);                                                                                     // Now more recently used than "bbb".
+        cache.get(font, "ccc", 1f);
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.getSize());
+        assertEquals(2 * entryBytes, cache.getBytes());
+
+        cache.resetCounters();
+        cache.get(font, "aaa", 1f);
+        cache.get(font, "ccc", 1f);
+        assertEquals(2, cache.getHits());
+        cache.get(font, "bbb", 1f);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+    }
+
+
+    @Test
+    void oversizedRunIsNeverCached() {
+
+        LayoutCache cache = new LayoutCache(entryBytes - 1);
+        GlyphRun run = cache.get(font, "abc", 1f);
+        assertNotSame(run, cache.get(font, "abc", 1f));
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getBytes());
+    }
+
+
+    @Test
+    void staleRunIsLaidOutAgain() {
+
+        CFont staleFont = TestFonts.load(filePath, 32, AtlasMode.COVERAGE);                                             // Own instance, since its metrics are changed.
+        LayoutCache cache = new LayoutCache();
+        GlyphRun run = cache.get(staleFont, "abc", 1f);
+        staleFont.getMetrics().set(1, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1);                                                    // Overwriting a glyph makes runs stale.
+        GlyphRun relaid = cache.get(staleFont, "abc", 1f);
+
+        assertNotSame(run, relaid);
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getSize());
+        assertEquals(entryBytes, cache.getBytes());
+        assertSame(relaid, cache.get(staleFont, "abc", 1f));
+    }
+}
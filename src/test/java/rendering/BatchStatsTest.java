@@ -0,0 +1,98 @@
+package rendering;
+
+import fonts.AtlasMode;
+import fonts.CFont;
+import fonts.TestFonts;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the byte accounting of FontBatch (see BatchStats) matches what a RecordingVertexStream was handed.
+ * Batches are committed but never drawn, so no OpenGL context is needed.
+ */
+class BatchStatsTest {
+
+    // FIELDS
+    /**
+     * Number of characters each batch can store.
+     */
+    private static final int capacity = 64;
+
+    /**
+     * Font that text is laid out in (its texture is never uploaded).
+     */
+    private static CFont font;
+
+
+    // METHODS
+    @BeforeAll
+    static void loadFont() {
+
+        font = TestFonts.load("/fonts/Arimo-mO92.ttf", 32, AtlasMode.COVERAGE);
+    }
+
+
+    @ParameterizedTest
+    @EnumSource(value = VertexFormat.class, names = {"QUAD", "INSTANCED"})
+    void statsMatchCommittedBytes(VertexFormat vertexFormat) {
+
+        RecordingVertexStream stream = new RecordingVertexStream();
+        FontBatch batch = new FontBatch(capacity, vertexFormat, stream);
+        int glyphBytes = vertexFormat.getGlyphBytes();
+
+        batch.addString(font, "Hello", 0, 100, 1f, 0xFFFFFF, 1f);
+        flushWithoutDrawing(batch, stream);
+        batch.addString(font, "Hi there", 0, 100, 1f, 0xFFFFFF, 1f);                                                    // The space takes no quad.
+        flushWithoutDrawing(batch, stream);
+
+        assertEquals(List.of(5 * glyphBytes, 7 * glyphBytes), stream.getCommits());
+        BatchStats stats = batch.getStats();
+        assertEquals(stream.getBytesUploaded(), stats.getBytesUploaded());
+        assertEquals(12, stats.getQuads());
+        assertEquals(2, stats.getDrawCalls());
+        assertEquals(2, stats.getFlushCount(FlushReason.EXPLICIT));
+        assertEquals(2, stream.getEndCount());
+    }
+
+
+    @Test
+    void commitOffsetsCycleThroughRegions() {
+
+        RecordingVertexStream stream = new RecordingVertexStream(3);
+        FontBatch batch = new FontBatch(capacity, VertexFormat.QUAD, stream);
+        int regionBytes = capacity * VertexFormat.QUAD.getGlyphBytes();
+        List<Integer> offsets = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+
+            batch.addString(font, "Region", 0, 100, 1f, 0xFFFFFF, 1f);
+            offsets.add(flushWithoutDrawing(batch, stream));
+        }
+        assertEquals(List.of(0, regionBytes, 2 * regionBytes, 0), offsets);                                             // Fourth commit wraps around to the first region.
+        assertEquals(offsets, stream.getCommitOffsets());
+        assertEquals(4L * 6 * VertexFormat.QUAD.getGlyphBytes(), batch.getStats().getBytesUploaded());
+    }
+
+
+    /**
+     * Runs a batch through every step of a flush except drawing.
+     *
+     * @param batch target batch
+     * @param stream stream of batch
+     * @return offset that characters were committed at
+     */
+    private static int flushWithoutDrawing(FontBatch batch, RecordingVertexStream stream) {
+
+        int offset = batch.commit(FlushReason.EXPLICIT);
+        stream.end();
+        batch.discard();
+        return offset;
+    }
+}
@@ -0,0 +1,86 @@
+package rendering;
+
+import fonts.AtlasMode;
+import fonts.CFont;
+import fonts.TestFonts;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that strings are only rejected as a whole when nothing in them can be visible: fonts generated up front know
+ * the extents of every character, but fonts that rasterize characters on demand do not, so their strings are never
+ * rejected as a whole.
+ * Batches write into a RecordingVertexStream and are never drawn, so no OpenGL context is needed.
+ */
+class FontBatchCullingTest {
+
+    // FIELDS
+    /**
+     * Font file that both fonts are loaded from.
+     */
+    private static final String filePath = "/fonts/Arimo-mO92.ttf";
+
+    /**
+     * Font generated up front.
+     */
+    private static CFont eagerFont;
+
+    /**
+     * Font that rasterizes characters on demand (nothing is rasterized by these tests).
+     */
+    private static CFont lazyFont;
+
+
+    // METHODS
+    @BeforeAll
+    static void loadFonts() {
+
+        eagerFont = TestFonts.load(filePath, 32, AtlasMode.COVERAGE);
+        lazyFont = new CFont(filePath, 32, AtlasMode.COVERAGE, 512, 1);
+    }
+
+
+    @Test
+    void textJustAboveScreenBottomIsKept() {
+
+        FontBatch batch = new FontBatch(64, VertexFormat.QUAD, new RecordingVertexStream());
+        int y = yForBaseline(FontBatch.screenHeight + 2);                                                               // Baseline just below screen, so tops of "H" are visible.
+
+        batch.addString(eagerFont, "HHHH", 0, y, 1f, 0xFFFFFF, 1f);
+        assertEquals(0, batch.getStats().getCulledQuads());
+        batch.commit(FlushReason.EXPLICIT);
+        assertEquals(4, batch.getStats().getQuads());
+        batch.discard();
+
+        assertFalse(batch.isStringCulled(lazyFont, y, 1f, 4));
+        assertEquals(0, batch.getStats().getCulledQuads());
+    }
+
+
+    @Test
+    void textFarBelowScreenIsCulledOnlyWhenExtentsAreKnown() {
+
+        FontBatch batch = new FontBatch(64, VertexFormat.QUAD, new RecordingVertexStream());
+        int y = FontBatch.screenHeight + 100;
+
+        assertTrue(batch.isStringCulled(eagerFont, y, 1f, 4));
+        assertFalse(batch.isStringCulled(lazyFont, y, 1f, 4));                                                          // Left to per-character culling once rasterized.
+        assertEquals(4, batch.getStats().getCulledQuads());
+    }
+
+
+    /**
+     * Finds the screen coordinate to pass to addString so that text sits on the passed baseline at a scale of one.
+     *
+     * @param baseline screen coordinate of baseline
+     * @return screen coordinate (topmost y)
+     */
+    private static int yForBaseline(int baseline) {
+
+        return baseline - eagerFont.getMetrics().getHeight();
+    }
+}
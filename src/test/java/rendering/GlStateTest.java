@@ -0,0 +1,110 @@
+package rendering;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that GlState skips redundant state changes, by recording the calls it makes instead of making them.
+ */
+class GlStateTest {
+
+    // FIELDS
+    /**
+     * Backend that records every call GlState makes.
+     */
+    private final RecordingGlBackend backend = new RecordingGlBackend();
+
+    /**
+     * Backend that was in use before each test, restored afterwards.
+     */
+    private GlBackend previousBackend;
+
+
+    // METHODS
+    @BeforeEach
+    void setUp() {
+
+        previousBackend = GlState.getBackend();
+        GlState.setBackend(backend);
+        GlState.resetCounters();
+    }
+
+
+    @AfterEach
+    void tearDown() {
+
+        GlState.setBackend(previousBackend);
+        GlState.resetCounters();
+    }
+
+
+    @Test
+    void redundantProgramIsSkipped() {
+
+        GlState.useProgram(3);
+        GlState.useProgram(3);
+        GlState.useProgram(4);
+        assertEquals(List.of("useProgram 3", "useProgram 4"), backend.getCalls());
+        assertEquals(2, GlState.getStateChanges());
+        assertEquals(1, GlState.getStateChangesSkipped());
+    }
+
+
+    @Test
+    void redundantTextureIsSkipped() {
+
+        GlState.bindTexture(0, 5);
+        GlState.bindTexture(0, 5);
+        GlState.bindTexture(1, 5);                                                                                      // Same texture, but on another unit.
+        GlState.bindTexture(1, 6);
+        GlState.bindTexture(0, 5);
+        assertEquals(List.of("activeTexture 0", "bindTexture 5", "activeTexture 1", "bindTexture 5", "bindTexture 6"),
+                backend.getCalls());
+        assertEquals(3, GlState.getStateChanges());
+        assertEquals(2, GlState.getStateChangesSkipped());
+    }
+
+
+    @Test
+    void redundantBlendModeIsSkipped() {
+
+        GlState.setBlendMode(BlendMode.ALPHA);
+        GlState.setBlendMode(BlendMode.ALPHA);
+        GlState.setBlendMode(BlendMode.PREMULTIPLIED);
+        assertEquals(List.of("blendMode ALPHA", "blendMode PREMULTIPLIED"), backend.getCalls());
+        assertEquals(2, GlState.getStateChanges());
+        assertEquals(1, GlState.getStateChangesSkipped());
+    }
+
+
+    @Test
+    void trackedTextureBindingIsReported() {
+
+        assertEquals(0, GlState.getActiveTextureUnit());
+        assertEquals(-1, GlState.getBoundTexture(2));
+        GlState.bindTexture(2, 7);
+        assertEquals(2, GlState.getActiveTextureUnit());
+        assertEquals(7, GlState.getBoundTexture(2));
+    }
+
+
+    @Test
+    void invalidateForgetsTrackedState() {
+
+        GlState.useProgram(3);
+        GlState.bindTexture(0, 5);
+        GlState.setBlendMode(BlendMode.ALPHA);
+        backend.clear();
+        GlState.invalidate();
+        GlState.useProgram(3);
+        GlState.bindTexture(0, 5);
+        GlState.setBlendMode(BlendMode.ALPHA);
+        assertEquals(List.of("useProgram 3", "activeTexture 0", "bindTexture 5", "blendMode ALPHA"),
+                backend.getCalls());
+    }
+}
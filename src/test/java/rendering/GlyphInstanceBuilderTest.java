@@ -0,0 +1,79 @@
+package rendering;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the layout of the 28-byte instance records written by GlyphInstanceBuilder.
+ */
+class GlyphInstanceBuilderTest {
+
+    // METHODS
+    @Test
+    void recordIs28Bytes() {
+
+        assertEquals(28, GlyphInstanceBuilder.glyphBytes);
+        assertEquals(16, GlyphInstanceBuilder.texCoordsOffset);
+        assertEquals(24, GlyphInstanceBuilder.colorOffset);
+    }
+
+
+    @Test
+    void recordHoldsPositionSizeTexCoordsAndColor() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(2 * GlyphInstanceBuilder.glyphBytes).order(ByteOrder.nativeOrder());
+        GlyphInstanceBuilder.put(buffer, 1, 10f, 20f, 25f, 60f, 0f, 0.5f, 1f, 0.25f, 0x80112233);
+        int index = GlyphInstanceBuilder.glyphBytes;                                                                    // Second record.
+
+        assertEquals(10f, buffer.getFloat(index));
+        assertEquals(20f, buffer.getFloat(index + 4));
+        assertEquals(15f, buffer.getFloat(index + 8));
+        assertEquals(40f, buffer.getFloat(index + 12));
+
+        assertEquals(0, texCoord(buffer, index, 0));
+        assertEquals(32768, texCoord(buffer, index, 1));
+        assertEquals(65535, texCoord(buffer, index, 2));
+        assertEquals(16384, texCoord(buffer, index, 3));
+
+        assertEquals(0x11, buffer.get(index + GlyphInstanceBuilder.colorOffset) & 0xFF);                                // RGBA, not ARGB.
+        assertEquals(0x22, buffer.get(index + GlyphInstanceBuilder.colorOffset + 1) & 0xFF);
+        assertEquals(0x33, buffer.get(index + GlyphInstanceBuilder.colorOffset + 2) & 0xFF);
+        assertEquals(0x80, buffer.get(index + GlyphInstanceBuilder.colorOffset + 3) & 0xFF);
+
+        for (int i = 0; i < GlyphInstanceBuilder.glyphBytes; i++) {
+
+            assertEquals(0, buffer.get(i), "Byte " + i + " of first record");
+        }
+    }
+
+
+    @Test
+    void texCoordsClampToZeroAndOne() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(GlyphInstanceBuilder.glyphBytes).order(ByteOrder.nativeOrder());
+        GlyphInstanceBuilder.put(buffer, 0, 0f, 0f, 1f, 1f, -0.5f, -0.0001f, 1.5f, 1.0001f, 0xFFFFFFFF);
+
+        assertEquals(0, texCoord(buffer, 0, 0));
+        assertEquals(0, texCoord(buffer, 0, 1));
+        assertEquals(65535, texCoord(buffer, 0, 2));
+        assertEquals(65535, texCoord(buffer, 0, 3));
+    }
+
+
+    /**
+     * Reads a texture coordinate of a record as an unsigned short.
+     *
+     * @param buffer source buffer
+     * @param index byte index of record
+     * @param component u0, v0, u1, or v1 (0 to 3)
+     * @return normalized unsigned short (0 to 65535)
+     */
+    private static int texCoord(ByteBuffer buffer, int index, int component) {
+
+        return buffer.getShort(index + GlyphInstanceBuilder.texCoordsOffset + component * Short.BYTES) & 0xFFFF;
+    }
+}
@@ -0,0 +1,135 @@
+package rendering;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the handoff of frames between the recording and rendering threads of TextCommandBuffer.
+ * Each frame is told apart by its number of commands, and commands are recorded without a font, since nothing is drawn.
+ */
+class TextCommandBufferTest {
+
+    // FIELDS
+    /**
+     * Number of frames the recording thread publishes while the rendering thread acquires concurrently.
+     */
+    private static final int concurrentFrames = 200_000;
+
+    /**
+     * Largest number of commands of a frame published concurrently.
+     */
+    private static final int maxCommands = 7;
+
+
+    // METHODS
+    @Test
+    void newestFrameWins() {
+
+        TextCommandBuffer buffer = new TextCommandBuffer(4);
+        record(buffer, 1);
+        buffer.publish();
+        record(buffer, 2);
+        buffer.publish();
+
+        assertEquals(2, buffer.acquire().getSize());
+        assertEquals(2, buffer.getFramesPublished());
+        assertEquals(1, buffer.getFramesAcquired());
+    }
+
+
+    @Test
+    void lastFrameIsRedrawnWithoutNewerOne() {
+
+        TextCommandBuffer buffer = new TextCommandBuffer(4);
+        record(buffer, 3);
+        buffer.publish();
+        TextCommandList first = buffer.acquire();
+        record(buffer, 5);                                                                                              // Recorded, but not published yet.
+
+        assertSame(first, buffer.acquire());
+        assertEquals(3, first.getSize());
+        assertEquals(1, buffer.getFramesAcquired());
+    }
+
+
+    @Test
+    void recordingListIsNeverAcquiredInAnyInterleaving() {
+
+        TextCommandBuffer buffer = new TextCommandBuffer(4);
+        Random random = new Random(42);
+        int lastPublished = 0;
+        TextCommandList drawn = buffer.acquire();
+
+        for (int frame = 1; frame <= 10_000; frame++) {
+
+            if (random.nextBoolean()) {
+
+                int commands = frame % 50 + 1;
+                record(buffer, commands);
+                buffer.publish();
+                lastPublished = commands;
+                assertEquals(0, buffer.getRecording().getSize());
+            }
+            else {
+                drawn = buffer.acquire();
+                assertEquals(lastPublished, drawn.getSize());
+                assertSame(drawn, buffer.acquire());                                                                    // Nothing newer was published in between.
+            }
+            assertNotSame(drawn, buffer.getRecording());
+        }
+    }
+
+
+    @Test
+    void acquiredFrameIsUntouchedWhileRecordingConcurrently() throws InterruptedException {
+
+        TextCommandBuffer buffer = new TextCommandBuffer(maxCommands);
+        Thread recorder = new Thread(() -> {
+
+            for (int frame = 0; frame < concurrentFrames; frame++) {
+
+                record(buffer, frame % maxCommands + 1);
+                buffer.publish();
+            }
+        });
+        recorder.start();
+
+        while (recorder.isAlive()) {
+
+            TextCommandList drawn = buffer.acquire();
+            int size = drawn.getSize();
+
+            for (int i = 0; i < 100; i++) {
+
+                Thread.onSpinWait();
+            }
+            assertEquals(size, drawn.getSize());                                                                        // The recording thread must not clear or add to it.
+            assertTrue(size <= maxCommands);
+        }
+        recorder.join();
+
+        assertEquals(concurrentFrames, buffer.getFramesPublished());
+        assertEquals((concurrentFrames - 1) % maxCommands + 1, buffer.acquire().getSize());                             // Whatever was skipped, the last frame is drawn.
+    }
+
+
+    /**
+     * Records a number of commands into the list that the recording thread currently records into.
+     *
+     * @param buffer target buffer
+     * @param commands number of commands to record
+     */
+    private static void record(TextCommandBuffer buffer, int commands) {
+
+        for (int i = 0; i < commands; i++) {
+
+            buffer.getRecording().addString(null, "Frame", i, 0, 1f, 0xFFFFFF, 1f);
+        }
+    }
+}
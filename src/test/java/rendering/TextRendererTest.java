@@ -0,0 +1,144 @@
+package rendering;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that TextRenderer sorts submissions into draw order without an OpenGL context.
+ * Fonts only serve as sort keys here, so submissions are made without one.
+ */
+class TextRendererTest {
+
+    // FIELDS
+    /**
+     * Two distinct shaders (loaded, but never compiled).
+     */
+    private final Shader shaderA = new Shader("/shaders/fontShader.glsl");
+    private final Shader shaderB = new Shader("/shaders/fontShader.glsl");
+
+
+    // METHODS
+    @Test
+    void keysSortByLayerThenShaderThenBlendThenFontThenSubmission() {
+
+        long[] expected = {
+                TextRenderer.key(Short.MIN_VALUE, 9, 3, 9, 9),
+                TextRenderer.key(-1, 9, 3, 9, 9),
+                TextRenderer.key(0, 0, 3, 9, 9),                                                                        // Each key sorts first by its most significant differing field alone.
+                TextRenderer.key(0, 1, 0, 9, 9),
+                TextRenderer.key(0, 1, 1, 0, 9),
+                TextRenderer.key(0, 1, 1, 1, 0),
+                TextRenderer.key(0, 1, 1, 1, 1),
+                TextRenderer.key(1, 0, 0, 0, 0),
+                TextRenderer.key(Short.MAX_VALUE, 0, 0, 0, 0)
+        };
+        long[] keys = new long[expected.length];
+
+        for (int i = 0; i < keys.length; i++) {
+
+            keys[i] = expected[keys.length - 1 - i];
+        }
+        Arrays.sort(keys);
+        assertArrayEquals(expected, keys);
+    }
+
+
+    @Test
+    void keyRejectsLayersOutside16Bits() {
+
+        assertThrows(IllegalArgumentException.class, () -> TextRenderer.key(Short.MAX_VALUE + 1, 0, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> TextRenderer.key(Short.MIN_VALUE - 1, 0, 0, 0, 0));
+    }
+
+
+    @Test
+    void keyRejectsIndicesOutsideTheirBits() {
+
+        assertThrows(IllegalStateException.class, () -> TextRenderer.key(0, 0x100, 0, 0, 0));
+        assertThrows(IllegalStateException.class, () -> TextRenderer.key(0, 0, 0, 0x1000, 0));
+        assertThrows(IllegalStateException.class, () -> TextRenderer.key(0, 0, 0, 0, 1 << 24));
+    }
+
+
+    @Test
+    void submissionsSortIntoDrawOrder() {
+
+        TextRenderer renderer = new TextRenderer();
+        renderer.submit(1, shaderA, BlendMode.ALPHA, null, "top", 0, 0, 1, 0xFFFFFF, 1);
+        renderer.submit(0, shaderB, BlendMode.ALPHA, null, "b1", 0, 0, 1, 0xFFFFFF, 1);
+        renderer.submit(0, shaderA, BlendMode.PREMULTIPLIED, null, "premultiplied", 0, 0, 1, 0xFFFFFF, 1);
+        renderer.submit(0, shaderA, BlendMode.ALPHA, null, "a1", 0, 0, 1, 0xFFFFFF, 1);
+        renderer.submit(0, shaderB, BlendMode.ALPHA, null, "b2", 0, 0, 1, 0xFFFFFF, 1);
+        renderer.submit(0, shaderA, BlendMode.ALPHA, null, "a2", 0, 0, 1, 0xFFFFFF, 1);
+        renderer.sort();
+        assertSortedText(renderer, "a1", "a2", "premultiplied", "b1", "b2", "top");
+    }
+
+
+    @Test
+    void submissionsSharingAKeyKeepSubmissionOrder() {
+
+        TextRenderer renderer = new TextRenderer();
+
+        for (int i = 0; i < 100; i++) {
+
+            renderer.submit(0, (i % 2 == 0) ? shaderA : shaderB, BlendMode.ALPHA, null, Integer.toString(i), 0, 0, 1,
+                    0xFFFFFF, 1);
+        }
+        renderer.sort();
+
+        for (int i = 0; i < 50; i++) {
+
+            assertEquals(Integer.toString(i * 2), renderer.getSortedText(i));
+            assertEquals(Integer.toString(i * 2 + 1), renderer.getSortedText(i + 50));
+        }
+    }
+
+
+    @Test
+    void clearForgetsShaderSortPositions() {
+
+        TextRenderer renderer = new TextRenderer();
+        renderer.submit(0, shaderA, BlendMode.ALPHA, null, "a", 0, 0, 1, 0xFFFFFF, 1);
+        renderer.submit(0, shaderB, BlendMode.ALPHA, null, "b", 0, 0, 1, 0xFFFFFF, 1);
+        renderer.clear();
+        assertEquals(0, renderer.getSubmissionCount());
+
+        renderer.submit(0, shaderB, BlendMode.ALPHA, null, "b", 0, 0, 1, 0xFFFFFF, 1);                                  // Shader B now comes first, so sorts first.
+        renderer.submit(0, shaderA, BlendMode.ALPHA, null, "a", 0, 0, 1, 0xFFFFFF, 1);
+        renderer.sort();
+        assertSortedText(renderer, "b", "a");
+    }
+
+
+    @Test
+    void submitRejectsLayersOutside16BitsWithoutSubmitting() {
+
+        TextRenderer renderer = new TextRenderer();
+        assertThrows(IllegalArgumentException.class,
+                () -> renderer.submit(1 << 16, shaderA, BlendMode.ALPHA, null, "a", 0, 0, 1, 0xFFFFFF, 1));
+        assertEquals(0, renderer.getSubmissionCount());
+    }
+
+
+    /**
+     * Checks that a renderer's submissions were sorted into the passed order.
+     *
+     * @param renderer target renderer (already sorted)
+     * @param texts text of each submission, in expected draw order
+     */
+    private static void assertSortedText(TextRenderer renderer, String... texts) {
+
+        assertEquals(texts.length, renderer.getSubmissionCount());
+
+        for (int i = 0; i < texts.length; i++) {
+
+            assertEquals(texts[i], renderer.getSortedText(i), "Draw position " + i);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package sdf;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the EDT engine agrees with the brute-force reference engine.
+ */
+class DistanceFieldEngineTest {
+
+    // FIELDS
+    /**
+     * Spread factor used for every comparison.
+     */
+    private static final int spread = 8;
+
+    /**
+     * Number of pixels sampled outside each edge of each bitmap.
+     */
+    private static final int margin = spread;
+
+    /**
+     * Largest difference allowed between the two engines for a single sample.
+     * Both are exact, so only floating-point rounding may differ.
+     */
+    private static final float tolerance = 1e-5f;
+
+
+    // METHODS
+    @Test
+    void emptyBitmapAgrees() {
+
+        assertEnginesAgree(new byte[16 * 16], 16, 16);
+    }
+
+
+    @Test
+    void fullBitmapAgrees() {
+
+        byte[] bitmap = new byte[16 * 16];
+        Arrays.fill(bitmap, (byte)255);
+        assertEnginesAgree(bitmap, 16, 16);
+    }
+
+
+    @Test
+    void singlePixelAgrees() {
+
+        byte[] bitmap = new byte[9 * 9];
+        bitmap[4 + 4 * 9] = (byte)255;
+        assertEnginesAgree(bitmap, 9, 9);
+    }
+
+
+    @Test
+    void ringWithHoleAgrees() {
+
+        int size = 24;
+        byte[] bitmap = new byte[size * size];
+
+        for (int y = 0; y < size; y++) {
+
+            for (int x = 0; x < size; x++) {
+
+                float dx = x - 11.5f;
+                float dy = y - 11.5f;
+                float distance = (float)Math.sqrt(dx * dx + dy * dy);
+
+                if ((distance >= 4) && (distance <= 10)) {                                                              // Like an 'o': a stroke around a counter.
+
+                    bitmap[x + y * size] = (byte)200;
+                }
+            }
+        }
+        assertEnginesAgree(bitmap, size, size);
+    }
+
+
+    /**
+     * Samples both engines over the passed bitmap plus its margin and checks that every sample agrees.
+     *
+     * @param bitmap source bitmap (one byte per pixel, row-major)
+     * @param width bitmap width
+     * @param height bitmap height
+     */
+    private static void assertEnginesAgree(byte[] bitmap, int width, int height) {
+
+        DistanceField reference = new BruteForceDistanceField().compute(bitmap, width, height, margin, spread);
+        DistanceField field = new EuclideanDistanceField().compute(bitmap, width, height, margin, spread);
+
+        for (int y = -margin; y < height + margin; y++) {
+
+            for (int x = -margin; x < width + margin; x++) {
+
+                assertEquals(reference.sample(x, y), field.sample(x, y), tolerance, "Sample (" + x + ", " + y + ")");
+            }
+        }
+    }
+}